@@ -0,0 +1,19 @@
+package ru.yandex.practicum.task.http;
+
+import com.google.gson.JsonObject;
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.http.enums.BatchAction;
+
+/**
+ * Операция пакетного запроса {@code POST /batch}.
+ * <p>
+ * Для {@link BatchAction#CREATE} и {@link BatchAction#UPDATE} задача передаётся в поле {@code task} в том же виде,
+ * что и в теле {@code POST /tasks}, {@code /epics} или {@code /subtasks}; для обновления id берётся из поля {@code id}
+ * или из самой задачи. Для {@link BatchAction#DELETE} задаётся только {@code id}.
+ */
+public class BatchOperation {
+    public BatchAction action;
+    public TaskType type;
+    public Integer id;
+    public JsonObject task;
+}
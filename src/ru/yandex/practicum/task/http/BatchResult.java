@@ -0,0 +1,28 @@
+package ru.yandex.practicum.task.http;
+
+/**
+ * Результат операции пакетного запроса {@code POST /batch}: код ответа, который вернул бы отдельный запрос,
+ * id созданной, обновлённой или удалённой задачи либо сообщение об ошибке.
+ */
+public class BatchResult {
+    public int index;
+    public int code;
+    public Integer id;
+    public String message;
+
+    public static BatchResult success(int index, int id) {
+        BatchResult result = new BatchResult();
+        result.index = index;
+        result.code = 201;
+        result.id = id;
+        return result;
+    }
+
+    public static BatchResult error(int index, int code, String message) {
+        BatchResult result = new BatchResult();
+        result.index = index;
+        result.code = code;
+        result.message = message;
+        return result;
+    }
+}
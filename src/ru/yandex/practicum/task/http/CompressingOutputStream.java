@@ -0,0 +1,102 @@
+package ru.yandex.practicum.task.http;
+
+import ru.yandex.practicum.task.http.enums.ContentEncoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Поток, сжимающий данные в формате gzip или deflate (zlib) с {@code Deflater} из {@link DeflaterPool}.
+ * <p>
+ * {@code GZIPOutputStream} всегда создаёт собственный {@code Deflater}, поэтому для gzip заголовок и завершающая
+ * контрольная сумма записываются здесь вокруг «сырого» потока deflate — результат совпадает с {@code GZIPOutputStream}.
+ * При закрытии {@code Deflater} возвращается в пул, а нижележащий поток закрывается.
+ */
+public final class CompressingOutputStream extends DeflaterOutputStream {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    /**
+     * Заголовок gzip: сигнатура, метод deflate, без флагов и времени изменения, ОС не указана.
+     */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final boolean gzip;
+    private final CRC32 crc = new CRC32();
+    private boolean closed;
+
+    /**
+     * @param out Поток, в который записываются сжатые данные.
+     * @param encoding {@link ContentEncoding#GZIP} или {@link ContentEncoding#DEFLATE}.
+     */
+    public CompressingOutputStream(OutputStream out, ContentEncoding encoding) throws IOException {
+        super(out, DeflaterPool.acquire(requireCompressed(encoding) == ContentEncoding.GZIP), BUFFER_SIZE);
+        gzip = encoding == ContentEncoding.GZIP;
+        if (gzip) {
+            out.write(GZIP_HEADER);
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        super.write(bytes, offset, length);
+        if (gzip) {
+            crc.update(bytes, offset, length);
+        }
+    }
+
+    /**
+     * Дописывает оставшиеся сжатые данные и, для gzip, контрольную сумму и размер исходных данных.
+     */
+    @Override
+    public void finish() throws IOException {
+        if (def.finished()) {
+            return;
+        }
+        super.finish();
+        if (gzip) {
+            writeIntLE(crc.getValue());
+            writeIntLE(def.getBytesRead());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            DeflaterPool.release(def, gzip);
+        }
+    }
+
+    /**
+     * Возвращает {@code Deflater} в пул, не дописывая сжатые данные и не закрывая нижележащий поток.
+     * Вызывается после ошибки записи, когда ответ уже не будет завершён; после этого поток нельзя использовать.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        DeflaterPool.release(def, gzip);
+    }
+
+    private void writeIntLE(long value) throws IOException {
+        out.write((int) value);
+        out.write((int) (value >> 8));
+        out.write((int) (value >> 16));
+        out.write((int) (value >> 24));
+    }
+
+    private static ContentEncoding requireCompressed(ContentEncoding encoding) {
+        if (encoding == ContentEncoding.IDENTITY) {
+            throw new IllegalArgumentException("Кодирование без сжатия не поддерживается потоком сжатия");
+        }
+        return encoding;
+    }
+
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.task.http;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * Пул {@link Deflater} для сжатия ответов.
+ * <p>
+ * Каждый {@code Deflater} держит около 256 КБ памяти вне кучи, которая освобождается только вызовом {@link Deflater#end()}
+ * или сборщиком мусора. Создание нового экземпляра на каждый ответ приводит к постоянному выделению и освобождению
+ * этой памяти, поэтому экземпляры после {@link Deflater#reset()} переиспользуются. Сверх {@link #MAX_POOLED} экземпляров
+ * на каждый формат лишние сразу освобождаются.
+ */
+public final class DeflaterPool {
+    public static final int MAX_POOLED = 32;
+    /**
+     * Баланс скорости и степени сжатия: повторяющийся JSON сжимается почти так же, как на максимальном уровне.
+     */
+    public static final int LEVEL = 6;
+
+    private static final Queue<Deflater> RAW = new ConcurrentLinkedQueue<>();
+    private static final Queue<Deflater> ZLIB = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger RAW_POOLED = new AtomicInteger();
+    private static final AtomicInteger ZLIB_POOLED = new AtomicInteger();
+
+    private DeflaterPool() {
+    }
+
+    /**
+     * Возвращает свободный {@code Deflater} из пула или новый, если пул пуст.
+     * @param nowrap {@code true} — без заголовка zlib (для gzip), {@code false} — в формате zlib (для deflate).
+     */
+    public static Deflater acquire(boolean nowrap) {
+        Deflater deflater = (nowrap ? RAW : ZLIB).poll();
+        if (deflater == null) {
+            return new Deflater(LEVEL, nowrap);
+        }
+        (nowrap ? RAW_POOLED : ZLIB_POOLED).decrementAndGet();
+        return deflater;
+    }
+
+    /**
+     * @return Количество свободных экземпляров в пуле для формата.
+     */
+    static int pooledCount(boolean nowrap) {
+        return (nowrap ? RAW_POOLED : ZLIB_POOLED).get();
+    }
+
+    /**
+     * Возвращает {@code Deflater} в пул. После возврата его нельзя использовать.
+     * @param nowrap То же значение, с которым экземпляр был получен.
+     */
+    public static void release(Deflater deflater, boolean nowrap) {
+        AtomicInteger pooled = nowrap ? RAW_POOLED : ZLIB_POOLED;
+        if (pooled.incrementAndGet() <= MAX_POOLED) {
+            deflater.reset();
+            (nowrap ? RAW : ZLIB).offer(deflater);
+        } else {
+            pooled.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package ru.yandex.practicum.task.http;
+
+import ru.yandex.practicum.task.http.enums.DispatcherMode;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Настройки {@link HttpTaskServer}: адрес, порт, размер очереди входящих соединений и способ обработки запросов.
+ * <p>
+ * Значения по умолчанию можно переопределить системными свойствами:
+ * {@code kanban.http.host}, {@code kanban.http.port}, {@code kanban.http.backlog},
+ * {@code kanban.http.dispatcher} ({@code SINGLE}, {@code VIRTUAL}, {@code POOL}), {@code kanban.http.poolSize}
+ * и {@code kanban.http.compressionMinBytes}.
+ */
+public class HttpServerConfig {
+    public static final String DEFAULT_HOST = "localhost";
+    public static final int DEFAULT_PORT = 8080;
+    /**
+     * Ноль означает размер очереди соединений, принятый в системе по умолчанию.
+     */
+    public static final int DEFAULT_BACKLOG = 0;
+    public static final DispatcherMode DEFAULT_DISPATCHER_MODE = DispatcherMode.POOL;
+    public static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+    /**
+     * Ответы короче примерно одного TCP-сегмента не сжимаются: выигрыш меньше затрат на сжатие.
+     */
+    public static final int DEFAULT_COMPRESSION_MIN_BYTES = 1024;
+
+    private final String host;
+    private final int port;
+    private final int backlog;
+    private final DispatcherMode dispatcherMode;
+    private final int poolSize;
+    private final int compressionMinBytes;
+
+    public HttpServerConfig(String host, int port, int backlog, DispatcherMode dispatcherMode, int poolSize) {
+        this(host, port, backlog, dispatcherMode, poolSize, DEFAULT_COMPRESSION_MIN_BYTES);
+    }
+
+    /**
+     * @param compressionMinBytes Наименьший размер тела ответа в байтах, начиная с которого оно сжимается,
+     *                            если клиент принимает сжатие; {@link Integer#MAX_VALUE} отключает сжатие.
+     */
+    public HttpServerConfig(String host, int port, int backlog, DispatcherMode dispatcherMode, int poolSize,
+                            int compressionMinBytes) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Некорректный порт: " + port);
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Размер пула потоков должен быть положительным: " + poolSize);
+        }
+        if (compressionMinBytes < 0) {
+            throw new IllegalArgumentException("Порог сжатия не может быть отрицательным: " + compressionMinBytes);
+        }
+        this.host = host;
+        this.port = port;
+        this.backlog = backlog;
+        this.dispatcherMode = dispatcherMode;
+        this.poolSize = poolSize;
+        this.compressionMinBytes = compressionMinBytes;
+    }
+
+    public static HttpServerConfig defaults() {
+        return new HttpServerConfig(DEFAULT_HOST, DEFAULT_PORT, DEFAULT_BACKLOG, DEFAULT_DISPATCHER_MODE, DEFAULT_POOL_SIZE);
+    }
+
+    public static HttpServerConfig fromSystemProperties() {
+        return new HttpServerConfig(
+                System.getProperty("kanban.http.host", DEFAULT_HOST),
+                Integer.getInteger("kanban.http.port", DEFAULT_PORT),
+                Integer.getInteger("kanban.http.backlog", DEFAULT_BACKLOG),
+                DispatcherMode.valueOf(System.getProperty("kanban.http.dispatcher", DEFAULT_DISPATCHER_MODE.name())),
+                Integer.getInteger("kanban.http.poolSize", DEFAULT_POOL_SIZE),
+                Integer.getInteger("kanban.http.compressionMinBytes", DEFAULT_COMPRESSION_MIN_BYTES));
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public DispatcherMode getDispatcherMode() {
+        return dispatcherMode;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getCompressionMinBytes() {
+        return compressionMinBytes;
+    }
+
+    public InetSocketAddress getAddress() {
+        return new InetSocketAddress(host, port);
+    }
+
+}
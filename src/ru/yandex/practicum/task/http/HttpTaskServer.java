@@ -1,42 +1,134 @@
 package ru.yandex.practicum.task.http;
 
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.task.http.enums.DispatcherMode;
 import ru.yandex.practicum.task.http.handlers.*;
+import ru.yandex.practicum.task.interfaces.PersistenceStatus;
 import ru.yandex.practicum.task.interfaces.TaskManager;
+import ru.yandex.practicum.task.managers.ConcurrentTaskManager;
 import ru.yandex.practicum.task.managers.FileBackedTaskManager;
 import ru.yandex.practicum.task.managers.Managers;
 
-import java.net.InetSocketAddress;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.concurrent.*;
 
 public class HttpTaskServer {
-    private static final String API_ADDRESS = "localhost";
-    private static final int PORT = 8080;
     private final HttpServer httpServer;
+    private final OverloadFilter overloadFilter = new OverloadFilter();
+    private final ExecutorService executor;
+    private final TaskManager taskManager;
 
     public HttpTaskServer(TaskManager taskManager) {
+        this(taskManager, HttpServerConfig.fromSystemProperties());
+    }
+
+    /**
+     * @param taskManager Менеджер задач. Если запросы обрабатываются в нескольких потоках, а менеджер
+     *                    не является потокобезопасным, он оборачивается в {@link ConcurrentTaskManager}.
+     * @param config Настройки сервера.
+     */
+    public HttpTaskServer(TaskManager taskManager, HttpServerConfig config) {
+        PersistenceStatus persistenceStatus = getPersistenceStatus(taskManager);
+        if (config.getDispatcherMode() != DispatcherMode.SINGLE && !(taskManager instanceof ConcurrentTaskManager)) {
+            taskManager = new ConcurrentTaskManager(taskManager);
+        }
+
         try {
-            httpServer = HttpServer.create(new InetSocketAddress(API_ADDRESS, PORT), 0);
+            httpServer = HttpServer.create(config.getAddress(), config.getBacklog());
+            int compressionMinBytes = config.getCompressionMinBytes();
 
-            httpServer.createContext("/tasks", new TasksHandler(taskManager));
-            httpServer.createContext("/subtasks", new SubtasksHandler(taskManager));
-            httpServer.createContext("/epics", new EpicsHandler(taskManager));
-            httpServer.createContext("/history", new HistoryHandler(taskManager));
-            httpServer.createContext("/prioritized", new PrioritizedHandler(taskManager));
+            createContext("/tasks", new TasksHandler(taskManager, compressionMinBytes));
+            createContext("/subtasks", new SubtasksHandler(taskManager, compressionMinBytes));
+            createContext("/epics", new EpicsHandler(taskManager, compressionMinBytes));
+            createContext("/history", new HistoryHandler(taskManager, compressionMinBytes));
+            createContext("/prioritized", new PrioritizedHandler(taskManager, compressionMinBytes));
+            createContext("/batch", new BatchHandler(taskManager, compressionMinBytes));
+            createContext("/status", new StatusHandler(taskManager, persistenceStatus));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+
+        this.taskManager = taskManager;
+        executor = createExecutor(config, overloadFilter);
+        httpServer.setExecutor(executor);
     }
 
     public void start() {
         httpServer.start();
-        System.out.println("HTTP-сервер запущен на " + PORT + " порту!");
+        System.out.println("HTTP-сервер запущен на " + httpServer.getAddress().getPort() + " порту!");
     }
 
+    /**
+     * Останавливает сервер и сбрасывает на диск изменения, которые менеджер ещё не записал
+     * (если он их откладывает, см. {@link Flushable}).
+     */
     public void stop() {
         httpServer.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        overloadFilter.shutdown();
+        if (taskManager instanceof Flushable) {
+            try {
+                ((Flushable) taskManager).flush();
+            } catch (IOException e) {
+                System.out.println("Ошибка сохранения задач при остановке сервера");
+            }
+        }
+    }
+
+    private static PersistenceStatus getPersistenceStatus(TaskManager taskManager) {
+        if (taskManager instanceof ConcurrentTaskManager) {
+            return ((ConcurrentTaskManager) taskManager).getPersistenceStatus();
+        }
+        return taskManager instanceof PersistenceStatus ? (PersistenceStatus) taskManager : null;
+    }
+
+    private void createContext(String path, HttpHandler handler) {
+        httpServer.createContext(path, handler).getFilters().add(overloadFilter);
+    }
+
+    /**
+     * Создаёт исполнителя запросов в соответствии с настройками.
+     * @return Исполнитель или {@code null}, если запросы обрабатываются в потоке-диспетчере.
+     */
+    private static ExecutorService createExecutor(HttpServerConfig config, OverloadFilter overloadFilter) {
+        return switch (config.getDispatcherMode()) {
+            case SINGLE -> null;
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            // Очередь ограничена, а при её переполнении клиент сразу получает 503 (см. OverloadFilter):
+            // поток-диспетчер не выполняет запросы сам, поэтому медленный запрос не задерживает приём остальных.
+            case POOL -> new ThreadPoolExecutor(
+                    config.getPoolSize(), config.getPoolSize(), 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(config.getPoolSize() * 64), overloadFilter.rejectionHandler());
+        };
+    }
+
+    /**
+     * Включает TCP_NODELAY во встроенном HTTP-сервере JDK, если свойство {@code sun.net.httpserver.nodelay}
+     * не задано при запуске. Сервер отправляет заголовки и тело ответа отдельными записями, и без TCP_NODELAY
+     * тело короткого ответа ждёт подтверждения заголовков (алгоритм Нейгла): каждый запрос по keep-alive
+     * соединению задерживается на десятки миллисекунд.
+     * <p>
+     * Свойство действует на всю JVM и читается один раз, при создании первого сервера, поэтому задаётся только
+     * в {@link #main}. Приложение, которое создаёт сервер само, передаёт флаг
+     * {@code -Dsun.net.httpserver.nodelay=true} при запуске JVM.
+     */
+    static void enableTcpNoDelay() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
     }
 
     public static void main(String[] args) {
+        enableTcpNoDelay();
         FileBackedTaskManager fileBackedTaskManager = Managers.getDefault();
         HttpTaskServer taskServer = new HttpTaskServer(fileBackedTaskManager);
         taskServer.start();
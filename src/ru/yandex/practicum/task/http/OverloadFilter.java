@@ -0,0 +1,92 @@
+package ru.yandex.practicum.task.http;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.task.http.errors.ErrorResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отвечает {@code 503 Service Unavailable} на запросы, которые не поместились в очередь пула потоков.
+ * <p>
+ * Пул получает запрос до того, как прочитан его заголовок, поэтому при переполнении очереди ответить на него
+ * сам не может. Политика {@link #rejectionHandler()} передаёт такой запрос небольшому отдельному пулу потоков,
+ * помеченных как перегрузка, и фильтр в этом потоке сразу отвечает 503 с {@code Retry-After}, не вызывая обработчик.
+ * Если занят и этот пул, соединение закрывается без ответа. Поток-диспетчер при этом не выполняет запросы сам
+ * и продолжает принимать соединения, а число потоков не растёт с нагрузкой.
+ * <p>
+ * Пул ответов 503 останавливается методом {@link #shutdown()} вместе с сервером.
+ */
+public final class OverloadFilter extends Filter {
+    public static final int RETRY_AFTER_SECONDS = 1;
+    static final int REJECTION_THREADS = 2;
+    static final int REJECTION_QUEUE_SIZE = 256;
+    private static final ThreadLocal<Boolean> OVERLOADED = new ThreadLocal<>();
+    private static final byte[] BODY = new Gson()
+            .toJson(new ErrorResponse("Сервер перегружен, повторите запрос позже", 503))
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ThreadPoolExecutor rejections = new ThreadPoolExecutor(
+            REJECTION_THREADS, REJECTION_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(REJECTION_QUEUE_SIZE),
+            task -> Thread.ofPlatform().name("http-overload").daemon().unstarted(task));
+
+    /**
+     * Политика отклонения для пула потоков: лишний запрос выполняется в пуле ответов 503, где фильтр
+     * отвечает на него 503. Если и этот пул занят, исключение возвращается диспетчеру HTTP-сервера,
+     * и тот закрывает соединение.
+     */
+    public RejectedExecutionHandler rejectionHandler() {
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Пул потоков остановлен");
+            }
+            rejections.execute(() -> {
+                OVERLOADED.set(true);
+                try {
+                    task.run();
+                } finally {
+                    OVERLOADED.remove();
+                }
+            });
+        };
+    }
+
+    /**
+     * Останавливает пул ответов 503: уже принятые запросы получат ответ, новые будут отклонены.
+     */
+    public void shutdown() {
+        rejections.shutdown();
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!Boolean.TRUE.equals(OVERLOADED.get())) {
+            chain.doFilter(exchange);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-type", "application/json;charset=utf-8");
+        exchange.getResponseHeaders().set("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+        try (OutputStream os = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(503, BODY.length);
+            os.write(BODY);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Ответ 503 на запросы сверх очереди пула потоков";
+    }
+
+}
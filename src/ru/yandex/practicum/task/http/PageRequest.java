@@ -0,0 +1,130 @@
+package ru.yandex.practicum.task.http;
+
+import ru.yandex.practicum.task.utils.DateTimeTaskUtil;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Параметры постраничного запроса списка: {@code ?after=&limit=}.
+ * <p>
+ * {@code after} — id последнего элемента предыдущей страницы (курсор), {@code limit} — размер страницы.
+ * Для приоритизированного списка курсор дополняется временем начала последней задачи:
+ * {@code afterStart} в формате {@code dd.MM.yyyy HH:mm}.
+ */
+public class PageRequest {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private final int afterId;
+    private final LocalDateTime afterStartTime;
+    private final int limit;
+
+    private PageRequest(int afterId, LocalDateTime afterStartTime, int limit) {
+        this.afterId = afterId;
+        this.afterStartTime = afterStartTime;
+        this.limit = limit;
+    }
+
+    /**
+     * Разбирает строку запроса.
+     * @param rawQuery Строка запроса без декодирования, может быть {@code null}.
+     * @return Пустой {@code Optional}, если параметры страницы не заданы — тогда возвращается весь список.
+     * @throws IllegalArgumentException Если параметры заданы неверно.
+     */
+    public static Optional<PageRequest> fromQuery(String rawQuery) {
+        return fromQuery(rawQuery, false);
+    }
+
+    /**
+     * Разбирает строку запроса приоритизированного списка, в котором курсор — это пара {@code afterStart} и {@code after}.
+     * Без {@code afterStart} курсор не учитывается и снова вернулась бы первая страница, поэтому {@code after}
+     * без него не допускается.
+     * @see #fromQuery(String)
+     */
+    public static Optional<PageRequest> fromPrioritizedQuery(String rawQuery) {
+        return fromQuery(rawQuery, true);
+    }
+
+    private static Optional<PageRequest> fromQuery(String rawQuery, boolean startTimeCursor) {
+        Map<String, String> params = parseQuery(rawQuery);
+        String after = params.get("after");
+        String afterStart = params.get("afterStart");
+        String limit = params.get("limit");
+
+        if (after == null && afterStart == null && limit == null) {
+            return Optional.empty();
+        }
+        if (afterStart != null && after == null) {
+            throw new IllegalArgumentException("Параметр afterStart задаётся вместе с after");
+        }
+        if (startTimeCursor && after != null && afterStart == null) {
+            throw new IllegalArgumentException("Параметр after задаётся вместе с afterStart");
+        }
+
+        return Optional.of(new PageRequest(
+                after == null ? 0 : parseInt(after, "after", 0, Integer.MAX_VALUE),
+                afterStart == null ? null : parseDateTime(afterStart),
+                limit == null ? DEFAULT_LIMIT : parseInt(limit, "limit", 1, MAX_LIMIT)));
+    }
+
+    public int getAfterId() {
+        return afterId;
+    }
+
+    /**
+     * @return Время начала последней задачи предыдущей страницы или {@code null}.
+     */
+    public LocalDateTime getAfterStartTime() {
+        return afterStartTime;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Разбирает строку запроса в параметры с декодированными именами и значениями.
+     * @param rawQuery Строка запроса без декодирования, может быть {@code null}.
+     * @throws IllegalArgumentException Если в строке запроса неверно закодированный символ.
+     */
+    public static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static int parseInt(String value, String name, int min, int max) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result < min || result > max) {
+                throw new IllegalArgumentException("Недопустимое значение параметра " + name + ": " + value);
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Недопустимое значение параметра " + name + ": " + value);
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return DateTimeTaskUtil.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Недопустимое значение параметра afterStart: " + value);
+        }
+    }
+
+}
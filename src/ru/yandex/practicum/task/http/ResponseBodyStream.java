@@ -0,0 +1,137 @@
+package ru.yandex.practicum.task.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.task.http.enums.ContentEncoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Тело ответа, способ отправки которого выбирается по мере записи.
+ * <p>
+ * Первые {@code threshold} байт накапливаются в буфере. Если тело закрыто, не превысив порог, оно отправляется
+ * без сжатия с точным {@code Content-Length} (пустое — без тела). Если порог превышен, отправляются заголовки
+ * с передачей частями, и дальше тело пишется прямо в соединение, при согласованном кодировании — через
+ * {@link CompressingOutputStream}. Так короткие ответы не сжимаются и не разбиваются на части, а длинные
+ * не собираются в памяти целиком.
+ * <p>
+ * Если ответу уже назначен заголовок {@code ETag}, при сжатии он заменяется ETag сжатого варианта
+ * (см. {@link ContentEncoding#variantEtag}): ETag зависит от того, сжато ли тело на самом деле,
+ * а не от одного согласованного кодирования.
+ */
+public final class ResponseBodyStream extends OutputStream {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final HttpExchange exchange;
+    private final int responseCode;
+    private final ContentEncoding encoding;
+    private final int threshold;
+    private byte[] buffer;
+    private int size;
+    /**
+     * Поток тела после отправки заголовков или {@code null}, пока тело накапливается в буфере.
+     */
+    private OutputStream out;
+    private boolean closed;
+
+    /**
+     * @param responseCode Код ответа.
+     * @param encoding Кодирование, согласованное с клиентом; применяется, только если тело длиннее порога.
+     * @param threshold Наибольший размер тела в байтах, которое отправляется с {@code Content-Length} без сжатия.
+     */
+    public ResponseBodyStream(HttpExchange exchange, int responseCode, ContentEncoding encoding, int threshold) {
+        this.exchange = exchange;
+        this.responseCode = responseCode;
+        this.encoding = encoding;
+        this.threshold = threshold;
+        buffer = new byte[Math.min(threshold, INITIAL_BUFFER_SIZE)];
+    }
+
+    /**
+     * Проверяет, отправлены ли заголовки ответа. До этого при ошибке ещё можно отправить другой ответ.
+     */
+    public boolean isCommitted() {
+        return out != null || closed;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (out == null) {
+            if (size + length <= threshold) {
+                if (size + length > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.min(threshold, Math.max(buffer.length * 2, size + length)));
+                }
+                System.arraycopy(bytes, offset, buffer, size, length);
+                size += length;
+                return;
+            }
+            commit();
+        }
+        out.write(bytes, offset, length);
+    }
+
+    /**
+     * Сбрасывает данные в соединение, только если заголовки уже отправлены: до этого тело остаётся в буфере,
+     * чтобы короткий ответ можно было отправить с {@code Content-Length}.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (out == null) {
+            closed = true;
+            exchange.sendResponseHeaders(responseCode, size == 0 ? -1 : size);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(buffer, 0, size);
+            }
+            return;
+        }
+        closed = true;
+        out.close();
+    }
+
+    /**
+     * Освобождает тело после ошибки записи, не отправляя оставшиеся данные: при сжатии его {@code Deflater}
+     * возвращается в пул (см. {@link CompressingOutputStream#abort()}). Ничего не делает, если тело уже закрыто.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer = null;
+        if (out instanceof CompressingOutputStream) {
+            ((CompressingOutputStream) out).abort();
+        }
+    }
+
+    private void commit() throws IOException {
+        if (encoding != ContentEncoding.IDENTITY) {
+            exchange.getResponseHeaders().set("Content-Encoding", encoding.getToken());
+            String etag = exchange.getResponseHeaders().getFirst("ETag");
+            if (etag != null) {
+                exchange.getResponseHeaders().set("ETag", encoding.variantEtag(etag));
+            }
+        }
+        exchange.sendResponseHeaders(responseCode, 0);
+        OutputStream body = exchange.getResponseBody();
+        out = encoding == ContentEncoding.IDENTITY ? body : new CompressingOutputStream(body, encoding);
+        out.write(buffer, 0, size);
+        buffer = null;
+    }
+
+}
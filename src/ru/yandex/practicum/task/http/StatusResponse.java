@@ -0,0 +1,26 @@
+package ru.yandex.practicum.task.http;
+
+import ru.yandex.practicum.task.interfaces.PersistenceStatus;
+
+/**
+ * Ответ {@code GET /status}: откладывает ли менеджер запись на диск, насколько файл отстаёт от памяти
+ * и сколько изменений ещё не записано. Для менеджера без отложенной записи отставание всегда нулевое.
+ */
+public class StatusResponse {
+    public boolean deferredPersistence;
+    public long persistenceLagMillis;
+    public long pendingChanges;
+
+    /**
+     * @param status Состояние отложенной записи или {@code null}, если менеджер записывает изменения сразу.
+     */
+    public static StatusResponse of(PersistenceStatus status) {
+        StatusResponse response = new StatusResponse();
+        if (status != null) {
+            response.deferredPersistence = true;
+            response.persistenceLagMillis = status.getPersistenceLag().toMillis();
+            response.pendingChanges = status.getPendingChanges();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.yandex.practicum.task.http.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.task.index.SortedIntSet;
+
+import java.io.IOException;
+
+/**
+ * Сериализует {@link SortedIntSet} как JSON-массив чисел в порядке возрастания.
+ */
+public class SortedIntSetTypeAdapter extends TypeAdapter<SortedIntSet> {
+    @Override
+    public void write(JsonWriter jsonWriter, SortedIntSet set) throws IOException {
+        if (set == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+        jsonWriter.beginArray();
+        for (int value : set.toArray()) {
+            jsonWriter.value(value);
+        }
+        jsonWriter.endArray();
+    }
+
+    @Override
+    public SortedIntSet read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        SortedIntSet set = new SortedIntSet();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            set.add(jsonReader.nextInt());
+        }
+        jsonReader.endArray();
+        return set;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.yandex.practicum.task.http.enums;
+
+/**
+ * Действие операции пакетного запроса {@code POST /batch}.
+ */
+public enum BatchAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,89 @@
+package ru.yandex.practicum.task.http.enums;
+
+/**
+ * Кодирование тела HTTP-ответа, согласуемое по заголовку {@code Accept-Encoding}.
+ */
+public enum ContentEncoding {
+    IDENTITY("identity"),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Значение заголовков {@code Accept-Encoding} и {@code Content-Encoding}.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Возвращает ETag сжатого варианта ответа: к ETag в кавычках добавляется суффикс кодирования,
+     * например {@code "tasks-5"} → {@code "tasks-5-gzip"}. Для {@link #IDENTITY} ETag не меняется.
+     * @param etag ETag несжатого ответа в кавычках.
+     */
+    public String variantEtag(String etag) {
+        if (this == IDENTITY) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + token + "\"";
+    }
+
+    /**
+     * Выбирает кодирование с наибольшим весом {@code q} среди поддерживаемых; при равных весах предпочитается
+     * {@link #GZIP}. Кодирования с {@code q=0} не выбираются. {@code *} задаёт вес только тех кодирований,
+     * которые не перечислены явно: {@code gzip;q=0, *} запрещает gzip и разрешает deflate.
+     * @param acceptEncoding Значение заголовка {@code Accept-Encoding}, может быть {@code null}.
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+
+        // Вес по умолчанию -1 означает, что кодирование не перечислено в заголовке.
+        double gzipWeight = -1;
+        double deflateWeight = -1;
+        double anyWeight = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String name = params[0].trim().toLowerCase();
+            double weight = parseWeight(params);
+            if (name.equals(GZIP.token) || name.equals("x-gzip")) {
+                gzipWeight = weight;
+            } else if (name.equals(DEFLATE.token)) {
+                deflateWeight = weight;
+            } else if (name.equals("*")) {
+                anyWeight = weight;
+            }
+        }
+        if (gzipWeight < 0) {
+            gzipWeight = anyWeight;
+        }
+        if (deflateWeight < 0) {
+            deflateWeight = anyWeight;
+        }
+
+        if (gzipWeight > 0 && gzipWeight >= deflateWeight) {
+            return GZIP;
+        }
+        return deflateWeight > 0 ? DEFLATE : IDENTITY;
+    }
+
+    private static double parseWeight(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.task.http.enums;
+
+/**
+ * Способ обработки HTTP-запросов сервером.
+ */
+public enum DispatcherMode {
+    /**
+     * Все запросы обрабатываются по очереди в единственном потоке-диспетчере {@code HttpServer}.
+     */
+    SINGLE,
+    /**
+     * Каждый запрос обрабатывается в отдельном виртуальном потоке.
+     * <p>
+     * В JDK 21 чтение запроса во встроенном {@code HttpServer} выполняется в {@code synchronized}-методах
+     * и закрепляет виртуальный поток за потоком-носителем, поэтому медленные клиенты на машине с малым числом
+     * ядер всё ещё могут задерживать остальные запросы. По умолчанию используется {@link #POOL}.
+     */
+    VIRTUAL,
+    /**
+     * Запросы обрабатываются ограниченным пулом платформенных потоков.
+     */
+    POOL
+}
@@ -2,44 +2,88 @@ package ru.yandex.practicum.task.http.handlers;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import ru.yandex.practicum.task.error.NotFoundException;
+import ru.yandex.practicum.task.http.HttpServerConfig;
+import ru.yandex.practicum.task.http.PageRequest;
+import ru.yandex.practicum.task.http.ResponseBodyStream;
 import ru.yandex.practicum.task.http.adapters.DurationTypeAdapter;
 import ru.yandex.practicum.task.http.adapters.LocalDateTimeTypeAdapter;
+import ru.yandex.practicum.task.http.enums.ContentEncoding;
 import ru.yandex.practicum.task.http.enums.Endpoint;
 import ru.yandex.practicum.task.http.errors.ErrorResponse;
 import ru.yandex.practicum.task.interfaces.TaskManager;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public abstract class BaseHttpHandler implements HttpHandler {
     protected final TaskManager taskManager;
     protected final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
             .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
             .create();
     private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+    /**
+     * Размер буфера, через который JSON пишется в тело ответа; несжатые тела не длиннее него
+     * отправляются с {@code Content-Length}.
+     */
+    private static final int WRITER_BUFFER_SIZE = 8 * 1024;
     private final String endpointName;
+    /**
+     * Отличает ETag этого запуска сервера от выданных прежними: версии менеджера после перезапуска начинаются заново.
+     */
+    private final String etagPrefix = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    /**
+     * Наименьший размер тела ответа в байтах, начиная с которого оно сжимается.
+     */
+    private final int compressionMinBytes;
 
     public BaseHttpHandler(TaskManager taskManager, String endpointName) {
+        this(taskManager, endpointName, HttpServerConfig.DEFAULT_COMPRESSION_MIN_BYTES);
+    }
+
+    /**
+     * @param compressionMinBytes Наименьший размер тела ответа в байтах, начиная с которого оно сжимается,
+     *                            если клиент принимает сжатие (см. {@link HttpServerConfig#getCompressionMinBytes()}).
+     */
+    public BaseHttpHandler(TaskManager taskManager, String endpointName, int compressionMinBytes) {
         this.taskManager = taskManager;
         this.endpointName = endpointName;
+        this.compressionMinBytes = compressionMinBytes;
     }
 
     @Override
     public void handle(HttpExchange exchange) {
         System.out.println("Началась обработка /" + endpointName + " запроса от клиента.");
 
+        // Строка запроса проверяется до обработки: иначе ошибка её декодирования при выборе формата ответа
+        // оборвала бы соединение без ответа, а в пакетном запросе — уже после применения изменений.
+        try {
+            PageRequest.parseQuery(exchange.getRequestURI().getRawQuery());
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, "Неверная строка запроса");
+            return;
+        }
+
         Endpoint endpoint = getEndpoint(exchange.getRequestURI().getPath(), exchange.getRequestMethod());
 
         switch (endpoint) {
@@ -55,19 +99,19 @@ public abstract class BaseHttpHandler implements HttpHandler {
     protected abstract void handleGetItems(HttpExchange exchange);
 
     protected void handleGetItemById(HttpExchange exchange) {
-        writeResponse(exchange, "Такой эндпоинт не реализован", 501);
+        sendNotImplemented(exchange);
     }
 
     protected void handlePostItem(HttpExchange exchange) {
-        writeResponse(exchange, "Такой эндпоинт не реализован", 501);
+        sendNotImplemented(exchange);
     }
 
     protected void handleDeleteItem(HttpExchange exchange) {
-        writeResponse(exchange, "Такой эндпоинт не реализован", 501);
+        sendNotImplemented(exchange);
     }
 
     protected void handleGetChildrenItemsById(HttpExchange exchange) {
-        writeResponse(exchange, "Такой эндпоинт не реализован", 501);
+        sendNotImplemented(exchange);
     }
 
     protected int getId(HttpExchange exchange) throws NotFoundException {
@@ -88,9 +132,61 @@ public abstract class BaseHttpHandler implements HttpHandler {
         }
     }
 
+    /**
+     * Отправляет объект в формате JSON; по умолчанию компактно, а с параметром {@code ?pretty=true} — с отступами.
+     * <p>
+     * JSON записывается через {@link JsonWriter} прямо в тело ответа без промежуточной строки (см. {@link ResponseBodyStream}):
+     * короткий ответ отправляется с точным {@code Content-Length}, а длинный — частями и, если клиент принимает
+     * сжатие и ответ не короче {@code compressionMinBytes}, в сжатом виде.
+     */
     protected void sendResponse(HttpExchange exchange, Object objectToJson) {
-        String json = gson.toJson(objectToJson);
-        writeResponse(exchange, json, 200);
+        ResponseBodyStream body = openBody(exchange, 200);
+        try {
+            writeJson(body, objectToJson, isPrettyRequested(exchange));
+            // Тело закрывается только после успешной записи: закрытие отправляет накопленный буфер как ответ 200.
+            body.close();
+        } catch (IOException | JsonIOException e) {
+            if (!body.isCommitted()) {
+                sendServerError(exchange);
+                return;
+            }
+            // Заголовки уже отправлены, поэтому сообщить об ошибке кодом ответа нельзя: клиент получит неполное тело.
+            System.out.println("Ошибка отправки ответа: " + e.getMessage());
+        } finally {
+            // После ошибки записи тело не закрыто: его Deflater нужно вернуть в пул, иначе память zlib не освободится.
+            body.abort();
+        }
+        exchange.close();
+    }
+
+    /**
+     * Отправляет данные с заголовком {@code ETag}, построенным по их версии в менеджере (см. {@link TaskManager#getVersion}).
+     * Если клиент прислал тот же ETag в {@code If-None-Match}, отвечает 304 без тела, не читая данные и не обращаясь к Gson.
+     * <p>
+     * Версию нужно получить до чтения данных: если данные изменятся между чтениями, клиент получит новые данные
+     * со старым ETag и при следующем запросе — полный ответ, а не 304 на устаревшие данные.
+     * @param version Версия данных, полученная до их чтения.
+     * @param reader Читает данные, если их нужно отправить.
+     */
+    protected void sendVersioned(HttpExchange exchange, long version, Supplier<?> reader) {
+        String etag = "\"" + etagPrefix + "-" + version + (isPrettyRequested(exchange) ? "-p" : "") + "\"";
+        String variantEtag = getEncoding(exchange).variantEtag(etag);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        // Сжимается ли тело, становится известно только при записи, поэтому подходят ETag обоих вариантов этой версии.
+        String matchedEtag = matchesIfNoneMatch(ifNoneMatch, variantEtag) ? variantEtag
+                : matchesIfNoneMatch(ifNoneMatch, etag) ? etag : null;
+        if (matchedEtag != null) {
+            exchange.getResponseHeaders().set("ETag", matchedEtag);
+            writeResponse(exchange, new byte[0], 304);
+            return;
+        }
+        // Суффикс кодирования добавляется к ETag, только если тело действительно сжато (см. ResponseBodyStream).
+        exchange.getResponseHeaders().set("ETag", etag);
+        sendResponse(exchange, reader.get());
+    }
+
+    protected void sendNotImplemented(HttpExchange exchange) {
+        writeResponse(exchange, "Такой эндпоинт не реализован", 501);
     }
 
     protected void sendSuccess(HttpExchange exchange) {
@@ -117,21 +213,79 @@ public abstract class BaseHttpHandler implements HttpHandler {
         writeResponse(exchange, errorJson, 500);
     }
 
+    /**
+     * Сравнивает ETag с заголовком {@code If-None-Match}: списком ETag через запятую или {@code *}.
+     * Для этого заголовка слабые ETag ({@code W/"..."}) сравниваются как обычные.
+     */
+    private static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPrettyRequested(HttpExchange exchange) {
+        return "true".equals(PageRequest.parseQuery(exchange.getRequestURI().getRawQuery()).get("pretty"));
+    }
+
     private String getErrorJson(String message, int code) {
         return gson.toJson(new ErrorResponse(message, code));
     }
 
+    private void writeJson(OutputStream os, Object objectToJson, boolean pretty) throws IOException {
+        // Писатель не закрывается: закрытие тела отправляет ответ, а это решает вызывающий метод.
+        Writer writer = new BufferedWriter(new OutputStreamWriter(os, DEFAULT_CHARSET), WRITER_BUFFER_SIZE);
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        if (pretty) {
+            jsonWriter.setIndent("  ");
+        }
+        if (objectToJson == null) {
+            gson.toJson(JsonNull.INSTANCE, jsonWriter);
+        } else {
+            gson.toJson(objectToJson, objectToJson.getClass(), jsonWriter);
+        }
+        writer.flush();
+    }
+
     private void writeResponse(HttpExchange exchange, String responseString, int responseCode) {
-        try (OutputStream os = exchange.getResponseBody()) {
-            exchange.getResponseHeaders().add("Content-type", "application/json;charset=utf-8");
-            exchange.sendResponseHeaders(responseCode, 0);
-            os.write(responseString.getBytes(DEFAULT_CHARSET));
+        writeResponse(exchange, responseString.getBytes(DEFAULT_CHARSET), responseCode);
+    }
+
+    private void writeResponse(HttpExchange exchange, byte[] body, int responseCode) {
+        try (OutputStream os = openBody(exchange, responseCode)) {
+            os.write(body);
         } catch (IOException e) {
-            writeResponse(exchange, "Внутренняя ошибка сервера", 500);
+            // Заголовки уже отправлены или соединение закрыто клиентом, поэтому сообщить об ошибке нельзя.
+            System.out.println("Ошибка отправки ответа: " + e.getMessage());
         }
         exchange.close();
     }
 
+    /**
+     * Открывает тело ответа в формате JSON с кодированием, согласованным по {@code Accept-Encoding}.
+     * Тела не длиннее порога отправляются без сжатия с точным {@code Content-Length}, а пустые — без тела.
+     */
+    private ResponseBodyStream openBody(HttpExchange exchange, int responseCode) {
+        exchange.getResponseHeaders().set("Content-type", "application/json;charset=utf-8");
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        ContentEncoding encoding = getEncoding(exchange);
+        int threshold = encoding == ContentEncoding.IDENTITY ? WRITER_BUFFER_SIZE : compressionMinBytes;
+        return new ResponseBodyStream(exchange, responseCode, encoding, threshold);
+    }
+
+    private ContentEncoding getEncoding(HttpExchange exchange) {
+        return ContentEncoding.negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
     private Endpoint getEndpoint(String requestPath, String requestMethod) {
         String[] pathParts = requestPath.split("/");
 
@@ -162,6 +316,33 @@ public abstract class BaseHttpHandler implements HttpHandler {
         return Endpoint.UNKNOWN;
     }
 
+    /**
+     * Отправляет страницу списка, если в запросе заданы параметры {@code ?after=&limit=} (см. {@link PageRequest}),
+     * иначе — весь список. Поддерживает условный запрос по версии списка (см. {@link #sendVersioned}).
+     * @param version Версия списка, полученная до его чтения.
+     * @param pageReader Возвращает страницу по параметрам запроса.
+     * @param allReader Возвращает весь список.
+     */
+    protected void handleGetPage(HttpExchange exchange, long version, Function<PageRequest, ?> pageReader,
+                                 Supplier<?> allReader) {
+        Optional<PageRequest> page;
+        try {
+            page = parsePageRequest(exchange.getRequestURI().getRawQuery());
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+            return;
+        }
+        sendVersioned(exchange, version, () -> page.isPresent() ? pageReader.apply(page.get()) : allReader.get());
+    }
+
+    /**
+     * Разбирает параметры страницы из строки запроса (см. {@link PageRequest#fromQuery}).
+     * @throws IllegalArgumentException Если параметры заданы неверно.
+     */
+    protected Optional<PageRequest> parsePageRequest(String rawQuery) {
+        return PageRequest.fromQuery(rawQuery);
+    }
+
     protected void handlePostItemByConsumer(HttpExchange exchange, Consumer<String> consumer) {
         Optional<String> bodyStr = getBody(exchange);
         try {
@@ -171,6 +352,8 @@ public abstract class BaseHttpHandler implements HttpHandler {
             consumer.accept(bodyStr.get());
         } catch (NullPointerException | JsonSyntaxException e) {
             sendBadRequest(exchange, "Неверное тело запроса");
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
         } catch (Exception e) {
             sendServerError(exchange);
         }
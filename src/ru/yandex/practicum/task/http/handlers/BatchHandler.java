@@ -0,0 +1,184 @@
+package ru.yandex.practicum.task.http.handlers;
+
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.error.NotFoundException;
+import ru.yandex.practicum.task.error.TimeIntersectedException;
+import ru.yandex.practicum.task.http.BatchOperation;
+import ru.yandex.practicum.task.http.BatchResult;
+import ru.yandex.practicum.task.http.enums.BatchAction;
+import ru.yandex.practicum.task.interfaces.TaskManager;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Обработчик {@code POST /batch}: применяет массив операций создания, обновления и удаления задач, эпиков
+ * и подзадач (см. {@link BatchOperation}) по порядку в одной серии изменений ({@link TaskManager#batch}),
+ * поэтому менеджер с сохранением в файл сохраняет данные один раз на весь запрос.
+ * <p>
+ * Ошибка операции не прерывает серию: в ответе для каждой операции возвращается {@link BatchResult}
+ * с кодом, который вернул бы отдельный запрос (201, 400, 404 или 406 при пересечении по времени).
+ */
+public class BatchHandler extends BaseHttpHandler {
+    public static final int MAX_OPERATIONS = 10_000;
+
+    public BatchHandler(TaskManager taskManager) {
+        super(taskManager, "batch");
+    }
+
+    public BatchHandler(TaskManager taskManager, int compressionMinBytes) {
+        super(taskManager, "batch", compressionMinBytes);
+    }
+
+    @Override
+    protected void handleGetItems(HttpExchange exchange) {
+        sendNotImplemented(exchange);
+    }
+
+    @Override
+    protected void handlePostItem(HttpExchange exchange) {
+        handlePostItemByConsumer(exchange, bodyStr -> {
+            BatchOperation[] operations = gson.fromJson(bodyStr, BatchOperation[].class);
+            if (operations == null) {
+                sendBadRequest(exchange, "Тело запроса должно быть массивом операций");
+                return;
+            }
+            if (operations.length > MAX_OPERATIONS) {
+                sendBadRequest(exchange, "В пакете не может быть больше " + MAX_OPERATIONS + " операций");
+                return;
+            }
+
+            List<BatchResult> results = taskManager.batch(manager -> {
+                List<BatchResult> batchResults = new ArrayList<>(operations.length);
+                for (int i = 0; i < operations.length; i++) {
+                    batchResults.add(apply(manager, i, operations[i]));
+                }
+                return batchResults;
+            });
+            sendResponse(exchange, results);
+        });
+    }
+
+    private BatchResult apply(TaskManager manager, int index, BatchOperation operation) {
+        if (operation == null || operation.action == null || operation.type == null) {
+            return BatchResult.error(index, 400, "В операции должны быть заданы action и type");
+        }
+
+        try {
+            return switch (operation.action) {
+                case CREATE, UPDATE -> BatchResult.success(index, put(manager, operation));
+                case DELETE -> BatchResult.success(index, delete(manager, operation));
+            };
+        } catch (NotFoundException e) {
+            return BatchResult.error(index, 404, e.getMessage());
+        } catch (TimeIntersectedException e) {
+            return BatchResult.error(index, 406, e.getMessage());
+        } catch (IllegalArgumentException | JsonParseException e) {
+            return BatchResult.error(index, 400, "Неверная операция: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Предыдущие операции уже применены и будут сохранены: ошибка одной операции не должна
+            // превращаться в ответ на весь пакет, иначе клиент не узнает их результатов.
+            return BatchResult.error(index, 400, "Неверная операция");
+        }
+    }
+
+    private int put(TaskManager manager, BatchOperation operation) {
+        if (operation.task == null) {
+            throw new IllegalArgumentException("не задана задача");
+        }
+
+        boolean create = operation.action == BatchAction.CREATE;
+        Task task = gson.fromJson(operation.task, switch (operation.type) {
+            case TASK -> Task.class;
+            case EPIC -> Epic.class;
+            case SUBTASK -> Subtask.class;
+        });
+        // При создании id выдаёт менеджер, а id из операции не используется.
+        if (!create) {
+            if (operation.id != null) {
+                task.setId(operation.id);
+            }
+            if (task.getId() == null) {
+                throw new IllegalArgumentException("для обновления не задан id");
+            }
+        }
+
+        validate(manager, operation.type, task, create);
+
+        switch (operation.type) {
+            case TASK -> {
+                if (create) {
+                    manager.createTask(task);
+                } else {
+                    manager.updateTask(task);
+                }
+            }
+            case EPIC -> {
+                if (create) {
+                    manager.createEpic((Epic) task);
+                } else {
+                    manager.updateEpic((Epic) task);
+                }
+            }
+            case SUBTASK -> {
+                if (create) {
+                    manager.createSubtask((Subtask) task);
+                } else {
+                    manager.updateSubtask((Subtask) task);
+                }
+            }
+        }
+        return task.getId();
+    }
+
+    /**
+     * Проверяет операцию до любых изменений: менеджер не проверяет эпик подзадачи и тип обновляемой задачи
+     * и ошибается уже после того, как часть данных изменена.
+     * @throws NotFoundException Если эпика подзадачи нет.
+     * @throws IllegalArgumentException Если у задачи нет названия, статуса или длительности
+     *                                  или обновляемый id принадлежит задаче другого типа.
+     */
+    private void validate(TaskManager manager, TaskType type, Task task, boolean create) {
+        // Задача из JSON создаётся без конструктора, а менеджер копирует её конструктором, который требует эти поля.
+        if (task.getName() == null) {
+            throw new IllegalArgumentException("не задано название");
+        }
+        if (task.getStatus() == null) {
+            throw new IllegalArgumentException("не задан статус");
+        }
+        if (!create) {
+            TaskType storedType = manager.getType(task.getId());
+            if (storedType != null && storedType != type) {
+                throw new IllegalArgumentException("id " + task.getId() + " принадлежит задаче другого типа");
+            }
+        }
+        if (type != TaskType.EPIC && task.getDuration() == null) {
+            throw new IllegalArgumentException("не задана длительность");
+        }
+        if (type == TaskType.SUBTASK) {
+            int epicId = ((Subtask) task).getEpicId();
+            if (manager.getType(epicId) != TaskType.EPIC) {
+                throw new NotFoundException(String.valueOf(epicId));
+            }
+        }
+    }
+
+    private int delete(TaskManager manager, BatchOperation operation) {
+        if (operation.id == null) {
+            throw new IllegalArgumentException("для удаления не задан id");
+        }
+
+        switch (operation.type) {
+            case TASK -> manager.deleteTask(operation.id);
+            case EPIC -> manager.deleteEpic(operation.id);
+            case SUBTASK -> manager.deleteSubtask(operation.id);
+        }
+        return operation.id;
+    }
+
+}
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.task.http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.task.enums.TaskType;
 import ru.yandex.practicum.task.error.NotFoundException;
 import ru.yandex.practicum.task.interfaces.TaskManager;
 import ru.yandex.practicum.task.tasks.Epic;
@@ -11,16 +12,22 @@ public class EpicsHandler extends BaseHttpHandler {
         super(taskManager, "epics");
     }
 
+    public EpicsHandler(TaskManager taskManager, int compressionMinBytes) {
+        super(taskManager, "epics", compressionMinBytes);
+    }
+
     @Override
     protected void handleGetItems(HttpExchange exchange) {
-        sendResponse(exchange, taskManager.getAllEpics());
+        handleGetPage(exchange, taskManager.getVersion(TaskType.EPIC), page -> taskManager.getEpics(page.getAfterId(), page.getLimit()), taskManager::getAllEpics);
     }
 
     @Override
     protected void handleGetItemById(HttpExchange exchange) {
         try {
-            Epic epic = taskManager.getEpic(getId(exchange));
-            sendResponse(exchange, epic);
+            int id = getId(exchange);
+            long version = taskManager.getVersion(id);
+            Epic epic = taskManager.getEpic(id);
+            sendVersioned(exchange, version, () -> epic);
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         }
@@ -42,8 +49,11 @@ public class EpicsHandler extends BaseHttpHandler {
     @Override
     protected void handleGetChildrenItemsById(HttpExchange exchange) {
         try {
-            Epic epic = taskManager.getEpic(getId(exchange));
-            sendResponse(exchange, taskManager.getSubtasksByEpic(epic));
+            int id = getId(exchange);
+            // Версия эпика меняется и при изменении его подзадач.
+            long version = taskManager.getVersion(id);
+            Epic epic = taskManager.getEpic(id);
+            sendVersioned(exchange, version, () -> taskManager.getSubtasksByEpic(epic));
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         }
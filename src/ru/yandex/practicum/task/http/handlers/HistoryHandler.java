@@ -9,6 +9,10 @@ public class HistoryHandler extends BaseHttpHandler {
         super(taskManager, "history");
     }
 
+    public HistoryHandler(TaskManager taskManager, int compressionMinBytes) {
+        super(taskManager, "history", compressionMinBytes);
+    }
+
     @Override
     protected void handleGetItems(HttpExchange exchange) {
         sendResponse(exchange, taskManager.getHistory());
@@ -1,17 +1,34 @@
 package ru.yandex.practicum.task.http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.http.PageRequest;
 import ru.yandex.practicum.task.interfaces.TaskManager;
 
+import java.util.Optional;
+
 public class PrioritizedHandler extends BaseHttpHandler {
 
     public PrioritizedHandler(TaskManager taskManager) {
         super(taskManager, "prioritized");
     }
 
+    public PrioritizedHandler(TaskManager taskManager, int compressionMinBytes) {
+        super(taskManager, "prioritized", compressionMinBytes);
+    }
+
     @Override
     protected void handleGetItems(HttpExchange exchange) {
-        sendResponse(exchange, taskManager.getPrioritizedTasks());
+        // Приоритизированный список состоит из задач и подзадач, а версии берутся из одного счётчика изменений.
+        long version = Math.max(taskManager.getVersion(TaskType.TASK), taskManager.getVersion(TaskType.SUBTASK));
+        handleGetPage(exchange, version,
+                page -> taskManager.getPrioritizedTasks(page.getAfterStartTime(), page.getAfterId(), page.getLimit()),
+                taskManager::getPrioritizedTasks);
+    }
+
+    @Override
+    protected Optional<PageRequest> parsePageRequest(String rawQuery) {
+        return PageRequest.fromPrioritizedQuery(rawQuery);
     }
 
 }
@@ -0,0 +1,28 @@
+package ru.yandex.practicum.task.http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.task.http.StatusResponse;
+import ru.yandex.practicum.task.interfaces.PersistenceStatus;
+import ru.yandex.practicum.task.interfaces.TaskManager;
+
+/**
+ * Обработчик {@code GET /status}: состояние сохранения менеджера (см. {@link StatusResponse}).
+ * Ответ не кешируется по ETag: отставание меняется со временем и без изменения данных.
+ */
+public class StatusHandler extends BaseHttpHandler {
+    private final PersistenceStatus persistenceStatus;
+
+    /**
+     * @param persistenceStatus Состояние отложенной записи или {@code null}, если менеджер записывает изменения сразу.
+     */
+    public StatusHandler(TaskManager taskManager, PersistenceStatus persistenceStatus) {
+        super(taskManager, "status");
+        this.persistenceStatus = persistenceStatus;
+    }
+
+    @Override
+    protected void handleGetItems(HttpExchange exchange) {
+        sendResponse(exchange, StatusResponse.of(persistenceStatus));
+    }
+
+}
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.task.http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.task.enums.TaskType;
 import ru.yandex.practicum.task.error.NotFoundException;
 import ru.yandex.practicum.task.error.TimeIntersectedException;
 import ru.yandex.practicum.task.interfaces.TaskManager;
@@ -12,16 +13,22 @@ public class SubtasksHandler extends BaseHttpHandler {
         super(taskManager, "subtasks");
     }
 
+    public SubtasksHandler(TaskManager taskManager, int compressionMinBytes) {
+        super(taskManager, "subtasks", compressionMinBytes);
+    }
+
     @Override
     protected void handleGetItems(HttpExchange exchange) {
-        sendResponse(exchange, taskManager.getAllSubtasks());
+        handleGetPage(exchange, taskManager.getVersion(TaskType.SUBTASK), page -> taskManager.getSubtasks(page.getAfterId(), page.getLimit()), taskManager::getAllSubtasks);
     }
 
     @Override
     protected void handleGetItemById(HttpExchange exchange) {
         try {
-            Subtask subtask = taskManager.getSubtask(getId(exchange));
-            sendResponse(exchange, subtask);
+            int id = getId(exchange);
+            long version = taskManager.getVersion(id);
+            Subtask subtask = taskManager.getSubtask(id);
+            sendVersioned(exchange, version, () -> subtask);
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         }
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.task.http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.task.enums.TaskType;
 import ru.yandex.practicum.task.error.NotFoundException;
 import ru.yandex.practicum.task.error.TimeIntersectedException;
 import ru.yandex.practicum.task.interfaces.TaskManager;
@@ -12,16 +13,22 @@ public class TasksHandler extends BaseHttpHandler {
         super(taskManager, "tasks");
     }
 
+    public TasksHandler(TaskManager taskManager, int compressionMinBytes) {
+        super(taskManager, "tasks", compressionMinBytes);
+    }
+
     @Override
     protected void handleGetItems(HttpExchange exchange) {
-        sendResponse(exchange, taskManager.getAllTasks());
+        handleGetPage(exchange, taskManager.getVersion(TaskType.TASK), page -> taskManager.getTasks(page.getAfterId(), page.getLimit()), taskManager::getAllTasks);
     }
 
     @Override
     protected void handleGetItemById(HttpExchange exchange) {
         try {
-            Task task = taskManager.getTask(getId(exchange));
-            sendResponse(exchange, task);
+            int id = getId(exchange);
+            long version = taskManager.getVersion(id);
+            Task task = taskManager.getTask(id);
+            sendVersioned(exchange, version, () -> task);
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         }
@@ -0,0 +1,188 @@
+package ru.yandex.practicum.task.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Множество целых чисел без упаковки в {@link Integer}.
+ * <p>
+ * Основано на хеш-таблице с открытой адресацией и линейным пробированием: значения хранятся прямо в массиве
+ * {@code int[]}, а удаление выполняется сдвигом последующих элементов кластера, без «надгробий».
+ * Добавление, удаление и проверка наличия работают в среднем за O(1). Порядок обхода не определён.
+ */
+public class IntHashSet {
+    private static final int DEFAULT_CAPACITY = 8;
+    /**
+     * Ноль используется как признак пустой ячейки, поэтому сам ноль хранится отдельным флагом.
+     */
+    private static final int EMPTY = 0;
+
+    private int[] table;
+    private int size;
+    private boolean containsZero;
+
+    public IntHashSet() {
+        table = new int[DEFAULT_CAPACITY];
+    }
+
+    public IntHashSet(IntHashSet other) {
+        table = other.table.clone();
+        size = other.size;
+        containsZero = other.containsZero;
+    }
+
+    /**
+     * @return {@code true}, если значения ещё не было в множестве.
+     */
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        for (int i = IntHashing.index(value, mask); ; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                return false;
+            }
+            if (table[i] == EMPTY) {
+                table[i] = value;
+                size++;
+                if (size * 4 > table.length * 3) {
+                    resize(table.length * 2);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true}, если значение было в множестве и удалено.
+     */
+    public boolean remove(int value) {
+        if (value == EMPTY) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        for (int i = IntHashing.index(value, mask); table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                shiftClusterBack(i, mask);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY) {
+            return containsZero;
+        }
+
+        int mask = table.length - 1;
+        for (int i = IntHashing.index(value, mask); table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        size = 0;
+        containsZero = false;
+    }
+
+    /**
+     * Обходит все значения множества без создания промежуточных объектов.
+     */
+    public void forEach(IntConsumer action) {
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (int value : table) {
+            if (value != EMPTY) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return Значения множества в порядке возрастания.
+     */
+    public int[] toSortedArray() {
+        int[] values = new int[size];
+        int i = 0;
+        if (containsZero) {
+            values[i++] = 0;
+        }
+        for (int value : table) {
+            if (value != EMPTY) {
+                values[i++] = value;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toSortedArray());
+    }
+
+    /**
+     * Заполняет освободившуюся ячейку элементами того же кластера, чтобы не разрывать цепочки пробирования.
+     */
+    private void shiftClusterBack(int freed, int mask) {
+        int i = freed;
+        while (true) {
+            i = (i + 1) & mask;
+            int value = table[i];
+            if (value == EMPTY) {
+                break;
+            }
+            int home = IntHashing.index(value, mask);
+            // Элемент можно перенести, если его «домашняя» ячейка не лежит строго между freed и i (циклически).
+            if (((i - home) & mask) >= ((i - freed) & mask)) {
+                table[freed] = value;
+                freed = i;
+            }
+        }
+        table[freed] = EMPTY;
+    }
+
+    private void resize(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int value : old) {
+            if (value != EMPTY) {
+                int i = IntHashing.index(value, mask);
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+
+}
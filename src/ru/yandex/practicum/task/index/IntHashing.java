@@ -0,0 +1,19 @@
+package ru.yandex.practicum.task.index;
+
+/**
+ * Вспомогательные функции хеширования для коллекций с ключами {@code int}.
+ */
+class IntHashing {
+
+    /**
+     * Возвращает индекс ячейки для ключа в таблице размера {@code mask + 1} (степень двойки).
+     * <p>
+     * Идентификаторы задач идут подряд, поэтому ключ перемешивается умножением на константу золотого сечения,
+     * чтобы соседние id не образовывали длинных кластеров.
+     */
+    static int index(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+}
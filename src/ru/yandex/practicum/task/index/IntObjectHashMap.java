@@ -0,0 +1,247 @@
+package ru.yandex.practicum.task.index;
+
+import java.util.*;
+
+/**
+ * Хеш-таблица с ключами {@code int} и открытой адресацией.
+ * <p>
+ * Ключи и значения лежат в двух параллельных массивах, поэтому на одну запись приходится две ячейки массивов
+ * вместо узла {@code HashMap.Node} и упакованного {@link Integer}, а чтение по ключу не создаёт объектов.
+ * Используется линейное пробирование и удаление сдвигом кластера. Значения {@code null} не допускаются:
+ * пустая ячейка определяется по отсутствию значения.
+ * <p>
+ * Операции {@link #get}, {@link #put} и {@link #remove} работают в среднем за O(1).
+ * Порядок обхода не определён.
+ *
+ * @param <V> Тип значений.
+ */
+public class IntObjectHashMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private long version;
+    private Collection<V> valuesView;
+
+    public IntObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize Ожидаемое количество записей, под которое сразу выделяется таблица.
+     */
+    public IntObjectHashMap(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        for (int i = IntHashing.index(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return Предыдущее значение по ключу или {@code null}, если его не было.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value, "Значение не может быть пустым");
+
+        int mask = keys.length - 1;
+        int i = IntHashing.index(key, mask);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                version++;
+                return previous;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        version++;
+        if (size * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * @return Удалённое значение или {@code null}, если ключа не было.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = keys.length - 1;
+        for (int i = IntHashing.index(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V removed = (V) values[i];
+                shiftClusterBack(i, mask);
+                size--;
+                version++;
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает длину массивов ключей и значений.
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Расширяет таблицу так, чтобы {@code expectedSize} записей поместились без перестроения при добавлении.
+     * Используется перед добавлением большого числа записей, например при загрузке из файла.
+     */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > keys.length) {
+            resize(capacity);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        version++;
+    }
+
+    /**
+     * Возвращает номер версии таблицы, который увеличивается при каждом изменении: {@link #put}, удалении ключа
+     * или {@link #clear}. По нему можно определить, что построенные по таблице данные устарели.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Возвращает ключи таблицы в порядке возрастания.
+     */
+    public int[] keysToSortedArray() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result[count++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Возвращает представление значений таблицы. Представление не копирует данные и отражает последующие изменения.
+     */
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new ValuesView();
+        }
+        return valuesView;
+    }
+
+    private void shiftClusterBack(int freed, int mask) {
+        int i = freed;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            int home = IntHashing.index(keys[i], mask);
+            if (((i - home) & mask) >= ((i - freed) & mask)) {
+                keys[freed] = keys[i];
+                values[freed] = values[i];
+                freed = i;
+            }
+        }
+        values[freed] = null;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 < expectedSize * 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = IntHashing.index(oldKeys[j], mask);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private class ValuesView extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<>() {
+                private int next = advance(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < values.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    if (next >= values.length) {
+                        throw new NoSuchElementException();
+                    }
+                    V value = (V) values[next];
+                    next = advance(next + 1);
+                    return value;
+                }
+
+                private int advance(int from) {
+                    while (from < values.length && values[from] == null) {
+                        from++;
+                    }
+                    return from;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.task.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link IntObjectHashMap} с постраничным чтением значений в порядке возрастания ключей.
+ * <p>
+ * Для страниц таблица поддерживает отсортированный массив ключей ({@link SortedIntSet}) — 4 байта на запись,
+ * без упаковки ключей и узлов дерева. Страница выбирается двоичным поиском первого ключа после курсора,
+ * а значения берутся из таблицы: O(log n + limit), без построения всего списка, как в {@link PrioritizedTaskIndex#page}.
+ * Id выдаются по возрастанию, поэтому новый ключ дописывается в конец массива за O(1); удаление сдвигает хвост
+ * массива за O(n), что при миллионе записей — копирование нескольких мегабайт.
+ * <p>
+ * Массив ключей строится при первом постраничном чтении за O(n log n) и затем обновляется при каждом изменении
+ * таблицы, поэтому таблицы, которые не читаются постранично, не тратят на него ни памяти, ни времени,
+ * в том числе при загрузке из файла.
+ * <p>
+ * Построение массива при чтении не изменяет таблицу, поэтому чтение можно выполнять параллельно с другими читателями
+ * под общей блокировкой чтения: в худшем случае одинаковый массив будет построен несколько раз.
+ *
+ * @param <V> Тип значений.
+ */
+public class OrderedIntObjectHashMap<V> extends IntObjectHashMap<V> {
+    /**
+     * Ключи таблицы по возрастанию или {@code null}, пока таблицу не читали постранично.
+     */
+    private volatile SortedIntSet order;
+
+    @Override
+    public V put(int key, V value) {
+        V previous = super.put(key, value);
+        SortedIntSet current = order;
+        if (previous == null && current != null) {
+            current.add(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public V remove(int key) {
+        V removed = super.remove(key);
+        SortedIntSet current = order;
+        if (removed != null && current != null) {
+            current.remove(key);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        SortedIntSet current = order;
+        if (current != null) {
+            current.clear();
+        }
+    }
+
+    /**
+     * Возвращает не более {@code limit} значений с ключами больше {@code afterKey} в порядке возрастания ключей
+     * за O(log n + limit).
+     * @param afterKey Ключ последнего значения предыдущей страницы; для первой страницы — любое число меньше всех ключей.
+     * @param limit Максимальный размер страницы.
+     */
+    public List<V> page(int afterKey, int limit) {
+        SortedIntSet current = order;
+        if (current == null) {
+            current = buildOrder();
+            order = current;
+        }
+
+        List<V> page = new ArrayList<>(Math.max(0, Math.min(limit, size())));
+        if (limit > 0) {
+            current.forEachAfter(afterKey, key -> {
+                page.add(get(key));
+                return page.size() < limit;
+            });
+        }
+        return page;
+    }
+
+    private SortedIntSet buildOrder() {
+        SortedIntSet keys = new SortedIntSet();
+        // Ключи уже отсортированы, поэтому каждое добавление дописывает ключ в конец.
+        for (int key : keysToSortedArray()) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+}
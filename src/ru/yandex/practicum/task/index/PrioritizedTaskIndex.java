@@ -0,0 +1,212 @@
+package ru.yandex.practicum.task.index;
+
+import ru.yandex.practicum.task.tasks.Task;
+import ru.yandex.practicum.task.utils.DateTimeTaskUtil;
+
+import java.time.LocalDateTime;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Индекс задач и подзадач с заданным временем начала.
+ * <p>
+ * Задачи хранятся в одном дереве {@link TimeIntervalIndex}, упорядоченном по упакованному ключу
+ * (минута начала, id): задачи с одинаковым временем начала не вытесняют друг друга, а то же дерево
+ * используется для проверки пересечений. Для каждой задачи запоминается время начала, с которым она попала
+ * в индекс, поэтому задача находится и удаляется по id за O(log n). При обновлении задача удаляется
+ * и добавляется заново.
+ */
+public class PrioritizedTaskIndex {
+    private final TimeIntervalIndex<Task> tasks = new TimeIntervalIndex<>();
+    /**
+     * Время начала, с которым задача была добавлена в индекс.
+     */
+    private final IntObjectHashMap<LocalDateTime> startTimeById = new IntObjectHashMap<>();
+    private final Set<Task> view = new View();
+
+    /**
+     * Добавляет задачу в индекс. Задачи без времени начала игнорируются.
+     * @param task Сохранённая в менеджере задача или подзадача.
+     */
+    public void add(Task task) {
+        LocalDateTime startTime = task.getStartTime();
+        if (startTime == null) {
+            return;
+        }
+
+        long start = DateTimeTaskUtil.toEpochMinute(startTime);
+        tasks.add(task.getId(), start, start + task.getDuration().toMinutes(), task);
+        startTimeById.put(task.getId(), startTime);
+    }
+
+    /**
+     * Добавляет в индекс сразу много задач, например при загрузке из файла. Если индекс пуст, дерево строится
+     * за один проход (см. {@link TimeIntervalIndex#addAllSorted}), иначе задачи добавляются по одной.
+     * Задачи, уже упорядоченные по (время начала, id), как их записывает двоичный снимок, не сортируются повторно.
+     * Задачи без времени начала игнорируются.
+     * @param newTasks Сохранённые в менеджере задачи и подзадачи с разными id.
+     */
+    public void addAll(Collection<? extends Task> newTasks) {
+        if (!tasks.isEmpty()) {
+            newTasks.forEach(this::add);
+            return;
+        }
+
+        startTimeById.ensureCapacity(newTasks.size());
+        long[] keys = new long[newTasks.size()];
+        List<Task> values = new ArrayList<>(newTasks.size());
+        boolean sorted = true;
+        for (Task task : newTasks) {
+            LocalDateTime startTime = task.getStartTime();
+            if (startTime != null) {
+                int count = values.size();
+                keys[count] = TimeIntervalIndex.key(DateTimeTaskUtil.toEpochMinute(startTime), task.getId());
+                sorted = sorted && (count == 0 || keys[count - 1] < keys[count]);
+                values.add(task);
+                startTimeById.put(task.getId(), startTime);
+            }
+        }
+
+        int count = values.size();
+        keys = Arrays.copyOf(keys, count);
+        if (!sorted) {
+            IntObjectHashMap<Task> tasksById = new IntObjectHashMap<>(count);
+            values.forEach(task -> tasksById.put(task.getId(), task));
+            Arrays.parallelSort(keys);
+            values.clear();
+            for (long key : keys) {
+                values.add(tasksById.get(TimeIntervalIndex.idOf(key)));
+            }
+        }
+
+        long[] ends = new long[count];
+        for (int i = 0; i < count; i++) {
+            ends[i] = TimeIntervalIndex.startOf(keys[i]) + values.get(i).getDuration().toMinutes();
+        }
+
+        tasks.addAllSorted(keys, ends, values);
+    }
+
+    /**
+     * Удаляет задачу из индекса по id за O(log n).
+     * <p>
+     * Используется время начала, с которым задача была добавлена, поэтому удаление корректно,
+     * даже если сохранённый экземпляр успели изменить.
+     * @return {@code true}, если задача была в индексе.
+     */
+    public boolean remove(int id) {
+        LocalDateTime startTime = startTimeById.remove(id);
+        if (startTime == null) {
+            return false;
+        }
+
+        tasks.remove(id, DateTimeTaskUtil.toEpochMinute(startTime));
+        return true;
+    }
+
+    /**
+     * Удаляет из индекса сразу несколько задач, например все подзадачи удаляемого эпика.
+     * @param ids Идентификаторы удаляемых задач.
+     */
+    public void removeAll(IntHashSet ids) {
+        ids.forEach(this::remove);
+    }
+
+    /**
+     * Удаляет все задачи из индекса.
+     */
+    public void clear() {
+        tasks.clear();
+        startTimeById.clear();
+    }
+
+    /**
+     * Проверяет пересечение задачи по времени с задачами из индекса за O(log n).
+     * Сама задача (с тем же id) при проверке не учитывается.
+     * <p>
+     * Менеджер вызывает проверку до изменения данных, поэтому здесь же отклоняется время начала,
+     * которое индекс не может хранить (см. {@link TimeIntervalIndex#isValidStart}).
+     * @throws IllegalArgumentException Если время начала вне допустимого диапазона.
+     */
+    public boolean hasTimeIntersection(Task task) {
+        if (task.getStartTime() == null) {
+            return false;
+        }
+
+        long start = DateTimeTaskUtil.toEpochMinute(task.getStartTime());
+        if (!TimeIntervalIndex.isValidStart(start)) {
+            throw new IllegalArgumentException("Время начала задачи вне допустимого диапазона: " + task.getStartTime());
+        }
+        long end = start + task.getDuration().toMinutes();
+        int excludeId = task.getId() == null ? 0 : task.getId();
+
+        return tasks.hasOverlap(start, end, excludeId);
+    }
+
+    /**
+     * Обходит задачи в порядке (время начала, id) без создания промежуточных объектов.
+     */
+    public void forEach(Consumer<? super Task> action) {
+        tasks.forEach(action);
+    }
+
+    /**
+     * Возвращает страницу задач в порядке (время начала, id), следующих за курсором, за O(log n + limit).
+     * @param afterStartTime Время начала последней задачи предыдущей страницы или {@code null} для первой страницы.
+     * @param afterId Id последней задачи предыдущей страницы; не учитывается, если {@code afterStartTime} не задано.
+     * @param limit Максимальный размер страницы.
+     */
+    public List<Task> page(LocalDateTime afterStartTime, int afterId, int limit) {
+        long afterKey = afterStartTime == null
+                ? Long.MIN_VALUE
+                : TimeIntervalIndex.key(DateTimeTaskUtil.toEpochMinute(afterStartTime), afterId);
+        List<Task> page = new ArrayList<>(Math.min(limit, tasks.size()));
+        if (limit > 0) {
+            tasks.forEachAfter(afterKey, task -> {
+                page.add(task);
+                return page.size() < limit;
+            });
+        }
+        return page;
+    }
+
+    /**
+     * Возвращает неизменяемое представление задач в порядке (время начала, id). Представление не копирует данные.
+     */
+    public Set<Task> asSet() {
+        return view;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    private class View extends AbstractSet<Task> {
+        @Override
+        public Iterator<Task> iterator() {
+            return tasks.iterator();
+        }
+
+        @Override
+        public void forEach(Consumer<? super Task> action) {
+            tasks.forEach(action);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Task task && task.getId() != null && startTimeById.containsKey(task.getId());
+        }
+
+        @Override
+        public int size() {
+            return tasks.size();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.task.index;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок значений {@link IntObjectHashMap}, упорядоченных по ключу.
+ * <p>
+ * Снимок строится при первом чтении после изменения таблицы (определяется по {@link IntObjectHashMap#version()})
+ * и затем возвращается всем читателям без копирования, пока таблица снова не изменится.
+ * Объекты внутри снимка — те же экземпляры, что хранятся в таблице. Постраничное чтение без построения снимка
+ * предоставляет {@link OrderedIntObjectHashMap#page}.
+ * <p>
+ * Чтение снимка не изменяет таблицу, поэтому его можно выполнять параллельно с другими читателями
+ * под общей блокировкой чтения: в худшем случае одинаковый снимок будет построен несколько раз.
+ *
+ * @param <V> Тип значений.
+ */
+public class SnapshotView<V> {
+    private final IntObjectHashMap<? extends V> map;
+    private volatile Snapshot<V> snapshot;
+
+    public SnapshotView(IntObjectHashMap<? extends V> map) {
+        this.map = map;
+    }
+
+    /**
+     * Возвращает неизменяемый список значений таблицы в порядке возрастания ключей.
+     */
+    public List<V> get() {
+        return current().values;
+    }
+
+    private Snapshot<V> current() {
+        long version = map.version();
+        Snapshot<V> current = snapshot;
+        if (current == null || current.version != version) {
+            current = build(version);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private Snapshot<V> build(long version) {
+        int[] keys = map.keysToSortedArray();
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = map.get(keys[i]);
+        }
+        @SuppressWarnings("unchecked")
+        List<V> list = (List<V>) Collections.unmodifiableList(Arrays.asList(values));
+        return new Snapshot<>(version, list);
+    }
+
+    private static class Snapshot<V> {
+        final long version;
+        final List<V> values;
+
+        Snapshot(long version, List<V> values) {
+            this.version = version;
+            this.values = values;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package ru.yandex.practicum.task.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Упорядоченное множество целых чисел без упаковки в {@link Integer}.
+ * <p>
+ * Значения хранятся в отсортированном массиве {@code int[]}: обход идёт по возрастанию без сортировки
+ * и промежуточных объектов, проверка наличия выполняется двоичным поиском за O(log k). Добавление значения
+ * больше всех имеющихся (например, нового id, которые выдаются по возрастанию) — дописывание в конец за O(1),
+ * а добавление в середину и удаление сдвигают хвост массива за O(k).
+ * <p>
+ * Для id подзадач эпика это сознательный обмен: хеш-множество ({@link IntHashSet}) проверяло бы наличие и удаляло
+ * за O(1), но подзадачи эпика читаются в порядке создания при каждом {@code getSubtasksByEpic} и пересчёте эпика,
+ * и с ним каждое чтение сортировало бы копию id за O(k log k). Здесь чтение идёт без сортировки и выделений,
+ * добавление новой подзадачи — дописывание в конец, а платой остаётся удаление подзадачи: сдвиг до k значений
+ * через {@link System#arraycopy}, что при десятках и сотнях подзадач занимает наносекунды. Проверка наличия
+ * на горячих путях менеджера не используется.
+ */
+public class SortedIntSet {
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private int[] values;
+    private int size;
+
+    public SortedIntSet() {
+        values = new int[DEFAULT_CAPACITY];
+    }
+
+    public SortedIntSet(SortedIntSet other) {
+        values = Arrays.copyOf(other.values, Math.max(DEFAULT_CAPACITY, other.size));
+        size = other.size;
+    }
+
+    /**
+     * @return {@code true}, если значения ещё не было в множестве.
+     */
+    public boolean add(int value) {
+        if (size == 0 || values[size - 1] < value) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+            return true;
+        }
+
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return {@code true}, если значение было в множестве и удалено.
+     */
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Обходит значения множества по возрастанию без создания промежуточных объектов.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    /**
+     * Обходит значения больше {@code after} по возрастанию за O(log k + m), где m — количество посещённых значений.
+     * @param visitor Получает значение; если возвращает {@code false}, обход прекращается.
+     */
+    public void forEachAfter(int after, IntPredicate visitor) {
+        int index = Arrays.binarySearch(values, 0, size, after);
+        for (int i = index >= 0 ? index + 1 : -index - 1; i < size; i++) {
+            if (!visitor.test(values[i])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Значения множества в порядке возрастания.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+        }
+    }
+
+}
@@ -0,0 +1,426 @@
+package ru.yandex.practicum.task.index;
+
+import ru.yandex.practicum.task.utils.DateTimeTaskUtil;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Индекс временных интервалов задач для быстрой проверки пересечений по времени.
+ * <p>
+ * Реализован как AVL-дерево, упорядоченное по паре (начало, id), упакованной в один {@code long}
+ * (см. {@link #key}): узлы сравниваются как обычные числа, а задачи с одинаковым временем начала
+ * хранятся как разные элементы. Каждый узел дополнительно хранит максимальное время окончания в своём поддереве,
+ * что позволяет не спускаться в поддеревья, в которых пересечений заведомо нет.
+ * <p>
+ * К интервалу можно привязать значение, например саму задачу: тогда индекс обходится
+ * в порядке (начало, id) без создания промежуточных объектов.
+ * <p>
+ * Интервалы полуоткрытые: {@code [start, end)}, время задаётся в минутах от эпохи
+ * (см. {@link DateTimeTaskUtil#toEpochMinute}). Вставка и удаление работают за O(log n),
+ * проверка наличия пересечения — за O(log n), перечисление всех пересечений — за O(log n + k)
+ * для непересекающихся между собой интервалов, которые и хранит менеджер задач.
+ */
+public class TimeIntervalIndex<V> implements Iterable<V> {
+    private static final int ID_BITS = 31;
+    private static final long MIN_START = Long.MIN_VALUE >> ID_BITS;
+    private static final long MAX_START = Long.MAX_VALUE >> ID_BITS;
+
+    private Node<V> root;
+    private int size;
+
+    /**
+     * Добавляет интервал задачи в индекс. Если интервал с таким началом и id уже есть, его окончание обновляется.
+     * @param id Идентификатор задачи.
+     * @param start Начало интервала в минутах от эпохи.
+     * @param end Окончание интервала в минутах от эпохи.
+     */
+    public void add(int id, long start, long end) {
+        add(id, start, end, null);
+    }
+
+    /**
+     * Добавляет интервал задачи в индекс вместе со связанным значением.
+     * Если интервал с таким началом и id уже есть, его окончание и значение обновляются.
+     * @param value Значение, которое возвращается при обходе индекса.
+     */
+    public void add(int id, long start, long end, V value) {
+        root = insert(root, key(start, id), end, value);
+    }
+
+    /**
+     * Заполняет пустой индекс интервалами, упорядоченными по ключу, за O(n): дерево сразу строится
+     * сбалансированным, без поворотов при каждой вставке. Используется при загрузке большого числа задач.
+     * @param keys Ключи (см. {@link #key}) в порядке строгого возрастания.
+     * @param ends Окончания интервалов в том же порядке.
+     * @param values Связанные значения в том же порядке.
+     * @throws IllegalStateException Если индекс не пуст.
+     * @throws IllegalArgumentException Если ключи не упорядочены по возрастанию или повторяются.
+     */
+    public void addAllSorted(long[] keys, long[] ends, List<? extends V> values) {
+        if (root != null) {
+            throw new IllegalStateException("Индекс уже заполнен");
+        }
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("Ключи должны строго возрастать: " + keys[i - 1] + ", " + keys[i]);
+            }
+        }
+
+        root = build(keys, ends, values, 0, keys.length);
+        size = keys.length;
+    }
+
+    /**
+     * Удаляет интервал задачи из индекса.
+     * @param id Идентификатор задачи.
+     * @param start Начало интервала, с которым задача была добавлена в индекс.
+     * @return {@code true}, если интервал был найден и удалён.
+     */
+    public boolean remove(int id, long start) {
+        int sizeBefore = size;
+        root = delete(root, key(start, id));
+        return size < sizeBefore;
+    }
+
+    /**
+     * Проверяет, пересекается ли интервал {@code [start, end)} с каким-либо интервалом из индекса,
+     * кроме интервала задачи с идентификатором {@code excludeId}.
+     * @param start Начало проверяемого интервала.
+     * @param end Окончание проверяемого интервала.
+     * @param excludeId Идентификатор задачи, которую нужно исключить из проверки (например, обновляемой).
+     * @return {@code true}, если найдено пересечение.
+     */
+    public boolean hasOverlap(long start, long end, int excludeId) {
+        boolean[] found = new boolean[1];
+        forEachOverlap(start, end, id -> {
+            if (id == excludeId) {
+                return true;
+            }
+            found[0] = true;
+            return false;
+        });
+        return found[0];
+    }
+
+    /**
+     * Возвращает идентификаторы всех задач, чьи интервалы пересекаются с {@code [start, end)},
+     * в порядке возрастания времени начала.
+     */
+    public List<Integer> findOverlaps(long start, long end) {
+        List<Integer> ids = new ArrayList<>();
+        forEachOverlap(start, end, id -> ids.add(id));
+        return ids;
+    }
+
+    /**
+     * Обходит интервалы, пересекающиеся с {@code [start, end)}, в порядке возрастания времени начала.
+     * @param visitor Получает id задачи; если возвращает {@code false}, обход прекращается.
+     */
+    public void forEachOverlap(long start, long end, IntPredicate visitor) {
+        visitOverlaps(root, start, end, visitor);
+    }
+
+    /**
+     * Обходит значения в порядке (начало, id) без создания промежуточных объектов.
+     */
+    @Override
+    public void forEach(Consumer<? super V> action) {
+        forEach(root, action);
+    }
+
+    /**
+     * Обходит значения с ключом больше {@code afterKey} в порядке (начало, id) за O(log n + k),
+     * где k — количество посещённых значений. Используется для постраничного чтения.
+     * @param afterKey Ключ (см. {@link #key}), после которого начинается обход; {@link Long#MIN_VALUE} — с начала.
+     * @param visitor Получает значение; если возвращает {@code false}, обход прекращается.
+     */
+    public void forEachAfter(long afterKey, Predicate<? super V> visitor) {
+        visitAfter(root, afterKey, visitor);
+    }
+
+    /**
+     * Возвращает итератор по значениям в порядке (начало, id). Итератор не поддерживает удаление.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new InOrderIterator();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Упаковывает пару (начало, id) в ключ: начало в старших 33 битах, id — в младших 31.
+     * Порядок ключей как чисел совпадает с порядком пар.
+     * @param start Начало интервала в минутах от эпохи (см. {@link #isValidStart}).
+     * @param id Неотрицательный идентификатор задачи.
+     * @throws IllegalArgumentException Если начало не помещается в 33 бита или id отрицателен.
+     */
+    public static long key(long start, int id) {
+        if (!isValidStart(start)) {
+            throw new IllegalArgumentException("Время начала вне допустимого диапазона: " + start);
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Id не может быть отрицательным: " + id);
+        }
+        return (start << ID_BITS) | id;
+    }
+
+    /**
+     * Проверяет, помещается ли начало интервала в ключ: это около ±8000 лет от эпохи,
+     * то есть любые даты с четырёхзначным годом.
+     * @param start Начало интервала в минутах от эпохи.
+     */
+    public static boolean isValidStart(long start) {
+        return start >= MIN_START && start <= MAX_START;
+    }
+
+    /**
+     * Возвращает начало интервала из ключа (см. {@link #key}).
+     */
+    public static long startOf(long key) {
+        return key >> ID_BITS;
+    }
+
+    /**
+     * Возвращает id задачи из ключа (см. {@link #key}).
+     */
+    public static int idOf(long key) {
+        return (int) (key & Integer.MAX_VALUE);
+    }
+
+    private static <V> void forEach(Node<V> node, Consumer<? super V> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.value);
+            node = node.right;
+        }
+    }
+
+    private static <V> boolean visitAfter(Node<V> node, long afterKey, Predicate<? super V> visitor) {
+        while (node != null) {
+            if (node.key > afterKey) {
+                if (!visitAfter(node.left, afterKey, visitor) || !visitor.test(node.value)) {
+                    return false;
+                }
+            }
+            node = node.right;
+        }
+        return true;
+    }
+
+    private boolean visitOverlaps(Node<V> node, long start, long end, IntPredicate visitor) {
+        if (node == null || node.maxEnd <= start) {
+            return true;
+        }
+        if (!visitOverlaps(node.left, start, end, visitor)) {
+            return false;
+        }
+        if (startOf(node.key) >= end) {
+            // Правое поддерево начинается не раньше текущего узла, а значит — не раньше окончания запроса.
+            return true;
+        }
+        if (node.end > start && !visitor.test(idOf(node.key))) {
+            return false;
+        }
+        return visitOverlaps(node.right, start, end, visitor);
+    }
+
+    private Node<V> build(long[] keys, long[] ends, List<? extends V> values, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+
+        int middle = (from + to) >>> 1;
+        Node<V> node = new Node<>(keys[middle], ends[middle], values.get(middle));
+        node.left = build(keys, ends, values, from, middle);
+        node.right = build(keys, ends, values, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    private Node<V> insert(Node<V> node, long key, long end, V value) {
+        if (node == null) {
+            size++;
+            return new Node<>(key, end, value);
+        }
+
+        if (key < node.key) {
+            node.left = insert(node.left, key, end, value);
+        } else if (key > node.key) {
+            node.right = insert(node.right, key, end, value);
+        } else {
+            node.end = end;
+            node.value = value;
+        }
+
+        return balance(node);
+    }
+
+    private Node<V> delete(Node<V> node, long key) {
+        if (node == null) {
+            return null;
+        }
+
+        if (key < node.key) {
+            node.left = delete(node.left, key);
+        } else if (key > node.key) {
+            node.right = delete(node.right, key);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<V> successor = min(node.right);
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+
+        return balance(node);
+    }
+
+    private Node<V> min(Node<V> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private Node<V> deleteMin(Node<V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node<V> balance(Node<V> node) {
+        update(node);
+        int balanceFactor = height(node.left) - height(node.right);
+
+        if (balanceFactor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balanceFactor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    private Node<V> rotateRight(Node<V> node) {
+        Node<V> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<V> rotateLeft(Node<V> node) {
+        Node<V> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node<?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Итератор по дереву с явным стеком: высота AVL-дерева не превышает 1.45 * log2(n + 2).
+     */
+    private class InOrderIterator implements Iterator<V> {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final Node<V>[] stack = new Node[height(root) + 1];
+        private int depth;
+
+        InOrderIterator() {
+            pushLeft(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        public V next() {
+            if (depth == 0) {
+                throw new NoSuchElementException();
+            }
+            Node<V> node = stack[--depth];
+            pushLeft(node.right);
+            return node.value;
+        }
+
+        private void pushLeft(Node<V> node) {
+            while (node != null) {
+                stack[depth++] = node;
+                node = node.left;
+            }
+        }
+    }
+
+    /**
+     * Узел дерева: упакованный ключ (начало, id), интервал задачи, значение и максимальное время окончания в поддереве.
+     */
+    private static class Node<V> {
+        final long key;
+        long end;
+        long maxEnd;
+        V value;
+        int height = 1;
+        Node<V> left;
+        Node<V> right;
+
+        Node(long key, long end, V value) {
+            this.key = key;
+            this.end = end;
+            this.maxEnd = end;
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package ru.yandex.practicum.task.interfaces;
+
+/**
+ * Хранилище, которое может подтверждать надёжность записи отдельно от самого изменения.
+ * <p>
+ * Используется {@link ru.yandex.practicum.task.managers.ConcurrentTaskManager}: изменение выполняется
+ * под эксклюзивной блокировкой, а ожидание {@code fsync} — уже после её снятия, поэтому записи нескольких
+ * параллельных клиентов фиксируются на диске одной общей операцией.
+ */
+public interface GroupCommitStore {
+    /**
+     * Переключает хранилище в режим, в котором изменяющие операции не ждут надёжной записи сами:
+     * вызывающий обязуется вызвать {@link #awaitDurable(long)}.
+     */
+    void deferDurabilityWaits();
+
+    /**
+     * @return Номер последней записанной операции.
+     */
+    long getLastSequence();
+
+    /**
+     * Дожидается, пока операция с номером {@code sequence} и все предыдущие не будут надёжно записаны.
+     */
+    void awaitDurable(long sequence);
+}
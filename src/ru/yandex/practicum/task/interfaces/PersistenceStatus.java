@@ -0,0 +1,22 @@
+package ru.yandex.practicum.task.interfaces;
+
+import java.time.Duration;
+
+/**
+ * Менеджер, который записывает изменения на диск не сразу, а с отставанием.
+ * <p>
+ * Используется {@link ru.yandex.practicum.task.http.HttpTaskServer}: состояние отдаётся по запросу
+ * {@code GET /status}, чтобы отставание файла от памяти было видно снаружи процесса.
+ */
+public interface PersistenceStatus {
+    /**
+     * @return Время, прошедшее с первого изменения, которое ещё не записано на диск,
+     *         или {@link Duration#ZERO}, если записаны все изменения.
+     */
+    Duration getPersistenceLag();
+
+    /**
+     * @return Количество изменений, которые ещё не записаны на диск.
+     */
+    long getPendingChanges();
+}
@@ -1,11 +1,14 @@
 package ru.yandex.practicum.task.interfaces;
 
+import ru.yandex.practicum.task.enums.TaskType;
 import ru.yandex.practicum.task.tasks.Epic;
 import ru.yandex.practicum.task.tasks.Subtask;
 import ru.yandex.practicum.task.tasks.Task;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 public interface TaskManager {
     Task createTask(Task task);
@@ -26,6 +29,23 @@ public interface TaskManager {
 
     List<Subtask> getAllSubtasks();
 
+    /**
+     * Возвращает страницу задач в порядке возрастания id.
+     * @param afterId Id последней задачи предыдущей страницы; {@code 0} — первая страница.
+     * @param limit Максимальный размер страницы.
+     */
+    List<Task> getTasks(int afterId, int limit);
+
+    /**
+     * Возвращает страницу эпиков в порядке возрастания id (см. {@link #getTasks(int, int)}).
+     */
+    List<Epic> getEpics(int afterId, int limit);
+
+    /**
+     * Возвращает страницу подзадач в порядке возрастания id (см. {@link #getTasks(int, int)}).
+     */
+    List<Subtask> getSubtasks(int afterId, int limit);
+
     Task getTask(int id);
 
     Epic getEpic(int id);
@@ -49,4 +69,42 @@ public interface TaskManager {
     List<Task> getHistory();
 
     Set<Task> getPrioritizedTasks();
+
+    /**
+     * Возвращает страницу приоритизированных задач в порядке (время начала, id).
+     * @param afterStartTime Время начала последней задачи предыдущей страницы; {@code null} — первая страница.
+     * @param afterId Id последней задачи предыдущей страницы.
+     * @param limit Максимальный размер страницы.
+     */
+    List<Task> getPrioritizedTasks(LocalDateTime afterStartTime, int afterId, int limit);
+
+    /**
+     * Возвращает версию списка задач заданного типа. Версия увеличивается при каждом изменении списка
+     * (для эпиков — и при изменении их подзадач) и не повторяется, пока существует менеджер.
+     */
+    long getVersion(TaskType type);
+
+    /**
+     * Возвращает версию задачи, эпика или подзадачи (см. {@link #getVersion(TaskType)}); версия эпика меняется
+     * и при изменении его подзадач.
+     * @return Версия или {@code -1}, если задачи с таким id нет.
+     */
+    long getVersion(int id);
+
+    /**
+     * Возвращает тип задачи, эпика или подзадачи по id. В отличие от {@link #getTask}, {@link #getEpic}
+     * и {@link #getSubtask}, не добавляет её в историю просмотров.
+     * @return Тип или {@code null}, если задачи с таким id нет.
+     */
+    TaskType getType(int id);
+
+    /**
+     * Выполняет серию изменений как одно целое. Менеджеры с сохранением в файл сохраняют данные один раз
+     * в конце серии, а потокобезопасный менеджер выполняет её под одной блокировкой.
+     * @param operations Получает менеджер, через который нужно выполнять изменения серии.
+     * @return Результат {@code operations}.
+     */
+    default <T> T batch(Function<TaskManager, T> operations) {
+        return operations.apply(this);
+    }
 }
@@ -0,0 +1,312 @@
+package ru.yandex.practicum.task.managers;
+
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.interfaces.PersistenceStatus;
+import ru.yandex.practicum.task.storage.SnapshotFormat;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+import ru.yandex.practicum.task.utils.TaskManagerUtil;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Менеджер задач с отложенным сохранением в файл.
+ * <p>
+ * Изменения не записываются в файл сразу, а только помечают состояние как изменённое. Отдельный поток
+ * {@code task-file-writer} не чаще одного раза за интервал снимает неизменяемые списки задач
+ * ({@link #getAllTasks()} и др.) и записывает их во временный файл, который атомарно заменяет прежний.
+ * Поэтому серия из тысяч изменений за интервал приводит к одной-двум записям файла вместо полной
+ * перезаписи на каждое изменение.
+ * <p>
+ * При сбое теряются изменения, сделанные после последней записи, — не больше одного интервала.
+ * Перед остановкой нужно вызвать {@link #flush()} или {@link #close()}; {@link ru.yandex.practicum.task.http.HttpTaskServer}
+ * делает это сам при остановке. Текущее отставание файла от памяти показывает {@link #getPersistenceLag()},
+ * а сервер отдаёт его по запросу {@code GET /status} (см. {@link PersistenceStatus}).
+ */
+public class AsyncFileBackedTaskManager extends FileBackedTaskManager
+        implements Flushable, Closeable, PersistenceStatus {
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final ScheduledExecutorService writer;
+    private final long flushIntervalMillis;
+    private final Object persistLock = new Object();
+    /**
+     * Количество изменений с момента создания менеджера; меняется под монитором менеджера.
+     */
+    private volatile long version;
+    private volatile long persistedVersion;
+    /**
+     * Время ({@link System#nanoTime()}), начиная с которого в файле нет изменений; {@code 0}, если файл актуален.
+     */
+    private volatile long dirtySinceNanos;
+
+    /**
+     * Поток записи не запускается в конструкторе, чтобы запись файла не начиналась до завершения
+     * инициализации менеджера и загрузки данных; его запускают фабричные методы.
+     * @param file Файл, в котором сохраняются данные о задачах.
+     * @param format Формат файла.
+     * @param flushIntervalMillis Минимальный интервал между записями файла в миллисекундах.
+     */
+    private AsyncFileBackedTaskManager(File file, SnapshotFormat format, long flushIntervalMillis) {
+        super(file, format);
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Интервал записи должен быть положительным: " + flushIntervalMillis);
+        }
+
+        this.flushIntervalMillis = flushIntervalMillis;
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-file-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Создаёт пустой менеджер с отложенным сохранением в файл CSV.
+     * @param file Файл, в котором сохраняются данные о задачах.
+     * @param flushIntervalMillis Минимальный интервал между записями файла в миллисекундах.
+     */
+    public static AsyncFileBackedTaskManager create(File file, long flushIntervalMillis) {
+        return create(file, SnapshotFormat.CSV, flushIntervalMillis);
+    }
+
+    /**
+     * Создаёт пустой менеджер с отложенным сохранением в файл заданного формата.
+     * @param file Файл, в котором сохраняются данные о задачах.
+     * @param format Формат файла.
+     * @param flushIntervalMillis Минимальный интервал между записями файла в миллисекундах.
+     */
+    public static AsyncFileBackedTaskManager create(File file, SnapshotFormat format, long flushIntervalMillis) {
+        AsyncFileBackedTaskManager manager = new AsyncFileBackedTaskManager(file, format, flushIntervalMillis);
+        manager.startWriter();
+        return manager;
+    }
+
+    /**
+     * Загружает данные о задачах из файла в менеджер с отложенным сохранением.
+     * @param file Файл, из которого необходимо загрузить данные.
+     * @param flushIntervalMillis Минимальный интервал между записями файла в миллисекундах.
+     */
+    public static AsyncFileBackedTaskManager loadFromFile(File file, long flushIntervalMillis) {
+        return loadFromFile(file, SnapshotFormat.CSV, flushIntervalMillis);
+    }
+
+    /**
+     * Загружает данные о задачах из файла в заданном формате в менеджер с отложенным сохранением.
+     * Поток записи запускается после загрузки.
+     */
+    public static AsyncFileBackedTaskManager loadFromFile(File file, SnapshotFormat format, long flushIntervalMillis) {
+        AsyncFileBackedTaskManager manager = new AsyncFileBackedTaskManager(file, format, flushIntervalMillis);
+        manager.loadSnapshot();
+        manager.startWriter();
+        return manager;
+    }
+
+    @Override
+    public synchronized Task createTask(Task task) {
+        return super.createTask(task);
+    }
+
+    @Override
+    public synchronized Epic createEpic(Epic epic) {
+        return super.createEpic(epic);
+    }
+
+    @Override
+    public synchronized Subtask createSubtask(Subtask subtask) {
+        return super.createSubtask(subtask);
+    }
+
+    @Override
+    public synchronized Task updateTask(Task task) {
+        return super.updateTask(task);
+    }
+
+    @Override
+    public synchronized Epic updateEpic(Epic epic) {
+        return super.updateEpic(epic);
+    }
+
+    @Override
+    public synchronized Subtask updateSubtask(Subtask subtask) {
+        return super.updateSubtask(subtask);
+    }
+
+    @Override
+    public synchronized void deleteAllTasks() {
+        super.deleteAllTasks();
+    }
+
+    @Override
+    public synchronized void deleteAllEpics() {
+        super.deleteAllEpics();
+    }
+
+    @Override
+    public synchronized void deleteAllSubtasks() {
+        super.deleteAllSubtasks();
+    }
+
+    @Override
+    public synchronized Task deleteTask(int id) {
+        return super.deleteTask(id);
+    }
+
+    @Override
+    public synchronized Epic deleteEpic(int id) {
+        return super.deleteEpic(id);
+    }
+
+    @Override
+    public synchronized Subtask deleteSubtask(int id) {
+        return super.deleteSubtask(id);
+    }
+
+    /**
+     * Сразу записывает в файл изменения, которые ещё не записаны.
+     * @throws ManagerSaveException Если произошла ошибка при сохранении данных в файл.
+     */
+    @Override
+    public void flush() {
+        persist();
+    }
+
+    /**
+     * Останавливает поток записи и записывает в файл оставшиеся изменения.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        persist();
+    }
+
+    /**
+     * Возвращает отставание файла от состояния в памяти: время, прошедшее с первого изменения,
+     * которое ещё не записано в файл, или {@link Duration#ZERO}, если файл актуален.
+     */
+    @Override
+    public Duration getPersistenceLag() {
+        long since = dirtySinceNanos;
+        return since == 0 ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - since);
+    }
+
+    /**
+     * Возвращает количество изменений, которые ещё не записаны в файл.
+     */
+    @Override
+    public long getPendingChanges() {
+        return version - persistedVersion;
+    }
+
+    @Override
+    protected void save() {
+        markDirty();
+    }
+
+    @Override
+    protected void onPut(Task task) {
+        markDirty();
+    }
+
+    @Override
+    protected void onDelete(TaskType type, int id) {
+        markDirty();
+    }
+
+    @Override
+    protected void onDeleteAll(TaskType type) {
+        markDirty();
+    }
+
+    /**
+     * Вызывается под монитором менеджера из изменяющих операций.
+     */
+    private void markDirty() {
+        if (dirtySinceNanos == 0) {
+            dirtySinceNanos = System.nanoTime();
+        }
+        version++;
+    }
+
+    private void startWriter() {
+        writer.scheduleWithFixedDelay(this::persistQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void persistQuietly() {
+        try {
+            persist();
+        } catch (ManagerSaveException e) {
+            // Изменения остаются непомеченными как записанные и будут записаны при следующей попытке.
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Записывает снимок состояния, если с прошлой записи были изменения. Копии задач снимаются под монитором
+     * менеджера, а сама запись выполняется вне его, поэтому изменения не ждут записи файла.
+     */
+    private void persist() {
+        synchronized (persistLock) {
+            long capturedVersion;
+            long capturedNanos;
+            List<Task> tasks;
+            List<Epic> epics;
+            List<Subtask> subtasks;
+            synchronized (this) {
+                capturedVersion = version;
+                if (capturedVersion == persistedVersion) {
+                    return;
+                }
+                capturedNanos = System.nanoTime();
+                // Запись идёт вне монитора, а эпики (и задачи, полученные снаружи) изменяются на месте,
+                // поэтому записываются копии.
+                tasks = TaskManagerUtil.getCopyTasks(getAllTasks());
+                epics = TaskManagerUtil.getCopyTasks(getAllEpics());
+                subtasks = TaskManagerUtil.getCopyTasks(getAllSubtasks());
+            }
+
+            writeFile(tasks, epics, subtasks);
+
+            synchronized (this) {
+                persistedVersion = capturedVersion;
+                // Изменения после снятия списков попадут в следующую запись: отставание отсчитывается от снятия.
+                dirtySinceNanos = version == capturedVersion ? 0 : capturedNanos;
+            }
+        }
+    }
+
+    private void writeFile(List<Task> tasks, List<Epic> epics, List<Subtask> subtasks) {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writeSnapshot(out, 0, tasks, epics, subtasks);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения задачи в файл");
+        }
+    }
+
+}
@@ -0,0 +1,298 @@
+package ru.yandex.practicum.task.managers;
+
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.interfaces.GroupCommitStore;
+import ru.yandex.practicum.task.interfaces.PersistenceStatus;
+import ru.yandex.practicum.task.interfaces.TaskManager;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+import ru.yandex.practicum.task.utils.TaskManagerUtil;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Потокобезопасная обёртка над любым {@link TaskManager}, например {@link InMemoryTaskManager}
+ * или {@link FileBackedTaskManager}.
+ * <p>
+ * Все изменяющие операции выполняются под эксклюзивной блокировкой, поэтому проверка пересечений по времени,
+ * выдача id и сохранение в файл выполняются атомарно и линеаризуемо. Операции чтения берут разделяемую
+ * блокировку {@link StampedLock} и не блокируют друг друга. История просмотров, которая изменяется
+ * при чтении задачи по id, синхронизируется самим {@link InMemoryHistoryManager}.
+ * <p>
+ * Задачи и подзадачи менеджер при изменении заменяет новыми экземплярами, а эпики изменяет на месте
+ * (подзадачи и состояние), поэтому эпики отдаются копиями, снятыми под блокировкой чтения. Копии всех эпиков
+ * переиспользуются, пока не изменится версия эпиков ({@link TaskManager#getVersion(TaskType)}). Так все
+ * возвращаемые коллекции и задачи можно безопасно читать и сериализовать вне блокировки.
+ * <p>
+ * Если менеджер умеет подтверждать надёжность записи отдельно ({@link GroupCommitStore}), изменяющая операция
+ * ждёт записи на диск уже после снятия блокировки: пока одна группа изменений фиксируется на диске,
+ * следующие клиенты успевают выполнить свои изменения и попасть в общую группу.
+ */
+public class ConcurrentTaskManager implements TaskManager, Flushable {
+    private final TaskManager delegate;
+    private final GroupCommitStore commitStore;
+    private final StampedLock lock = new StampedLock();
+    /**
+     * Копии всех эпиков, снятые при последнем вызове {@link #getAllEpics()}.
+     */
+    private volatile EpicsCopy epicsCopy;
+
+    public ConcurrentTaskManager(TaskManager delegate) {
+        this.delegate = delegate;
+        this.commitStore = delegate instanceof GroupCommitStore ? (GroupCommitStore) delegate : null;
+        if (commitStore != null) {
+            commitStore.deferDurabilityWaits();
+        }
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        return write(() -> delegate.createTask(task));
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        return write(() -> delegate.createEpic(epic));
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        return write(() -> delegate.createSubtask(subtask));
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        return write(() -> delegate.updateTask(task));
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        return write(() -> delegate.updateEpic(epic));
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        return write(() -> delegate.updateSubtask(subtask));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return read(delegate::getAllTasks);
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return read(() -> {
+            long version = delegate.getVersion(TaskType.EPIC);
+            EpicsCopy cached = epicsCopy;
+            if (cached != null && cached.version == version) {
+                return cached.epics;
+            }
+            List<Epic> epics = copyEpics(delegate.getAllEpics());
+            epicsCopy = new EpicsCopy(version, epics);
+            return epics;
+        });
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return read(delegate::getAllSubtasks);
+    }
+
+    @Override
+    public List<Task> getTasks(int afterId, int limit) {
+        return read(() -> delegate.getTasks(afterId, limit));
+    }
+
+    @Override
+    public List<Epic> getEpics(int afterId, int limit) {
+        return read(() -> copyEpics(delegate.getEpics(afterId, limit)));
+    }
+
+    @Override
+    public List<Subtask> getSubtasks(int afterId, int limit) {
+        return read(() -> delegate.getSubtasks(afterId, limit));
+    }
+
+    @Override
+    public Task getTask(int id) {
+        return read(() -> delegate.getTask(id));
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        return read(() -> TaskManagerUtil.getCopyEpicWithState(delegate.getEpic(id)));
+    }
+
+    @Override
+    public Subtask getSubtask(int id) {
+        return read(() -> delegate.getSubtask(id));
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        write(() -> {
+            delegate.deleteAllTasks();
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        write(() -> {
+            delegate.deleteAllEpics();
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        write(() -> {
+            delegate.deleteAllSubtasks();
+            return null;
+        });
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpic(Epic epic) {
+        return read(() -> delegate.getSubtasksByEpic(epic));
+    }
+
+    @Override
+    public Task deleteTask(int id) {
+        return write(() -> delegate.deleteTask(id));
+    }
+
+    @Override
+    public Epic deleteEpic(int id) {
+        return write(() -> delegate.deleteEpic(id));
+    }
+
+    @Override
+    public Subtask deleteSubtask(int id) {
+        return write(() -> delegate.deleteSubtask(id));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(() -> {
+            List<Task> history = new ArrayList<>(delegate.getHistory());
+            history.replaceAll(task -> task instanceof Epic ? TaskManagerUtil.getCopyEpicWithState((Epic) task) : task);
+            return history;
+        });
+    }
+
+    /**
+     * Возвращает копию приоритизированных задач, снятую под блокировкой чтения.
+     */
+    @Override
+    public Set<Task> getPrioritizedTasks() {
+        return read(() -> new LinkedHashSet<>(delegate.getPrioritizedTasks()));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime afterStartTime, int afterId, int limit) {
+        return read(() -> delegate.getPrioritizedTasks(afterStartTime, afterId, limit));
+    }
+
+    @Override
+    public long getVersion(TaskType type) {
+        return read(() -> delegate.getVersion(type));
+    }
+
+    @Override
+    public long getVersion(int id) {
+        return read(() -> delegate.getVersion(id));
+    }
+
+    @Override
+    public TaskType getType(int id) {
+        return read(() -> delegate.getType(id));
+    }
+
+    /**
+     * Выполняет серию изменений под одной эксклюзивной блокировкой, поэтому другие клиенты не видят её
+     * промежуточных состояний. Изменения серии выполняются через обёрнутый менеджер, который получает {@code operations}.
+     */
+    @Override
+    public <T> T batch(Function<TaskManager, T> operations) {
+        return write(() -> delegate.batch(operations));
+    }
+
+    /**
+     * Сбрасывает на диск отложенные изменения, если обёрнутый менеджер их накапливает (см. {@link Flushable}).
+     */
+    @Override
+    public void flush() throws IOException {
+        if (delegate instanceof Flushable) {
+            ((Flushable) delegate).flush();
+        }
+    }
+
+    /**
+     * Возвращает состояние отложенной записи обёрнутого менеджера. Значения читаются без блокировки.
+     * @return Состояние или {@code null}, если обёрнутый менеджер записывает изменения сразу.
+     */
+    public PersistenceStatus getPersistenceStatus() {
+        return delegate instanceof PersistenceStatus ? (PersistenceStatus) delegate : null;
+    }
+
+    /**
+     * Копирует эпики; вызывается под блокировкой, пока их не может изменить запись.
+     */
+    private static List<Epic> copyEpics(List<Epic> epics) {
+        List<Epic> copies = new ArrayList<>(epics.size());
+        epics.forEach(epic -> copies.add(TaskManagerUtil.getCopyEpicWithState(epic)));
+        return Collections.unmodifiableList(copies);
+    }
+
+    private <T> T read(Supplier<T> operation) {
+        long stamp = lock.readLock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T write(Supplier<T> operation) {
+        T result;
+        long sequence = 0;
+        long stamp = lock.writeLock();
+        try {
+            result = operation.get();
+            if (commitStore != null) {
+                sequence = commitStore.getLastSequence();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        if (commitStore != null) {
+            commitStore.awaitDurable(sequence);
+        }
+        return result;
+    }
+
+    private static final class EpicsCopy {
+        private final long version;
+        private final List<Epic> epics;
+
+        private EpicsCopy(long version, List<Epic> epics) {
+            this.version = version;
+            this.epics = epics;
+        }
+    }
+
+}
@@ -3,37 +3,68 @@ package ru.yandex.practicum.task.managers;
 import ru.yandex.practicum.task.enums.TaskStatus;
 import ru.yandex.practicum.task.enums.TaskType;
 import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.index.PrioritizedTaskIndex;
+import ru.yandex.practicum.task.interfaces.TaskManager;
+import ru.yandex.practicum.task.storage.BinarySnapshotCodec;
+import ru.yandex.practicum.task.storage.SnapshotFormat;
 import ru.yandex.practicum.task.tasks.Epic;
 import ru.yandex.practicum.task.tasks.Subtask;
 import ru.yandex.practicum.task.tasks.Task;
 import ru.yandex.practicum.task.utils.DateTimeTaskUtil;
-import ru.yandex.practicum.task.utils.TaskManagerUtil;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
-import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * Класс {@code FileBackedTaskManager} расширяет {@link InMemoryTaskManager},
  * добавляя функциональность сохранения данных о задачах в файл и восстановления данных из файла.
  * <p>
  * При каждом изменении состояния задач (создание, обновление, удаление) данные автоматически сохраняются в файл.
+ * Файл записывается в формате CSV или в компактном двоичном формате (см. {@link SnapshotFormat}).
  */
 public class FileBackedTaskManager extends InMemoryTaskManager {
+    /**
+     * Строка снимка с номером последней учтённой записи журнала изменений.
+     */
+    protected static final String SEQUENCE_PREFIX = "#seq=";
     /**
      * Файл, в котором сохраняются данные о задачах.
      */
-    private final File file;
+    protected final File file;
+    /**
+     * Формат файла, в котором сохраняются данные о задачах.
+     */
+    protected final SnapshotFormat format;
+    /**
+     * Глубина вложенных серий изменений (см. {@link #batch}); пока она больше нуля, сохранение откладывается.
+     */
+    private int batchDepth;
+    private boolean savePending;
 
     public FileBackedTaskManager(File file) {
+        this(file, SnapshotFormat.CSV);
+    }
+
+    public FileBackedTaskManager(File file, SnapshotFormat format) {
         this.file = file;
+        this.format = format;
     }
 
     @Override
@@ -41,7 +72,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         Task createdTask = super.createTask(task);
 
         if (createdTask != null) {
-            save();
+            onPut(createdTask);
         }
 
         return createdTask;
@@ -50,7 +81,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     @Override
     public Epic createEpic(Epic epic) {
         Epic createdEpic = super.createEpic(epic);
-        save();
+        onPut(createdEpic);
         return createdEpic;
     }
 
@@ -59,7 +90,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         Subtask createdSubtask = super.createSubtask(subtask);
 
         if (createdSubtask != null) {
-            save();
+            onPut(createdSubtask);
         }
 
         return createdSubtask;
@@ -70,7 +101,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         Task updatedTask = super.updateTask(task);
 
         if (updatedTask != null) {
-            save();
+            onPut(updatedTask);
         }
 
         return updatedTask;
@@ -79,53 +110,56 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     @Override
     public Epic updateEpic(Epic epic) {
         Epic updatedEpic = super.updateEpic(epic);
-        save();
+        onPut(updatedEpic);
         return updatedEpic;
     }
 
     @Override
     public Subtask updateSubtask(Subtask subtask) {
         Subtask updatedSubtask = super.updateSubtask(subtask);
-        save();
+
+        if (updatedSubtask != null) {
+            onPut(updatedSubtask);
+        }
         return updatedSubtask;
     }
 
     @Override
     public void deleteAllTasks() {
         super.deleteAllTasks();
-        save();
+        onDeleteAll(TaskType.TASK);
     }
 
     @Override
     public void deleteAllEpics() {
         super.deleteAllEpics();
-        save();
+        onDeleteAll(TaskType.EPIC);
     }
 
     @Override
     public void deleteAllSubtasks() {
         super.deleteAllSubtasks();
-        save();
+        onDeleteAll(TaskType.SUBTASK);
     }
 
     @Override
     public Task deleteTask(int id) {
         Task removedTask = super.deleteTask(id);
-        save();
+        onDelete(TaskType.TASK, id);
         return removedTask;
     }
 
     @Override
     public Epic deleteEpic(int id) {
         Epic removedEpic = super.deleteEpic(id);
-        save();
+        onDelete(TaskType.EPIC, id);
         return removedEpic;
     }
 
     @Override
     public Subtask deleteSubtask(int id) {
         Subtask removedSubtask = super.deleteSubtask(id);
-        save();
+        onDelete(TaskType.SUBTASK, id);
         return removedSubtask;
     }
 
@@ -135,80 +169,391 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
      * @return Новый {@code FileBackedTaskManager}, содержащий загруженные данные.
      */
     public static FileBackedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, SnapshotFormat.CSV);
+    }
+
+    /**
+     * Загружает данные о задачах из файла в заданном формате.
+     * @param file Файл, из которого необходимо загрузить данные.
+     * @param format Формат файла; он же используется для последующих сохранений.
+     * @return Новый {@code FileBackedTaskManager}, содержащий загруженные данные.
+     */
+    public static FileBackedTaskManager loadFromFile(File file, SnapshotFormat format) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, format);
+        manager.loadSnapshot();
+        return manager;
+    }
+
+    /**
+     * Загружает данные о задачах из файла CSV, разбирая его части параллельно (см. {@link #loadSnapshotParallel()}).
+     * Предназначен для быстрого запуска с большими файлами.
+     * @param file Файл, из которого необходимо загрузить данные.
+     * @return Новый {@code FileBackedTaskManager}, содержащий загруженные данные.
+     */
+    public static FileBackedTaskManager loadFromFileParallel(File file) {
         FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        manager.loadSnapshotParallel();
+        return manager;
+    }
+
+    /**
+     * Выполняет серию изменений и сохраняет данные один раз в конце, а не после каждого изменения.
+     * Если серия прервана исключением, уже выполненные изменения всё равно сохраняются.
+     */
+    @Override
+    public <T> T batch(Function<TaskManager, T> operations) {
+        batchDepth++;
         try {
-            String content = Files.readString(file.toPath());
+            return operations.apply(this);
+        } finally {
+            if (--batchDepth == 0 && savePending) {
+                savePending = false;
+                save();
+            }
+        }
+    }
+
+    /**
+     * Сохраняет данные ({@link #save()}) или, внутри серии изменений, откладывает сохранение до её конца.
+     */
+    protected void requestSave() {
+        if (batchDepth > 0) {
+            savePending = true;
+        } else {
+            save();
+        }
+    }
+
+    /**
+     * Вызывается после создания или обновления задачи, эпика или подзадачи.
+     * По умолчанию сохраняет все задачи в файл.
+     * @param task Созданная или обновлённая задача.
+     */
+    protected void onPut(Task task) {
+        requestSave();
+    }
 
-            if (content.isBlank()) {
-                return manager;
+    /**
+     * Вызывается после удаления задачи, эпика или подзадачи по id. По умолчанию сохраняет все задачи в файл.
+     */
+    protected void onDelete(TaskType type, int id) {
+        requestSave();
+    }
+
+    /**
+     * Вызывается после удаления всех задач одного типа. По умолчанию сохраняет все задачи в файл.
+     */
+    protected void onDeleteAll(TaskType type) {
+        requestSave();
+    }
+
+    /**
+     * Загружает в менеджер данные из файла, сохраняя id задач. Задачи сначала читаются целиком, а затем
+     * добавляются за один проход (см. {@link #bulkLoad}), поэтому время загрузки линейно по размеру файла
+     * (индекс приоритетов сортируется за O(n log n), только если задачи в файле
+     * не упорядочены по времени начала), а порядок строк в файле не важен.
+     * @return Номер последней записи журнала изменений, учтённой в файле (см. {@link #writeSnapshot}), или {@code 0}.
+     */
+    protected long loadSnapshot() {
+        long sequence = 0;
+        List<Task> loadedTasks = new ArrayList<>();
+        try {
+            if (format == SnapshotFormat.BINARY) {
+                byte[] data = Files.readAllBytes(file.toPath());
+                sequence = data.length == 0 ? sequence : BinarySnapshotCodec.read(data, loadedTasks::add);
+            } else {
+                sequence = readCsv(file.toPath(), loadedTasks);
             }
+        } catch (IOException e) {
+            System.out.println("Ошибка парсинга файла");
+        }
 
-            String[] lines = content.split("\n");
+        bulkLoad(loadedTasks);
+        return sequence;
+    }
 
-            for (String line : lines) {
-                if (line.startsWith("id")) {
+    /**
+     * Читает задачи из файла CSV построчно, чтобы при запуске не держать в памяти весь текст и массив его строк.
+     * @param tasks Получает прочитанные задачи с id из файла.
+     * @return Номер последней записи журнала изменений, учтённой в файле, или {@code 0}.
+     */
+    protected static long readCsv(Path path, List<Task> tasks) throws IOException {
+        long sequence = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(SEQUENCE_PREFIX)) {
+                    sequence = Long.parseLong(line.substring(SEQUENCE_PREFIX.length()));
                     continue;
                 }
-                Task task = fromString(line);
-                task.setId(++manager.lastTaskId);
-
-                if (task instanceof Epic) {
-                    Epic newEpic = TaskManagerUtil.getCopyTask((Epic) task);
-                    manager.epicsMap.put(newEpic.getId(), newEpic);
-                } else if (task instanceof Subtask) {
-                    Subtask newSubtask = TaskManagerUtil.getCopyTask((Subtask) task);
-                    manager.subtasksMap.put(newSubtask.getId(), newSubtask);
-
-                    Epic epic = manager.epicsMap.get(((Subtask) task).getEpicId());
-                    epic.addSubtaskId(newSubtask.getId());
-                    epic.calculateState(manager.getSubtasksByEpic(epic));
-                } else {
-                    Task newTask = TaskManagerUtil.getCopyTask(task);
-                    manager.tasksMap.put(newTask.getId(), newTask);
+                if (line.isBlank() || line.startsWith("id")) {
+                    continue;
                 }
+                tasks.add(fromString(line));
             }
+        }
+        return sequence;
+    }
+
+    /**
+     * Загружает в менеджер данные из файла CSV, сохраняя id задач. Файл делится на части по границам строк,
+     * части разбираются параллельно в общем пуле {@link ForkJoinPool}, после чего все задачи добавляются
+     * за один проход (см. {@link #bulkLoad}).
+     * @return Номер последней записи журнала изменений, учтённой в файле, или {@code 0}.
+     */
+    protected long loadSnapshotParallel() {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file.toPath());
         } catch (IOException e) {
             System.out.println("Ошибка парсинга файла");
+            return 0;
         }
 
-        return manager;
+        List<int[]> chunks = splitIntoChunks(data, ForkJoinPool.getCommonPoolParallelism() * 4);
+        List<ParsedChunk> parsed = chunks.parallelStream()
+                .map(chunk -> parseChunk(data, chunk[0], chunk[1]))
+                .toList();
+
+        long sequence = 0;
+        List<Task> tasks = new ArrayList<>();
+        for (ParsedChunk chunk : parsed) {
+            sequence = Math.max(sequence, chunk.sequence);
+            tasks.addAll(chunk.tasks);
+        }
+        bulkLoad(tasks);
+
+        return sequence;
+    }
+
+    /**
+     * Добавляет в менеджер сразу все задачи, прочитанные из файла, в любом порядке. Сначала задачи без проверок
+     * раскладываются по таблицам, затем подзадачи привязываются к эпикам, индекс приоритетов строится одним проходом
+     * по отсортированным задачам, а состояние каждого эпика вычисляется один раз по всем его подзадачам.
+     * Прочитанные задачи — новые объекты, поэтому сохраняются без копирования.
+     * <p>
+     * Подзадачи, эпика которых нет среди загруженных (например, если запись прервалась между файлами),
+     * пропускаются с сообщением и возвращаются вызывающему.
+     * @return Пропущенные подзадачи без эпика.
+     */
+    protected List<Subtask> bulkLoad(List<Task> loadedTasks) {
+        int epicCount = 0;
+        int subtaskCount = 0;
+        for (Task task : loadedTasks) {
+            if (task instanceof Epic) {
+                epicCount++;
+            } else if (task instanceof Subtask) {
+                subtaskCount++;
+            }
+        }
+        // Таблицы сразу выделяются нужного размера, чтобы не перестраивать их по мере добавления.
+        tasksMap.ensureCapacity(tasksMap.size() + loadedTasks.size() - epicCount - subtaskCount);
+        epicsMap.ensureCapacity(epicsMap.size() + epicCount);
+        subtasksMap.ensureCapacity(subtasksMap.size() + subtaskCount);
+
+        // Эпики раскладываются первыми, чтобы подзадачи без эпика можно было отбросить, не меняя порядок остальных.
+        for (Task task : loadedTasks) {
+            if (task instanceof Epic) {
+                epicsMap.put(task.getId(), (Epic) task);
+            }
+        }
+
+        List<Task> prioritized = new ArrayList<>(loadedTasks.size() - epicCount);
+        List<Subtask> subtasks = new ArrayList<>(subtaskCount);
+        List<Subtask> orphans = new ArrayList<>();
+
+        for (Task task : loadedTasks) {
+            lastTaskId = Math.max(lastTaskId, task.getId());
+            if (task instanceof Subtask) {
+                Subtask subtask = (Subtask) task;
+                if (!epicsMap.containsKey(subtask.getEpicId())) {
+                    orphans.add(subtask);
+                    continue;
+                }
+                subtasksMap.put(task.getId(), subtask);
+                subtasks.add(subtask);
+                prioritized.add(task);
+            } else if (!(task instanceof Epic)) {
+                tasksMap.put(task.getId(), task);
+                prioritized.add(task);
+            }
+        }
+        for (Subtask orphan : orphans) {
+            System.out.println("Подзадача " + orphan.getId() + " пропущена: не найден эпик " + orphan.getEpicId());
+        }
+
+        // Id подзадач добавляются к эпикам по возрастанию: так каждое добавление дописывает id в конец множества.
+        // Ключ — id подзадачи в старших битах и id её эпика в младших.
+        long[] subtaskKeys = new long[subtasks.size()];
+        for (int i = 0; i < subtaskKeys.length; i++) {
+            Subtask subtask = subtasks.get(i);
+            subtaskKeys[i] = ((long) subtask.getId() << 32) | (subtask.getEpicId() & 0xFFFFFFFFL);
+        }
+        Arrays.sort(subtaskKeys);
+        for (long key : subtaskKeys) {
+            epicsMap.get((int) key).addSubtaskId((int) (key >>> 32));
+        }
+
+        prioritizedTasks.addAll(prioritized);
+        // Таблицы уже заполнены и только читаются, поэтому эпики можно пересчитывать параллельно.
+        new ArrayList<>(epicsMap.values()).parallelStream()
+                .forEach(epic -> epic.calculateState(getSubtasksByEpic(epic)));
+
+        return orphans;
+    }
+
+    /**
+     * Делит файл на части примерно одинакового размера так, чтобы каждая заканчивалась переводом строки.
+     * @return Пары {@code [начало, конец)} частей.
+     */
+    private static List<int[]> splitIntoChunks(byte[] data, int count) {
+        int chunkSize = Math.max(64 * 1024, data.length / Math.max(1, count));
+        List<int[]> chunks = new ArrayList<>();
+
+        int start = 0;
+        while (start < data.length) {
+            int end = Math.min(data.length, start + chunkSize);
+            while (end < data.length && data[end - 1] != '\n') {
+                end++;
+            }
+            chunks.add(new int[]{start, end});
+            start = end;
+        }
+
+        return chunks;
+    }
+
+    private static ParsedChunk parseChunk(byte[] data, int start, int end) {
+        ParsedChunk chunk = new ParsedChunk();
+        String text = new String(data, start, end - start, StandardCharsets.UTF_8);
+
+        int lineStart = 0;
+        while (lineStart < text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            String line = text.substring(lineStart, lineEnd);
+            lineStart = lineEnd + 1;
+
+            if (line.startsWith(SEQUENCE_PREFIX)) {
+                chunk.sequence = Long.parseLong(line.substring(SEQUENCE_PREFIX.length()));
+            } else if (!line.isBlank() && !line.startsWith("id")) {
+                chunk.tasks.add(fromString(line));
+            }
+        }
+
+        return chunk;
     }
 
     /**
      * Сохраняет текущее состояние задач в файл.
      * <p>
-     * Сохраняет задачи, эпики и подзадачи в формате CSV.
+     * Сохраняет задачи, эпики и подзадачи в формате менеджера. В двоичном снимке задачи и подзадачи
+     * записываются в порядке индекса приоритетов, поэтому при загрузке он строится без сортировки
+     * (см. {@link PrioritizedTaskIndex#addAll}).
      * @throws ManagerSaveException Если произошла ошибка при сохранении данных в файл.
      */
     protected void save() {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
-            Map<Integer, Task> sortedTaskMap = new TreeMap<>(tasksMap);
-            sortedTaskMap.putAll(epicsMap);
-            sortedTaskMap.putAll(subtasksMap);
-
-            if (sortedTaskMap.isEmpty()) {
-                bw.write("");
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            if (format == SnapshotFormat.BINARY) {
+                BinarySnapshotCodec.write(out, 0, epicsMap.values(), getTasksInPriorityOrder());
             } else {
-                String header = "id,type,name,status,description,startTime,duration,epic\n";
-                bw.write(header);
-            }
-
-            for (Task task : sortedTaskMap.values()) {
-                bw.write(task + "\n");
+                writeSnapshot(out, 0, tasksMap.values(), epicsMap.values(), subtasksMap.values());
             }
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка сохранения задачи в файл");
         }
     }
 
+    /**
+     * Возвращает задачи и подзадачи: сначала из индекса приоритетов в порядке (время начала, id),
+     * затем без времени начала.
+     */
+    private List<Task> getTasksInPriorityOrder() {
+        List<Task> ordered = new ArrayList<>(tasksMap.size() + subtasksMap.size());
+        prioritizedTasks.forEach(ordered::add);
+        for (Task task : tasksMap.values()) {
+            if (task.getStartTime() == null) {
+                ordered.add(task);
+            }
+        }
+        for (Subtask subtask : subtasksMap.values()) {
+            if (subtask.getStartTime() == null) {
+                ordered.add(subtask);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Записывает переданные задачи, эпики и подзадачи в формате менеджера ({@link #format}).
+     * Не обращается к состоянию менеджера, поэтому может выполняться в другом потоке над снимками списков.
+     * @param sequence Номер последней записи журнала изменений, учтённой в снимке; {@code 0} — без журнала.
+     */
+    protected void writeSnapshot(OutputStream out, long sequence, Collection<? extends Task> tasks,
+                                 Collection<? extends Task> epics, Collection<? extends Task> subtasks)
+            throws IOException {
+        if (format == SnapshotFormat.BINARY) {
+            BinarySnapshotCodec.write(out, sequence, tasks, epics, subtasks);
+            return;
+        }
+
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeSnapshot(writer, sequence, tasks, epics, subtasks);
+        writer.flush();
+    }
+
+    /**
+     * Записывает все задачи, эпики и подзадачи в формате CSV в порядке возрастания id.
+     * @param sequence Номер последней записи журнала изменений, учтённой в снимке; {@code 0} — без журнала.
+     */
+    protected void writeSnapshot(Writer writer, long sequence) throws IOException {
+        writeSnapshot(writer, sequence, tasksMap.values(), epicsMap.values(), subtasksMap.values());
+    }
+
+    /**
+     * Записывает переданные задачи, эпики и подзадачи в формате CSV в порядке возрастания id.
+     * Не обращается к состоянию менеджера, поэтому может выполняться в другом потоке над снимками списков.
+     * @param sequence Номер последней записи журнала изменений, учтённой в снимке; {@code 0} — без журнала.
+     */
+    protected static void writeSnapshot(Writer writer, long sequence, Collection<? extends Task> tasks,
+                                        Collection<? extends Task> epics, Collection<? extends Task> subtasks)
+            throws IOException {
+        List<Task> sortedTasks = new ArrayList<>(tasks.size() + epics.size() + subtasks.size());
+        sortedTasks.addAll(tasks);
+        sortedTasks.addAll(epics);
+        sortedTasks.addAll(subtasks);
+        sortedTasks.sort(Comparator.comparingInt(Task::getId));
+
+        if (sequence > 0) {
+            writer.write(SEQUENCE_PREFIX + sequence + "\n");
+        }
+        if (sortedTasks.isEmpty()) {
+            writer.write("");
+        } else {
+            String header = "id,type,name,status,description,startTime,duration,epic\n";
+            writer.write(header);
+        }
+
+        for (Task task : sortedTasks) {
+            writer.write(task + "\n");
+        }
+    }
+
     /**
      * Создает задачу из строки в формате CSV.
      * @param value Строка, содержащая данные о задаче в формате CSV.
-     * @return Созданная задача.
+     * @return Созданная задача с id из строки.
      */
-    private static Task fromString(String value) {
+    protected static Task fromString(String value) {
         String[] parts = value.split(",");
+        Task task = fromParts(parts);
+        task.setId(Integer.parseInt(parts[0]));
+        return task;
+    }
 
+    private static Task fromParts(String[] parts) {
         if (TaskType.EPIC.name().equals(parts[1])) {
             return new Epic(parts[2], parts[4], TaskStatus.valueOf(parts[3]));
         }
@@ -223,4 +568,12 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         return new Task(parts[2], parts[4], TaskStatus.valueOf(parts[3]), startTime, duration);
     }
 
+    /**
+     * Задачи, разобранные из одной части файла.
+     */
+    private static class ParsedChunk {
+        final List<Task> tasks = new ArrayList<>();
+        long sequence;
+    }
+
 }
@@ -10,6 +10,9 @@ import java.util.*;
  * <p>
  * Использует двусвязный список для хранения задач в порядке их просмотра и HashMap для быстрого доступа к узлам списка.
  * Добавление и удаление задач работает за O(1).
+ * <p>
+ * Публичные методы синхронизированы: история изменяется при каждом чтении задачи по id,
+ * поэтому может обновляться из нескольких потоков одновременно (см. {@link ConcurrentTaskManager}).
  */
 public class InMemoryHistoryManager implements HistoryManager {
     /**
@@ -27,7 +30,7 @@ public class InMemoryHistoryManager implements HistoryManager {
      * @param task Задача, которую необходимо добавить в историю.
      */
     @Override
-    public void add(Task task) {
+    public synchronized void add(Task task) {
         if (nodeMap.containsKey(task.getId())) {
             Node node = nodeMap.get(task.getId());
             removeNode(node);
@@ -41,7 +44,7 @@ public class InMemoryHistoryManager implements HistoryManager {
      * @param id Идентификатор задачи, которую необходимо удалить из истории.
      */
     @Override
-    public void remove(int id) {
+    public synchronized void remove(int id) {
         if (nodeMap.containsKey(id)) {
             Node node = nodeMap.remove(id);
             removeNode(node);
@@ -53,7 +56,7 @@ public class InMemoryHistoryManager implements HistoryManager {
      * @return Список задач в порядке их просмотра, от самой старой к самой новой.
      */
     @Override
-    public List<Task> getHistory() {
+    public synchronized List<Task> getHistory() {
         return getTasks();
     }
 
@@ -1,7 +1,14 @@
 package ru.yandex.practicum.task.managers;
 
+import ru.yandex.practicum.task.enums.TaskType;
 import ru.yandex.practicum.task.error.NotFoundException;
 import ru.yandex.practicum.task.error.TimeIntersectedException;
+import ru.yandex.practicum.task.index.IntHashSet;
+import ru.yandex.practicum.task.index.IntObjectHashMap;
+import ru.yandex.practicum.task.index.OrderedIntObjectHashMap;
+import ru.yandex.practicum.task.index.PrioritizedTaskIndex;
+import ru.yandex.practicum.task.index.SnapshotView;
+import ru.yandex.practicum.task.index.SortedIntSet;
 import ru.yandex.practicum.task.interfaces.HistoryManager;
 import ru.yandex.practicum.task.interfaces.TaskManager;
 import ru.yandex.practicum.task.tasks.Epic;
@@ -9,16 +16,31 @@ import ru.yandex.practicum.task.tasks.Subtask;
 import ru.yandex.practicum.task.tasks.Task;
 import ru.yandex.practicum.task.utils.TaskManagerUtil;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class InMemoryTaskManager implements TaskManager {
-    protected final Map<Integer, Task> tasksMap = new HashMap<>();
-    protected final Map<Integer, Epic> epicsMap = new HashMap<>();
-    protected final Map<Integer, Subtask> subtasksMap = new HashMap<>();
-    protected final Set<Task> prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+    protected final OrderedIntObjectHashMap<Task> tasksMap = new OrderedIntObjectHashMap<>();
+    protected final OrderedIntObjectHashMap<Epic> epicsMap = new OrderedIntObjectHashMap<>();
+    protected final OrderedIntObjectHashMap<Subtask> subtasksMap = new OrderedIntObjectHashMap<>();
+    /**
+     * Задачи и подзадачи с заданным временем начала: порядок по времени и проверка пересечений.
+     */
+    protected final PrioritizedTaskIndex prioritizedTasks = new PrioritizedTaskIndex();
+    /**
+     * Неизменяемые снимки списков задач, общие для всех читателей до следующего изменения.
+     */
+    private final SnapshotView<Task> tasksSnapshot = new SnapshotView<>(tasksMap);
+    private final SnapshotView<Epic> epicsSnapshot = new SnapshotView<>(epicsMap);
+    private final SnapshotView<Subtask> subtasksSnapshot = new SnapshotView<>(subtasksMap);
     protected int lastTaskId = 0;
     private final HistoryManager historyManager = Managers.getDefaultHistory();
+    /**
+     * Счётчик изменений: его текущим значением помечаются изменённые списки и задачи (см. {@link #getVersion}).
+     */
+    private long modCount;
+    private final long[] typeVersions = new long[TaskType.values().length];
+    private final IntObjectHashMap<Long> entityVersions = new IntObjectHashMap<>();
 
     @Override
     public Task createTask(Task task) {
@@ -29,10 +51,8 @@ public class InMemoryTaskManager implements TaskManager {
         task.setId(++lastTaskId);
         Task newTask = TaskManagerUtil.getCopyTask(task);
         tasksMap.put(newTask.getId(), newTask);
-
-        if (newTask.getStartTime() != null) {
-            prioritizedTasks.add(newTask);
-        }
+        prioritizedTasks.add(newTask);
+        markChanged(TaskType.TASK, newTask.getId());
 
         return task;
     }
@@ -42,6 +62,7 @@ public class InMemoryTaskManager implements TaskManager {
         epic.setId(++lastTaskId);
         Epic newEpic = TaskManagerUtil.getCopyTask(epic);
         epicsMap.put(newEpic.getId(), newEpic);
+        markChanged(TaskType.EPIC, newEpic.getId());
         return epic;
     }
 
@@ -54,14 +75,13 @@ public class InMemoryTaskManager implements TaskManager {
         subtask.setId(++lastTaskId);
         Subtask newSubtask = TaskManagerUtil.getCopyTask(subtask);
         subtasksMap.put(newSubtask.getId(), newSubtask);
-
-        if (newSubtask.getStartTime() != null) {
-            prioritizedTasks.add(newSubtask);
-        }
+        prioritizedTasks.add(newSubtask);
 
         Epic epic = epicsMap.get(subtask.getEpicId());
         epic.addSubtaskId(newSubtask.getId());
-        epic.calculateState(getSubtasksByEpic(epic));
+        epic.addSubtask(newSubtask);
+        markChanged(TaskType.SUBTASK, newSubtask.getId());
+        markChanged(TaskType.EPIC, epic.getId());
 
         return subtask;
     }
@@ -71,10 +91,12 @@ public class InMemoryTaskManager implements TaskManager {
         if (isTimeIntersected(task)) {
             throw new TimeIntersectedException(task.getId());
         }
-        updateOrRemovePrioritizedTask(task);
 
         Task newTask = TaskManagerUtil.getCopyTask(task);
         tasksMap.put(newTask.getId(), newTask);
+        prioritizedTasks.remove(newTask.getId());
+        prioritizedTasks.add(newTask);
+        markChanged(TaskType.TASK, newTask.getId());
 
         return task;
     }
@@ -82,19 +104,15 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public Epic updateEpic(Epic epic) {
         Epic newEpic = TaskManagerUtil.getCopyTask(epic);
+        Epic storedEpic = epicsMap.get(newEpic.getId());
 
-        subtasksMap.values().stream()
-                .filter(t -> t.getEpicId() == newEpic.getId())
-                .forEach(t -> {
-                    epic.addSubtaskId(t.getId());
-                    newEpic.addSubtaskId(t.getId());
-                });
-
-        List<Subtask> subtasks = getSubtasksByEpic(newEpic);
-        epic.calculateState(subtasks);
-        newEpic.calculateState(subtasks);
+        if (storedEpic != null) {
+            newEpic.copyStateFrom(storedEpic);
+        }
+        epic.copyStateFrom(newEpic);
 
         epicsMap.put(newEpic.getId(), newEpic);
+        markChanged(TaskType.EPIC, newEpic.getId());
 
         return epic;
     }
@@ -107,30 +125,56 @@ public class InMemoryTaskManager implements TaskManager {
         Subtask updatedSubtask = null;
         Epic epic = epicsMap.get(subtask.getEpicId());
         if (epic != null) {
-            updateOrRemovePrioritizedTask(subtask);
-
             Subtask newSubtask = TaskManagerUtil.getCopyTask(subtask);
-            subtasksMap.put(newSubtask.getId(), newSubtask);
+            Subtask previousSubtask = subtasksMap.put(newSubtask.getId(), newSubtask);
+            prioritizedTasks.remove(newSubtask.getId());
+            prioritizedTasks.add(newSubtask);
             updatedSubtask = subtask;
 
-            epic.calculateState(getSubtasksByEpic(epic));
+            if (previousSubtask == subtask) {
+                // Передан сохранённый экземпляр, изменённый снаружи: его прежние значения неизвестны.
+                epic.calculateState(getSubtasksByEpic(epic));
+            } else {
+                updateEpicState(epic, previousSubtask, newSubtask);
+            }
+            markChanged(TaskType.SUBTASK, newSubtask.getId());
+            markChanged(TaskType.EPIC, epic.getId());
+            if (previousSubtask != null && previousSubtask.getEpicId() != epic.getId()
+                    && epicsMap.containsKey(previousSubtask.getEpicId())) {
+                markChanged(TaskType.EPIC, previousSubtask.getEpicId());
+            }
         }
         return updatedSubtask;
     }
 
     @Override
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasksMap.values());
+        return tasksSnapshot.get();
     }
 
     @Override
     public List<Epic> getAllEpics() {
-        return new ArrayList<>(epicsMap.values());
+        return epicsSnapshot.get();
     }
 
     @Override
     public List<Subtask> getAllSubtasks() {
-        return new ArrayList<>(subtasksMap.values());
+        return subtasksSnapshot.get();
+    }
+
+    @Override
+    public List<Task> getTasks(int afterId, int limit) {
+        return tasksMap.page(afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getEpics(int afterId, int limit) {
+        return epicsMap.page(afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasks(int afterId, int limit) {
+        return subtasksMap.page(afterId, limit);
     }
 
     @Override
@@ -165,31 +209,42 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteAllTasks() {
-        prioritizedTasks.removeAll(tasksMap.values());
+        IntHashSet ids = getIds(tasksMap.values());
+        prioritizedTasks.removeAll(ids);
         tasksMap.clear();
+        ids.forEach(id -> markRemoved(TaskType.TASK, id));
+        markChanged(TaskType.TASK);
     }
 
     @Override
     public void deleteAllEpics() {
         deleteAllSubtasks();
+        epicsMap.values().forEach(epic -> markRemoved(TaskType.EPIC, epic.getId()));
         epicsMap.clear();
+        markChanged(TaskType.EPIC);
     }
 
     @Override
     public void deleteAllSubtasks() {
-        prioritizedTasks.removeAll(subtasksMap.values());
+        IntHashSet ids = getIds(subtasksMap.values());
+        prioritizedTasks.removeAll(ids);
         subtasksMap.clear();
+        epicsMap.values().forEach(Epic::clearSubtasks);
+        ids.forEach(id -> markRemoved(TaskType.SUBTASK, id));
+        markChanged(TaskType.SUBTASK);
+        epicsMap.values().forEach(epic -> markChanged(TaskType.EPIC, epic.getId()));
     }
 
     @Override
     public Task deleteTask(int id) {
-        prioritizedTasks.removeIf(t -> t.getId() == id);
+        prioritizedTasks.remove(id);
         historyManager.remove(id);
         Task removed = tasksMap.remove(id);
 
         if (removed == null) {
             throw new NotFoundException(String.valueOf(id));
         }
+        markRemoved(TaskType.TASK, id);
 
         return removed;
     }
@@ -200,11 +255,13 @@ public class InMemoryTaskManager implements TaskManager {
 
         if (removedEpic != null) {
             historyManager.remove(id);
-            for (Integer subtaskId : removedEpic.getSubtaskIds()) {
-                prioritizedTasks.removeIf(t -> subtaskId.equals(t.getId()));
+            removedEpic.getSubtaskIds().forEach(subtaskId -> {
+                prioritizedTasks.remove(subtaskId);
                 historyManager.remove(subtaskId);
                 subtasksMap.remove(subtaskId);
-            }
+                markRemoved(TaskType.SUBTASK, subtaskId);
+            });
+            markRemoved(TaskType.EPIC, id);
         } else {
             throw new NotFoundException(String.valueOf(id));
         }
@@ -217,15 +274,18 @@ public class InMemoryTaskManager implements TaskManager {
         Subtask removedSubtask = subtasksMap.remove(id);
 
         if (removedSubtask != null) {
-            prioritizedTasks.removeIf(t -> t.getId() == id);
+            prioritizedTasks.remove(id);
             historyManager.remove(id);
             Epic epic = epicsMap.get(removedSubtask.getEpicId());
             epic.removeSubtaskId(removedSubtask.getId());
+            epic.removeSubtask(removedSubtask);
+            markRemoved(TaskType.SUBTASK, id);
             if (epic.getSubtaskIds().isEmpty()) {
                 historyManager.remove(epic.getId());
                 epicsMap.remove(epic.getId());
+                markRemoved(TaskType.EPIC, epic.getId());
             } else {
-                epic.calculateState(getSubtasksByEpic(epic));
+                markChanged(TaskType.EPIC, epic.getId());
             }
         } else {
             throw new NotFoundException(String.valueOf(id));
@@ -241,34 +301,101 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public Set<Task> getPrioritizedTasks() {
-        return prioritizedTasks;
+        return prioritizedTasks.asSet();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime afterStartTime, int afterId, int limit) {
+        return prioritizedTasks.page(afterStartTime, afterId, limit);
+    }
+
+    @Override
+    public long getVersion(TaskType type) {
+        return typeVersions[type.ordinal()];
+    }
+
+    @Override
+    public long getVersion(int id) {
+        Long version = entityVersions.get(id);
+        if (version != null) {
+            return version;
+        }
+        // Загруженные из файла задачи ещё не менялись.
+        return tasksMap.containsKey(id) || epicsMap.containsKey(id) || subtasksMap.containsKey(id) ? 0 : -1;
+    }
+
+    @Override
+    public TaskType getType(int id) {
+        if (tasksMap.containsKey(id)) {
+            return TaskType.TASK;
+        }
+        if (epicsMap.containsKey(id)) {
+            return TaskType.EPIC;
+        }
+        return subtasksMap.containsKey(id) ? TaskType.SUBTASK : null;
     }
 
     @Override
     public List<Subtask> getSubtasksByEpic(Epic epic) {
-        return epic.getSubtaskIds().stream()
-                .map(subtasksMap::get)
-                .collect(Collectors.toList());
+        Epic storedEpic = epic.getId() != null ? epicsMap.get(epic.getId()) : null;
+        SortedIntSet subtaskIds = (storedEpic != null ? storedEpic : epic).getSubtaskIds();
+        List<Subtask> subtasks = new ArrayList<>(subtaskIds.size());
+
+        // Id выдаются по возрастанию, поэтому подзадачи возвращаются в порядке создания.
+        subtaskIds.forEach(id -> subtasks.add(subtasksMap.get(id)));
+
+        return subtasks;
     }
 
-    private void updateOrRemovePrioritizedTask(Task task) {
-        if (task.getStartTime() == null) {
-            prioritizedTasks.remove(task);
+    /**
+     * Обновляет состояние эпиков после изменения подзадачи, не пересчитывая все их подзадачи.
+     * @param epic Эпик, к которому относится обновлённая подзадача.
+     * @param previous Предыдущая сохранённая версия подзадачи или {@code null}, если её не было.
+     * @param updated Новая сохранённая версия подзадачи.
+     */
+    private void updateEpicState(Epic epic, Subtask previous, Subtask updated) {
+        if (previous == null) {
+            epic.addSubtaskId(updated.getId());
+            epic.addSubtask(updated);
+        } else if (previous.getEpicId() != updated.getEpicId()) {
+            Epic previousEpic = epicsMap.get(previous.getEpicId());
+            if (previousEpic != null) {
+                previousEpic.removeSubtaskId(previous.getId());
+                previousEpic.removeSubtask(previous);
+            }
+            epic.addSubtaskId(updated.getId());
+            epic.addSubtask(updated);
         } else {
-            prioritizedTasks.stream()
-                    .filter(t -> t.equals(task))
-                    .forEach(t -> {
-                        t.setName(task.getName());
-                        t.setDescription(task.getDescription());
-                        t.setStatus(task.getStatus());
-                        t.setStartTime(task.getStartTime());
-                        t.setDuration(task.getDuration());
-                    });
+            epic.replaceSubtask(previous, updated);
         }
     }
 
+    private void markChanged(TaskType type) {
+        typeVersions[type.ordinal()] = ++modCount;
+    }
+
+    private void markChanged(TaskType type, int id) {
+        markChanged(type);
+        entityVersions.put(id, modCount);
+    }
+
+    private void markRemoved(TaskType type, int id) {
+        markChanged(type);
+        entityVersions.remove(id);
+    }
+
+    private static IntHashSet getIds(Collection<? extends Task> tasks) {
+        IntHashSet ids = new IntHashSet();
+        tasks.forEach(task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    /**
+     * Проверяет пересечение задачи по времени с уже сохранёнными задачами и подзадачами.
+     * Сама задача (с тем же id) при проверке не учитывается.
+     */
     private boolean isTimeIntersected(Task task) {
-        return TaskManagerUtil.isTimeIntersected(task, prioritizedTasks);
+        return prioritizedTasks.hasTimeIntersection(task);
     }
 
 }
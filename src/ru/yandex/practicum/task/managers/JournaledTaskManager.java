@@ -0,0 +1,359 @@
+package ru.yandex.practicum.task.managers;
+
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.error.NotFoundException;
+import ru.yandex.practicum.task.interfaces.GroupCommitStore;
+import ru.yandex.practicum.task.storage.CompactionPolicy;
+import ru.yandex.practicum.task.storage.Durability;
+import ru.yandex.practicum.task.storage.MutationLog;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+import ru.yandex.practicum.task.utils.TaskManagerUtil;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Менеджер задач с журналом изменений.
+ * <p>
+ * В отличие от {@link FileBackedTaskManager}, который при каждом изменении переписывает весь файл,
+ * дописывает в журнал ({@link MutationLog}) одну короткую запись об изменении:
+ * <ul>
+ *     <li>{@code PUT,<задача в формате CSV>} — создание или обновление;</li>
+ *     <li>{@code DEL,<тип>,<id>} — удаление по id (вместе с каскадом, который повторяется при восстановлении);</li>
+ *     <li>{@code CLR,<тип>} — удаление всех задач одного типа.</li>
+ * </ul>
+ * Когда журнал достигает порогов {@link CompactionPolicy}, текущий файл журнала закрывается как сегмент,
+ * а полный снимок данных записывается в фоновом потоке по копиям задач, снятым при закрытии сегмента,
+ * поэтому изменения не ждут записи снимка. Снимок пишется во временный файл
+ * и атомарно заменяет прежний, после чего учтённые в нём сегменты журнала удаляются. При запуске загружается
+ * снимок и применяются записи журнала, ещё не учтённые в нём.
+ * <p>
+ * Надёжность записи задаётся {@link Durability}. Сам по себе менеджер возвращает управление из изменяющей операции,
+ * только когда её запись надёжно сохранена. Под {@link ConcurrentTaskManager} ожидание выполняется после снятия
+ * блокировки (см. {@link GroupCommitStore}), и в режиме {@link Durability#GROUP} записи параллельных клиентов
+ * фиксируются одним {@code fsync}.
+ * <p>
+ * Журнал хранится рядом со снимком в файле с суффиксом {@code .log}.
+ * Изменения должны выполняться последовательно (например, через {@link ConcurrentTaskManager}).
+ */
+public class JournaledTaskManager extends FileBackedTaskManager implements Closeable, GroupCommitStore {
+    public static final Durability DEFAULT_DURABILITY = Durability.OS_BUFFERED;
+    public static final long DEFAULT_GROUP_COMMIT_MILLIS = 0;
+
+    private final CompactionPolicy policy;
+    private final Durability durability;
+    private final long groupCommitMillis;
+    private volatile boolean deferDurabilityWaits;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private ExecutorService compactor;
+    private MutationLog log;
+    private boolean replaying;
+
+    JournaledTaskManager(File file, CompactionPolicy policy, Durability durability, long groupCommitMillis) {
+        super(file);
+        this.policy = policy;
+        this.durability = durability;
+        this.groupCommitMillis = groupCommitMillis;
+    }
+
+    /**
+     * Открывает менеджер с настройками из системных свойств: пороги снимка
+     * (см. {@link CompactionPolicy#fromSystemProperties()}), {@code kanban.storage.durability}
+     * ({@code OS_BUFFERED}, {@code GROUP}, {@code SYNC}) и {@code kanban.storage.groupCommitMillis}.
+     * @see #open(File, CompactionPolicy, Durability, long)
+     */
+    public static JournaledTaskManager open(File file) {
+        return open(file, CompactionPolicy.fromSystemProperties(),
+                Durability.valueOf(System.getProperty("kanban.storage.durability", DEFAULT_DURABILITY.name())),
+                Long.getLong("kanban.storage.groupCommitMillis", DEFAULT_GROUP_COMMIT_MILLIS));
+    }
+
+    /**
+     * Открывает менеджер с записью без {@code fsync} ({@link Durability#OS_BUFFERED}).
+     * @see #open(File, CompactionPolicy, Durability, long)
+     */
+    public static JournaledTaskManager open(File file, CompactionPolicy policy) {
+        return open(file, policy, DEFAULT_DURABILITY, DEFAULT_GROUP_COMMIT_MILLIS);
+    }
+
+    /**
+     * Открывает менеджер: загружает снимок из файла и применяет записи журнала.
+     * @param file Файл снимка; журнал хранится в файле с тем же именем и суффиксом {@code .log}.
+     * @param policy Пороги записи снимка.
+     * @param durability Уровень надёжности записи.
+     * @param groupCommitMillis Интервал групповой фиксации для {@link Durability#GROUP}.
+     * @throws ManagerSaveException Если журнал не удалось прочитать или открыть.
+     */
+    public static JournaledTaskManager open(File file, CompactionPolicy policy, Durability durability,
+                                           long groupCommitMillis) {
+        return load(new JournaledTaskManager(file, policy, durability, groupCommitMillis));
+    }
+
+    /**
+     * Загружает в созданный менеджер снимок из его файла и применяет записи журнала.
+     * @throws ManagerSaveException Если журнал не удалось прочитать или открыть.
+     */
+    static JournaledTaskManager load(JournaledTaskManager manager) {
+        long sequence = manager.file.exists() ? manager.loadSnapshot() : 0;
+
+        manager.replaying = true;
+        try {
+            manager.log = MutationLog.open(getLogPath(manager.file), sequence, manager::apply, manager.durability,
+                    manager.groupCommitMillis);
+        } finally {
+            manager.replaying = false;
+        }
+
+        return manager;
+    }
+
+    /**
+     * Синхронно записывает текущее состояние в файл снимка и удаляет учтённые в нём сегменты журнала.
+     * Если в этот момент снимок пишется в фоне, сначала дожидается его завершения.
+     * @throws ManagerSaveException Если снимок не удалось записать.
+     */
+    public void checkpoint() {
+        awaitCompaction();
+        compacting.set(true);
+        try {
+            long sequence = log.rotate();
+            writeSnapshotFile(sequence, tasksMap.values(), epicsMap.values(), subtasksMap.values());
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * Дожидается завершения записи снимка в фоне, если она идёт.
+     */
+    public void awaitCompaction() {
+        if (compactor == null) {
+            return;
+        }
+        try {
+            compactor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    protected void save() {
+        checkpoint();
+    }
+
+    @Override
+    public void deferDurabilityWaits() {
+        deferDurabilityWaits = true;
+    }
+
+    @Override
+    public long getLastSequence() {
+        return log.getLastSequence();
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        log.awaitDurable(sequence);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.close();
+    }
+
+    @Override
+    protected void onPut(Task task) {
+        append("PUT," + task);
+    }
+
+    @Override
+    protected void onDelete(TaskType type, int id) {
+        append("DEL," + type + "," + id);
+    }
+
+    @Override
+    protected void onDeleteAll(TaskType type) {
+        append("CLR," + type);
+    }
+
+    static Path getLogPath(File file) {
+        return file.toPath().resolveSibling(file.getName() + ".log");
+    }
+
+    private void append(String record) {
+        if (replaying) {
+            return;
+        }
+
+        long sequence = log.append(record);
+        if (!deferDurabilityWaits) {
+            log.awaitDurable(sequence);
+        }
+
+        if (policy.shouldCompact(log.getRecordCount(), log.getSize())) {
+            compact();
+        }
+    }
+
+    /**
+     * Закрывает текущий сегмент журнала и записывает снимок по копиям задач —
+     * в фоне или сразу, в зависимости от {@link CompactionPolicy#isBackground()}.
+     * Если предыдущий снимок ещё пишется, ничего не делает: журнал будет перенесён следующим снимком.
+     */
+    private void compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+
+        long sequence;
+        List<Task> tasks;
+        List<Epic> epics;
+        List<Subtask> subtasks;
+        try {
+            sequence = log.rotate();
+            // Снимок пишется в другом потоке, а эпики (и задачи, полученные снаружи) изменяются на месте,
+            // поэтому в него передаются копии, снятые до следующего изменения.
+            tasks = TaskManagerUtil.getCopyTasks(getAllTasks());
+            epics = TaskManagerUtil.getCopyTasks(getAllEpics());
+            subtasks = TaskManagerUtil.getCopyTasks(getAllSubtasks());
+        } catch (RuntimeException e) {
+            compacting.set(false);
+            throw e;
+        }
+
+        Runnable write = () -> {
+            try {
+                writeSnapshotFile(sequence, tasks, epics, subtasks);
+            } catch (ManagerSaveException e) {
+                System.out.println(e.getMessage());
+            } finally {
+                compacting.set(false);
+            }
+        };
+
+        if (policy.isBackground()) {
+            getCompactor().execute(write);
+        } else {
+            write.run();
+        }
+    }
+
+    private void writeSnapshotFile(long sequence, Collection<? extends Task> tasks,
+                                   Collection<? extends Task> epics, Collection<? extends Task> subtasks) {
+        Path snapshot = file.toPath();
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+                writeSnapshot(writer, sequence, tasks, epics, subtasks);
+                writer.flush();
+                if (durability != Durability.OS_BUFFERED) {
+                    channel.force(true);
+                }
+            }
+            moveSnapshot(temp, snapshot);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения снимка задач в файл");
+        }
+
+        log.deleteSegmentsUpTo(sequence);
+    }
+
+    /**
+     * Атомарно заменяет прежний снимок записанным временным файлом.
+     */
+    void moveSnapshot(Path temp, Path snapshot) throws IOException {
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private ExecutorService getCompactor() {
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "task-snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return compactor;
+    }
+
+    /**
+     * Применяет запись журнала при восстановлении.
+     * <p>
+     * Записи могут повторно применяться к снимку, в котором они уже учтены (при сбое между записью снимка
+     * и удалением сегментов журнала), поэтому удаление отсутствующей задачи пропускается.
+     */
+    private void apply(String record) {
+        int separator = record.indexOf(',');
+        String operation = record.substring(0, separator);
+        String data = record.substring(separator + 1);
+
+        switch (operation) {
+            case "PUT" -> {
+                Task task = fromString(data);
+                lastTaskId = Math.max(lastTaskId, task.getId());
+                if (task instanceof Epic) {
+                    updateEpic((Epic) task);
+                } else if (task instanceof Subtask) {
+                    updateSubtask((Subtask) task);
+                } else {
+                    updateTask(task);
+                }
+            }
+            case "DEL" -> {
+                String[] parts = data.split(",");
+                int id = Integer.parseInt(parts[1]);
+                try {
+                    switch (TaskType.valueOf(parts[0])) {
+                        case TASK -> deleteTask(id);
+                        case EPIC -> deleteEpic(id);
+                        case SUBTASK -> deleteSubtask(id);
+                    }
+                } catch (NotFoundException e) {
+                    // Задача уже удалена в снимке.
+                }
+            }
+            case "CLR" -> {
+                switch (TaskType.valueOf(data)) {
+                    case TASK -> deleteAllTasks();
+                    case EPIC -> deleteAllEpics();
+                    case SUBTASK -> deleteAllSubtasks();
+                }
+            }
+            default -> throw new IllegalArgumentException("Неизвестная запись журнала: " + record);
+        }
+    }
+
+}
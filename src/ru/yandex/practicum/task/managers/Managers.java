@@ -2,14 +2,67 @@ package ru.yandex.practicum.task.managers;
 
 import ru.yandex.practicum.task.interfaces.HistoryManager;
 import ru.yandex.practicum.task.interfaces.TaskManager;
+import ru.yandex.practicum.task.storage.SnapshotFormat;
 
 import java.io.File;
 
 public class Managers {
     public static File FILE = new File("resources/tasks.txt");
+    public static File BINARY_FILE = new File("resources/tasks.bin");
+    public static File MAPPED_FILE = new File("resources/tasks.dat");
+    public static File SEGMENTS_DIRECTORY = new File("resources/tasks");
 
+    /**
+     * Возвращает менеджер, сохраняющий задачи в формате из системного свойства {@code kanban.storage.format}
+     * ({@code CSV} по умолчанию или {@code BINARY}).
+     */
     public static FileBackedTaskManager getDefault() {
-        return new FileBackedTaskManager(FILE);
+        return getDefault(SnapshotFormat.valueOf(System.getProperty("kanban.storage.format", SnapshotFormat.CSV.name())));
+    }
+
+    /**
+     * Возвращает менеджер, сохраняющий задачи в {@link #FILE} в формате CSV или в {@link #BINARY_FILE}
+     * в двоичном формате.
+     */
+    public static FileBackedTaskManager getDefault(SnapshotFormat format) {
+        return new FileBackedTaskManager(getFile(format), format);
+    }
+
+    public static File getFile(SnapshotFormat format) {
+        return format == SnapshotFormat.BINARY ? BINARY_FILE : FILE;
+    }
+
+    /**
+     * Возвращает менеджер, который сохраняет изменения в журнал рядом с {@link #FILE}
+     * вместо перезаписи всего файла (см. {@link JournaledTaskManager}).
+     */
+    public static JournaledTaskManager getDefaultJournaled() {
+        return JournaledTaskManager.open(FILE);
+    }
+
+    /**
+     * Возвращает менеджер, который записывает {@link #FILE} в фоне не чаще одного раза за интервал
+     * {@code kanban.storage.flushMillis} (см. {@link AsyncFileBackedTaskManager}).
+     */
+    public static AsyncFileBackedTaskManager getDefaultAsync() {
+        return AsyncFileBackedTaskManager.create(FILE, Long.getLong("kanban.storage.flushMillis",
+                AsyncFileBackedTaskManager.DEFAULT_FLUSH_INTERVAL_MILLIS));
+    }
+
+    /**
+     * Возвращает менеджер, который хранит задачи в отображённом в память файле {@link #MAPPED_FILE}
+     * и перезаписывает при изменении только запись изменённой задачи (см. {@link MappedTaskManager}).
+     */
+    public static MappedTaskManager getDefaultMapped() {
+        return MappedTaskManager.open(MAPPED_FILE);
+    }
+
+    /**
+     * Возвращает менеджер, который хранит задачи в сегментах каталога {@link #SEGMENTS_DIRECTORY}
+     * и при изменении переписывает только изменённые сегменты (см. {@link SegmentedFileBackedTaskManager}).
+     */
+    public static SegmentedFileBackedTaskManager getDefaultSegmented() {
+        return SegmentedFileBackedTaskManager.open(SEGMENTS_DIRECTORY);
     }
 
     public static HistoryManager getDefaultHistory() {
@@ -20,4 +73,8 @@ public class Managers {
         return new InMemoryTaskManager();
     }
 
+    public static TaskManager getDefaultConcurrent() {
+        return new ConcurrentTaskManager(getDefault());
+    }
+
 }
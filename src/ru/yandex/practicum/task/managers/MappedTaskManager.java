@@ -0,0 +1,183 @@
+package ru.yandex.practicum.task.managers;
+
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.storage.MappedTaskStore;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Менеджер задач, который хранит задачи в файле записей фиксированного размера, отображённом в память
+ * (см. {@link MappedTaskStore}).
+ * <p>
+ * В отличие от {@link FileBackedTaskManager}, изменение задачи перезаписывает только её запись, а не весь файл,
+ * а при запуске записи читаются из отображённого файла без разбора текста. Статус, время и продолжительность
+ * эпиков не хранятся, а вычисляются по подзадачам при загрузке.
+ * <p>
+ * Изменения сразу видны операционной системе; на диск они гарантированно записываются после {@link #flush()}
+ * или {@link #close()}. Изменения должны выполняться последовательно (например, через {@link ConcurrentTaskManager}).
+ */
+public class MappedTaskManager extends InMemoryTaskManager implements Flushable, Closeable {
+    private MappedTaskStore store;
+
+    private MappedTaskManager() {
+    }
+
+    /**
+     * Открывает менеджер и загружает задачи из хранилища. Если файлов нет, они будут созданы.
+     * @param file Файл записей; строки хранятся рядом в файле с суффиксом {@code .strings}.
+     * @throws ManagerSaveException Если хранилище не удалось открыть.
+     */
+    public static MappedTaskManager open(File file) {
+        MappedTaskManager manager = new MappedTaskManager();
+        List<Task> tasks = new ArrayList<>();
+        List<Subtask> subtasks = new ArrayList<>();
+
+        manager.store = MappedTaskStore.open(file.toPath(), task -> {
+            if (task instanceof Epic) {
+                manager.epicsMap.put(task.getId(), (Epic) task);
+            } else if (task instanceof Subtask) {
+                subtasks.add((Subtask) task);
+            } else {
+                tasks.add(task);
+            }
+        });
+
+        // Записи хранятся в порядке занятия, поэтому эпик может идти после своих подзадач.
+        for (Task task : tasks) {
+            manager.tasksMap.put(task.getId(), task);
+        }
+        for (Subtask subtask : subtasks) {
+            Epic epic = manager.epicsMap.get(subtask.getEpicId());
+            if (epic == null) {
+                // Подзадача без эпика остаётся, если процесс завершился посреди удаления эпика.
+                System.out.println("Подзадача " + subtask.getId() + " пропущена: не найден эпик "
+                        + subtask.getEpicId());
+                manager.store.remove(subtask.getId());
+                continue;
+            }
+            manager.subtasksMap.put(subtask.getId(), subtask);
+            epic.addSubtaskId(subtask.getId());
+            epic.addSubtask(subtask);
+            tasks.add(subtask);
+        }
+        manager.prioritizedTasks.addAll(tasks);
+        manager.lastTaskId = manager.store.getLastId();
+
+        return manager;
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        Task createdTask = super.createTask(task);
+        store.put(createdTask);
+        return createdTask;
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        Epic createdEpic = super.createEpic(epic);
+        store.put(createdEpic);
+        return createdEpic;
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        Subtask createdSubtask = super.createSubtask(subtask);
+        store.put(createdSubtask);
+        return createdSubtask;
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        Task updatedTask = super.updateTask(task);
+        store.put(updatedTask);
+        return updatedTask;
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        Epic updatedEpic = super.updateEpic(epic);
+        store.put(updatedEpic);
+        return updatedEpic;
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        Subtask updatedSubtask = super.updateSubtask(subtask);
+
+        if (updatedSubtask != null) {
+            store.put(updatedSubtask);
+        }
+        return updatedSubtask;
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        super.deleteAllTasks();
+        store.removeAll(TaskType.TASK);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        super.deleteAllEpics();
+        store.removeAll(TaskType.SUBTASK);
+        store.removeAll(TaskType.EPIC);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        super.deleteAllSubtasks();
+        store.removeAll(TaskType.SUBTASK);
+    }
+
+    @Override
+    public Task deleteTask(int id) {
+        Task removedTask = super.deleteTask(id);
+        store.remove(id);
+        return removedTask;
+    }
+
+    @Override
+    public Epic deleteEpic(int id) {
+        Epic removedEpic = super.deleteEpic(id);
+        // Подзадачи удаляются раньше эпика, чтобы после сбоя между записями на диске не осталось подзадач без эпика.
+        removedEpic.getSubtaskIds().forEach(store::remove);
+        store.remove(id);
+        return removedEpic;
+    }
+
+    @Override
+    public Subtask deleteSubtask(int id) {
+        Subtask removedSubtask = super.deleteSubtask(id);
+        store.remove(id);
+        // Эпик без подзадач удаляется вместе с последней из них.
+        if (!epicsMap.containsKey(removedSubtask.getEpicId())) {
+            store.remove(removedSubtask.getEpicId());
+        }
+        return removedSubtask;
+    }
+
+    /**
+     * Записывает изменения хранилища на диск.
+     * @throws ManagerSaveException Если запись не удалась.
+     */
+    @Override
+    public void flush() {
+        store.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+
+}
@@ -0,0 +1,272 @@
+package ru.yandex.practicum.task.managers;
+
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.index.IntHashSet;
+import ru.yandex.practicum.task.index.IntObjectHashMap;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Менеджер задач, который хранит данные в каталоге, разделённом на сегменты.
+ * <p>
+ * Каждый сегмент — отдельный файл CSV {@code <тип>-<номер>.csv} с задачами одного типа, id которых лежат в диапазоне
+ * {@code [номер * segmentSize, (номер + 1) * segmentSize)}. Изменение помечает сегмент изменённым, и {@link #save()}
+ * переписывает только помеченные сегменты (через временный файл с атомарной заменой), а не все задачи, как
+ * {@link FileBackedTaskManager}. Удаление всех задач одного типа удаляет файлы его сегментов без перезаписи.
+ * <p>
+ * Помимо самой задачи помечаются сегменты, которые меняются вместе с ней: эпик подзадачи при её создании,
+ * обновлении и удалении и подзадачи эпика при его удалении. Пустой сегмент удаляется.
+ * <p>
+ * Размер сегмента хранится в каталоге в файле {@code segment-size}: задачи каталога лежат в сегментах одного размера,
+ * поэтому открыть каталог с другим размером нельзя.
+ */
+public class SegmentedFileBackedTaskManager extends FileBackedTaskManager {
+    public static final int DEFAULT_SEGMENT_SIZE = 1024;
+    private static final String SEGMENT_SUFFIX = ".csv";
+    private static final String SEGMENT_SIZE_FILE = "segment-size";
+
+    private final int segmentSize;
+    private final Map<TaskType, IntHashSet> dirtySegments = new EnumMap<>(TaskType.class);
+
+    /**
+     * @param directory Каталог, в котором хранятся сегменты.
+     * @param segmentSize Количество id, которое покрывает один сегмент.
+     */
+    private SegmentedFileBackedTaskManager(File directory, int segmentSize) {
+        super(directory);
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Размер сегмента должен быть положительным: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        for (TaskType type : TaskType.values()) {
+            dirtySegments.put(type, new IntHashSet());
+        }
+    }
+
+    /**
+     * Открывает менеджер с размером сегмента, записанным в каталоге, или {@link #DEFAULT_SEGMENT_SIZE} для нового каталога.
+     * @see #open(File, int)
+     */
+    public static SegmentedFileBackedTaskManager open(File directory) {
+        Integer storedSize = readSegmentSize(directory.toPath());
+        return open(directory, storedSize != null ? storedSize : DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Открывает менеджер и загружает задачи из всех сегментов каталога. Если каталога нет, он создаётся,
+     * а размер сегмента записывается в него.
+     * @param directory Каталог, в котором хранятся сегменты.
+     * @param segmentSize Количество id, которое покрывает один сегмент.
+     * @throws IllegalArgumentException Если каталог записан с другим размером сегмента: задача могла бы оказаться
+     *                                  в сегментах обоих размеров, и удалённая задача вернулась бы при загрузке.
+     * @throws ManagerSaveException Если каталог не удалось создать или прочитать.
+     */
+    public static SegmentedFileBackedTaskManager open(File directory, int segmentSize) {
+        SegmentedFileBackedTaskManager manager = new SegmentedFileBackedTaskManager(directory, segmentSize);
+        Integer storedSize = readSegmentSize(directory.toPath());
+        if (storedSize != null && storedSize != segmentSize) {
+            throw new IllegalArgumentException("Каталог " + directory + " записан с размером сегмента " + storedSize
+                    + ", а открывается с размером " + segmentSize);
+        }
+        List<Task> loadedTasks = new ArrayList<>();
+
+        try {
+            Files.createDirectories(directory.toPath());
+            if (storedSize == null) {
+                writeSegmentSize(directory.toPath(), segmentSize);
+            }
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory.toPath(), "*" + SEGMENT_SUFFIX)) {
+                for (Path segment : segments) {
+                    readCsv(segment, loadedTasks);
+                }
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка чтения сегментов задач из каталога " + directory);
+        }
+
+        // Подзадачи без эпика остаются от прерванного удаления эпика: их сегменты перепишутся без них.
+        manager.bulkLoad(loadedTasks).forEach(orphan -> manager.markDirty(TaskType.SUBTASK, orphan.getId()));
+        return manager;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Возвращает файл сегмента, в котором хранится задача заданного типа с заданным id.
+     */
+    public Path getSegmentPath(TaskType type, int id) {
+        return file.toPath().resolve(type.name().toLowerCase() + "-" + id / segmentSize + SEGMENT_SUFFIX);
+    }
+
+    @Override
+    public Epic deleteEpic(int id) {
+        Epic epic = epicsMap.get(id);
+        if (epic != null) {
+            epic.getSubtaskIds().forEach(subtaskId -> markDirty(TaskType.SUBTASK, subtaskId));
+        }
+        return super.deleteEpic(id);
+    }
+
+    @Override
+    public Subtask deleteSubtask(int id) {
+        Subtask subtask = subtasksMap.get(id);
+        if (subtask != null) {
+            // Эпик пересчитывается или удаляется вместе с последней подзадачей.
+            markDirty(TaskType.EPIC, subtask.getEpicId());
+        }
+        return super.deleteSubtask(id);
+    }
+
+    @Override
+    protected void onPut(Task task) {
+        if (task instanceof Subtask) {
+            markDirty(TaskType.SUBTASK, task.getId());
+            markDirty(TaskType.EPIC, ((Subtask) task).getEpicId());
+        } else if (task instanceof Epic) {
+            markDirty(TaskType.EPIC, task.getId());
+        } else {
+            markDirty(TaskType.TASK, task.getId());
+        }
+        requestSave();
+    }
+
+    @Override
+    protected void onDelete(TaskType type, int id) {
+        markDirty(type, id);
+        requestSave();
+    }
+
+    @Override
+    protected void onDeleteAll(TaskType type) {
+        switch (type) {
+            case TASK -> truncate(TaskType.TASK);
+            case SUBTASK -> {
+                truncate(TaskType.SUBTASK);
+                // Эпики остаются, но их статус и время меняются.
+                epicsMap.values().forEach(epic -> markDirty(TaskType.EPIC, epic.getId()));
+            }
+            case EPIC -> {
+                truncate(TaskType.SUBTASK);
+                truncate(TaskType.EPIC);
+            }
+        }
+        requestSave();
+    }
+
+    /**
+     * Переписывает помеченные изменёнными сегменты.
+     * <p>
+     * Сегменты эпиков пишутся раньше сегментов подзадач: если запись прервётся между ними, новые подзадачи
+     * не окажутся на диске без своего эпика. Подзадачи удалённого эпика, оставшиеся на диске после такого сбоя,
+     * пропускаются при загрузке (см. {@link #bulkLoad}).
+     * @throws ManagerSaveException Если произошла ошибка при сохранении данных в файл.
+     */
+    @Override
+    protected void save() {
+        writeDirtySegments(TaskType.EPIC, epicsMap);
+        writeDirtySegments(TaskType.SUBTASK, subtasksMap);
+        writeDirtySegments(TaskType.TASK, tasksMap);
+    }
+
+    /**
+     * @return Размер сегмента, записанный в каталоге, или {@code null}, если его нет.
+     * @throws ManagerSaveException Если файл размера не удалось прочитать.
+     */
+    private static Integer readSegmentSize(Path directory) {
+        Path sizeFile = directory.resolve(SEGMENT_SIZE_FILE);
+        if (!Files.exists(sizeFile)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(Files.readString(sizeFile, StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            throw new ManagerSaveException("Ошибка чтения размера сегмента из файла " + sizeFile);
+        }
+    }
+
+    private static void writeSegmentSize(Path directory, int segmentSize) throws IOException {
+        Path sizeFile = directory.resolve(SEGMENT_SIZE_FILE);
+        Path temp = sizeFile.resolveSibling(SEGMENT_SIZE_FILE + ".tmp");
+        Files.writeString(temp, segmentSize + System.lineSeparator(), StandardCharsets.UTF_8);
+        Files.move(temp, sizeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void markDirty(TaskType type, int id) {
+        dirtySegments.get(type).add(id / segmentSize);
+    }
+
+    private void writeDirtySegments(TaskType type, IntObjectHashMap<? extends Task> map) {
+        IntHashSet dirty = dirtySegments.get(type);
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        for (int segment : dirty.toSortedArray()) {
+            List<Task> segmentTasks = new ArrayList<>();
+            long first = (long) segment * segmentSize;
+            for (long id = first; id < first + segmentSize && id <= lastTaskId; id++) {
+                Task task = map.get((int) id);
+                if (task != null) {
+                    segmentTasks.add(task);
+                }
+            }
+            writeSegment(getSegmentPath(type, segment * segmentSize), segmentTasks);
+            dirty.remove(segment);
+        }
+    }
+
+    private void writeSegment(Path segment, List<Task> segmentTasks) {
+        try {
+            if (segmentTasks.isEmpty()) {
+                Files.deleteIfExists(segment);
+                return;
+            }
+
+            Files.createDirectories(segment.getParent());
+            Path temp = segment.resolveSibling(segment.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writeSnapshot(writer, 0, segmentTasks, List.of(), List.of());
+            }
+            Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения сегмента задач в файл " + segment.getFileName());
+        }
+    }
+
+    /**
+     * Удаляет все сегменты заданного типа.
+     */
+    private void truncate(TaskType type) {
+        dirtySegments.get(type).clear();
+        if (!Files.isDirectory(file.toPath())) {
+            return;
+        }
+
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(file.toPath(),
+                type.name().toLowerCase() + "-*" + SEGMENT_SUFFIX)) {
+            for (Path segment : segments) {
+                Files.delete(segment);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка удаления сегментов задач типа " + type);
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package ru.yandex.practicum.task.managers;
+
+import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.storage.BinarySnapshotCodec;
+import ru.yandex.practicum.task.storage.SnapshotFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * Преобразует файл задач из CSV в двоичный формат и обратно (см. {@link SnapshotFormat}).
+ * <p>
+ * Запуск: {@code SnapshotConverter <исходный файл> <новый файл>}. Формат исходного файла определяется
+ * по его сигнатуре, новый файл записывается в другом формате.
+ */
+public class SnapshotConverter {
+
+    /**
+     * Читает задачи из файла в одном формате и записывает их в другой файл в другом формате с теми же id.
+     * @throws ManagerSaveException Если новый файл не удалось записать.
+     */
+    public static void convert(File source, SnapshotFormat sourceFormat, File target, SnapshotFormat targetFormat) {
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(source, sourceFormat);
+        FileBackedTaskManager writer = new FileBackedTaskManager(target, targetFormat);
+
+        try (OutputStream out = Files.newOutputStream(target.toPath())) {
+            writer.writeSnapshot(out, 0, loaded.getAllTasks(), loaded.getAllEpics(), loaded.getAllSubtasks());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения задач в файл " + target);
+        }
+    }
+
+    /**
+     * Определяет формат файла задач по его сигнатуре.
+     */
+    public static SnapshotFormat detectFormat(File file) throws IOException {
+        byte[] header;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            header = in.readNBytes(8);
+        }
+        return BinarySnapshotCodec.isBinary(header) ? SnapshotFormat.BINARY : SnapshotFormat.CSV;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Использование: SnapshotConverter <исходный файл> <новый файл>");
+            return;
+        }
+
+        File source = new File(args[0]);
+        File target = new File(args[1]);
+        SnapshotFormat sourceFormat = detectFormat(source);
+        SnapshotFormat targetFormat = sourceFormat == SnapshotFormat.CSV ? SnapshotFormat.BINARY : SnapshotFormat.CSV;
+
+        convert(source, sourceFormat, target, targetFormat);
+        System.out.println("Файл " + source + " (" + sourceFormat + ") преобразован в " + target + " (" + targetFormat + ")");
+    }
+
+}
@@ -0,0 +1,319 @@
+package ru.yandex.practicum.task.storage;
+
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+import ru.yandex.practicum.task.utils.DateTimeTaskUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Двоичный формат снимка задач.
+ * <p>
+ * Структура файла:
+ * <pre>
+ * "KNBS" версия:u8 sequence:varlong
+ * количество_строк:varint { длина:varint UTF-8 }*
+ * количество_задач:varint { задача }*
+ * </pre>
+ * Задача: байт заголовка (тип в младших битах, флаг наличия времени начала), id:varint, статус:u8,
+ * название и описание — номера в общей таблице строк, увеличенные на единицу ({@code null} кодируется нулём),
+ * время начала в минутах от эпохи (zigzag varlong), длительность в минутах (varlong) и для подзадачи — id эпика.
+ * Одинаковые строки хранятся в таблице один раз. Эпики записываются перед подзадачами,
+ * поэтому при чтении эпик подзадачи уже загружен. Задачи и подзадачи записываются в переданном порядке:
+ * менеджер сохраняет их в порядке индекса приоритетов, чтобы при загрузке не сортировать их повторно.
+ * <p>
+ * В отличие от CSV, формат не зависит от запятых и переводов строк в названиях и описаниях.
+ * <p>
+ * Версия 2 допускает задачи без названия. Снимки версии 1, где название хранится номером строки без сдвига,
+ * по-прежнему читаются.
+ */
+public final class BinarySnapshotCodec {
+    public static final int VERSION = 2;
+    private static final int VERSION_WITH_REQUIRED_NAME = 1;
+    private static final byte[] MAGIC = {'K', 'N', 'B', 'S'};
+    private static final int TYPE_MASK = 0b11;
+    private static final int HAS_START_TIME = 0b100;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private BinarySnapshotCodec() {
+    }
+
+    /**
+     * Проверяет, начинаются ли данные с сигнатуры двоичного снимка.
+     */
+    public static boolean isBinary(byte[] data) {
+        return data.length >= MAGIC.length && Arrays.equals(data, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    /**
+     * Записывает эпики, задачи и подзадачи в двоичном формате.
+     * @param sequence Номер последней записи журнала изменений, учтённой в снимке; {@code 0} — без журнала.
+     */
+    public static void write(OutputStream out, long sequence, Collection<? extends Task> tasks,
+                             Collection<? extends Task> epics, Collection<? extends Task> subtasks)
+            throws IOException {
+        write(out, sequence, List.of(epics, tasks, subtasks));
+    }
+
+    /**
+     * Записывает эпики, а за ними задачи и подзадачи вперемешку в переданном порядке.
+     * @param sequence Номер последней записи журнала изменений, учтённой в снимке; {@code 0} — без журнала.
+     * @param tasksAndSubtasks Задачи и подзадачи в том порядке, в котором их получит {@link #read}.
+     */
+    public static void write(OutputStream out, long sequence, Collection<? extends Task> epics,
+                             Collection<? extends Task> tasksAndSubtasks) throws IOException {
+        write(out, sequence, List.of(epics, tasksAndSubtasks));
+    }
+
+    private static void write(OutputStream out, long sequence, List<Collection<? extends Task>> parts)
+            throws IOException {
+        int count = 0;
+        for (Collection<? extends Task> part : parts) {
+            count += part.size();
+        }
+
+        // Обычно у каждой задачи своё описание: таблица сразу выделяется под название и описание каждой задачи.
+        Map<String, Integer> stringIds = new HashMap<>(count * 2);
+        List<String> strings = new ArrayList<>();
+        for (Collection<? extends Task> part : parts) {
+            for (Task task : part) {
+                if (task.getName() != null) {
+                    intern(task.getName(), stringIds, strings);
+                }
+                if (task.getDescription() != null) {
+                    intern(task.getDescription(), stringIds, strings);
+                }
+            }
+        }
+
+        Buffer buffer = new Buffer(64 + strings.size() * 16 + count * 12);
+        buffer.writeBytes(MAGIC, 0, MAGIC.length);
+        buffer.writeByte(VERSION);
+        buffer.writeVarLong(sequence);
+
+        buffer.writeVarLong(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            buffer.writeVarLong(bytes.length);
+            buffer.writeBytes(bytes, 0, bytes.length);
+        }
+
+        buffer.writeVarLong(count);
+        for (Collection<? extends Task> part : parts) {
+            for (Task task : part) {
+                writeTask(buffer, task, stringIds);
+            }
+        }
+
+        out.write(buffer.bytes, 0, buffer.size);
+    }
+
+    /**
+     * Читает снимок в двоичном формате.
+     * @param data Содержимое файла снимка.
+     * @param consumer Получает прочитанные задачи с id из снимка: сначала эпики, затем задачи и подзадачи
+     *                 в порядке записи.
+     * @return Номер последней записи журнала изменений, учтённой в снимке, или {@code 0}.
+     * @throws IOException Если данные повреждены или записаны в неподдерживаемой версии формата.
+     */
+    public static long read(byte[] data, Consumer<Task> consumer) throws IOException {
+        if (!isBinary(data)) {
+            throw new IOException("Файл не является двоичным снимком задач");
+        }
+
+        Reader reader = new Reader(data, MAGIC.length);
+        try {
+            int version = reader.readByte();
+            if (version != VERSION && version != VERSION_WITH_REQUIRED_NAME) {
+                throw new IOException("Неподдерживаемая версия двоичного снимка: " + version);
+            }
+            long sequence = reader.readVarLong();
+
+            String[] strings = new String[reader.readVarInt()];
+            for (int i = 0; i < strings.length; i++) {
+                int length = reader.readVarInt();
+                strings[i] = new String(data, reader.take(length), length, StandardCharsets.UTF_8);
+            }
+
+            int count = reader.readVarInt();
+            for (int i = 0; i < count; i++) {
+                consumer.accept(readTask(reader, strings, version == VERSION_WITH_REQUIRED_NAME));
+            }
+            return sequence;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Двоичный снимок задач повреждён");
+        }
+    }
+
+    private static void intern(String string, Map<String, Integer> stringIds, List<String> strings) {
+        if (stringIds.putIfAbsent(string, strings.size()) == null) {
+            strings.add(string);
+        }
+    }
+
+    private static void writeTask(Buffer buffer, Task task, Map<String, Integer> stringIds) {
+        TaskType type = task instanceof Epic ? TaskType.EPIC : task instanceof Subtask ? TaskType.SUBTASK : TaskType.TASK;
+        boolean hasStartTime = task.getStartTime() != null;
+
+        buffer.writeByte(type.ordinal() | (hasStartTime ? HAS_START_TIME : 0));
+        buffer.writeVarLong(task.getId());
+        buffer.writeByte(task.getStatus().ordinal());
+        writeNullableString(buffer, task.getName(), stringIds);
+        writeNullableString(buffer, task.getDescription(), stringIds);
+        if (hasStartTime) {
+            long epochMinute = DateTimeTaskUtil.toEpochMinute(task.getStartTime());
+            buffer.writeVarLong((epochMinute << 1) ^ (epochMinute >> 63));
+        }
+        buffer.writeVarLong(task.getDuration() == null ? 0 : task.getDuration().toMinutes());
+        if (type == TaskType.SUBTASK) {
+            buffer.writeVarLong(((Subtask) task).getEpicId());
+        }
+    }
+
+    private static void writeNullableString(Buffer buffer, String string, Map<String, Integer> stringIds) {
+        buffer.writeVarLong(string == null ? 0 : stringIds.get(string) + 1);
+    }
+
+    private static String readNullableString(Reader reader, String[] strings) throws IOException {
+        int ref = reader.readVarInt();
+        return ref == 0 ? null : strings[ref - 1];
+    }
+
+    private static Task readTask(Reader reader, String[] strings, boolean nameRequired) throws IOException {
+        int header = reader.readByte();
+        int typeOrdinal = header & TYPE_MASK;
+        if (typeOrdinal >= TYPES.length) {
+            throw new IOException("Неизвестный тип задачи в двоичном снимке: " + typeOrdinal);
+        }
+        TaskType type = TYPES[typeOrdinal];
+        int id = reader.readVarInt();
+        TaskStatus status = STATUSES[reader.readByte()];
+        String name = nameRequired ? strings[reader.readVarInt()] : readNullableString(reader, strings);
+        String constructorName = name == null ? "" : name;
+        String description = readNullableString(reader, strings);
+
+        Task task;
+        if (type == TaskType.EPIC) {
+            if ((header & HAS_START_TIME) != 0) {
+                reader.readVarLong();
+            }
+            reader.readVarLong();
+            // Время и длительность эпика рассчитываются по его подзадачам.
+            task = new Epic(constructorName, description, status);
+        } else {
+            boolean hasStartTime = (header & HAS_START_TIME) != 0;
+            long startTime = hasStartTime ? reader.readVarLong() : 0;
+            long duration = reader.readVarLong();
+            task = type == TaskType.SUBTASK
+                    ? new Subtask(constructorName, description, status, reader.readVarInt(), null, duration)
+                    : new Task(constructorName, description, status, null, duration);
+            if (hasStartTime) {
+                task.setStartTime(DateTimeTaskUtil.fromEpochMinute((startTime >>> 1) ^ -(startTime & 1)));
+            }
+        }
+        if (name == null) {
+            // Конструктор не принимает пустое название, а задачи из JSON создаются без него.
+            task.setName(null);
+        }
+        task.setId(id);
+        return task;
+    }
+
+    /**
+     * Растущий буфер записи: снимок собирается в памяти и записывается в поток одним вызовом.
+     */
+    private static class Buffer {
+        byte[] bytes;
+        int size;
+
+        Buffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] source, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static class Reader {
+        final byte[] data;
+        int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        int readByte() {
+            return data[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Двоичный снимок задач повреждён");
+        }
+
+        int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("Двоичный снимок задач повреждён");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Пропускает {@code length} байт и возвращает позицию их начала.
+         */
+        int take(int length) {
+            int start = position;
+            if (length > data.length - start) {
+                throw new ArrayIndexOutOfBoundsException(start + length);
+            }
+            position += length;
+            return start;
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package ru.yandex.practicum.task.storage;
+
+/**
+ * Пороги, при которых журнал изменений переносится в снимок данных.
+ * <p>
+ * Снимок записывается, когда в текущем журнале накопилось {@code maxLogRecords} записей
+ * или его размер достиг {@code maxLogBytes} байт. Значения по умолчанию можно переопределить системными свойствами
+ * {@code kanban.storage.compact.records}, {@code kanban.storage.compact.bytes}
+ * и {@code kanban.storage.compact.background}.
+ */
+public class CompactionPolicy {
+    public static final long DEFAULT_MAX_LOG_RECORDS = 10_000;
+    public static final long DEFAULT_MAX_LOG_BYTES = 16L * 1024 * 1024;
+    public static final boolean DEFAULT_BACKGROUND = true;
+
+    private final long maxLogRecords;
+    private final long maxLogBytes;
+    private final boolean background;
+
+    /**
+     * @param maxLogRecords Количество записей в журнале, после которого записывается снимок.
+     * @param maxLogBytes Размер журнала в байтах, после которого записывается снимок.
+     * @param background Записывать ли снимок в фоновом потоке, не задерживая изменения.
+     */
+    public CompactionPolicy(long maxLogRecords, long maxLogBytes, boolean background) {
+        if (maxLogRecords < 1) {
+            throw new IllegalArgumentException("Порог по количеству записей должен быть положительным: " + maxLogRecords);
+        }
+        if (maxLogBytes < 1) {
+            throw new IllegalArgumentException("Порог по размеру журнала должен быть положительным: " + maxLogBytes);
+        }
+        this.maxLogRecords = maxLogRecords;
+        this.maxLogBytes = maxLogBytes;
+        this.background = background;
+    }
+
+    public static CompactionPolicy defaults() {
+        return new CompactionPolicy(DEFAULT_MAX_LOG_RECORDS, DEFAULT_MAX_LOG_BYTES, DEFAULT_BACKGROUND);
+    }
+
+    public static CompactionPolicy fromSystemProperties() {
+        return new CompactionPolicy(
+                Long.getLong("kanban.storage.compact.records", DEFAULT_MAX_LOG_RECORDS),
+                Long.getLong("kanban.storage.compact.bytes", DEFAULT_MAX_LOG_BYTES),
+                Boolean.parseBoolean(System.getProperty("kanban.storage.compact.background",
+                        String.valueOf(DEFAULT_BACKGROUND))));
+    }
+
+    /**
+     * Проверяет, пора ли переносить журнал в снимок.
+     */
+    public boolean shouldCompact(long logRecords, long logBytes) {
+        return logRecords >= maxLogRecords || logBytes >= maxLogBytes;
+    }
+
+    public long getMaxLogRecords() {
+        return maxLogRecords;
+    }
+
+    public long getMaxLogBytes() {
+        return maxLogBytes;
+    }
+
+    public boolean isBackground() {
+        return background;
+    }
+
+}
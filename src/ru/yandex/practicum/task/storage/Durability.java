@@ -0,0 +1,21 @@
+package ru.yandex.practicum.task.storage;
+
+/**
+ * Уровень надёжности записи в журнал изменений: когда изменение считается сохранённым.
+ */
+public enum Durability {
+    /**
+     * Запись передаётся операционной системе без {@code fsync}: переживает аварийное завершение процесса,
+     * но не сбой питания или ядра.
+     */
+    OS_BUFFERED,
+    /**
+     * Групповая фиксация: фоновый поток раз в заданный интервал выполняет один {@code fsync} для всех
+     * накопившихся записей, а каждая операция ждёт, пока её запись не окажется на диске.
+     */
+    GROUP,
+    /**
+     * {@code fsync} после каждой записи.
+     */
+    SYNC
+}
@@ -0,0 +1,397 @@
+package ru.yandex.practicum.task.storage;
+
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.index.IntObjectHashMap;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+import ru.yandex.practicum.task.utils.DateTimeTaskUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище задач из записей фиксированного размера в отображённом в память файле ({@link MappedByteBuffer}).
+ * <p>
+ * Файл записей начинается с заголовка (сигнатура, версия, размер записи, наибольший выданный id), за которым идут
+ * записи по {@value #RECORD_SIZE} байт: признак занятости, тип, статус, id, id эпика, время начала в минутах
+ * от эпохи, длительность и положение названия и описания в отдельном файле строк ({@code <файл>.strings}).
+ * Строки только дописываются в конец файла строк, и запись ссылается на них по смещению и длине.
+ * <p>
+ * Изменение задачи перезаписывает только её запись; если название и описание не изменились, файл строк не трогается,
+ * поэтому смена статуса — это запись нескольких байт. Освобождённые при удалении записи попадают в список свободных
+ * и занимаются следующими задачами. При открытии файл отображается в память и записи читаются без разбора текста.
+ * <p>
+ * Изменения попадают в страничный кэш операционной системы сразу и переживают аварийное завершение процесса;
+ * на диск они гарантированно записываются после {@link #force()} или {@link #close()}. Прежние версии строк
+ * остаются в файле строк до его пересоздания. Методы должны вызываться последовательно.
+ */
+public class MappedTaskStore implements Closeable {
+    public static final int VERSION = 1;
+    private static final int RECORD_SIZE = 64;
+    private static final int MAGIC = 0x4B4E4D52; // "KNMR"
+    private static final int HEADER_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int LAST_ID_OFFSET = 12;
+
+    private static final int FLAGS = 0;
+    private static final int TYPE = 1;
+    private static final int STATUS = 2;
+    private static final int ID = 4;
+    private static final int EPIC_ID = 8;
+    private static final int START = 12;
+    private static final int DURATION = 20;
+    private static final int NAME_OFFSET = 28;
+    private static final int NAME_LENGTH = 36;
+    private static final int DESCRIPTION_OFFSET = 40;
+    private static final int DESCRIPTION_LENGTH = 48;
+
+    private static final int USED = 1;
+    private static final int HAS_START_TIME = 2;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final FileChannel recordsChannel;
+    private final FileChannel stringsChannel;
+    /**
+     * Занятая запись для каждого id задачи.
+     */
+    private final IntObjectHashMap<Slot> slots = new IntObjectHashMap<>();
+    private MappedByteBuffer records;
+    private int capacity;
+    /**
+     * Количество записей, которые когда-либо были заняты: следующая новая запись берётся отсюда,
+     * если список свободных пуст.
+     */
+    private int highWaterMark;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private long stringsEnd;
+    private int lastId;
+
+    private MappedTaskStore(FileChannel recordsChannel, FileChannel stringsChannel) {
+        this.recordsChannel = recordsChannel;
+        this.stringsChannel = stringsChannel;
+    }
+
+    /**
+     * Открывает хранилище и передаёт обработчику все сохранённые задачи в порядке записей.
+     * Если файлов нет, они будут созданы.
+     * @param path Путь к файлу записей; строки хранятся в файле с тем же именем и суффиксом {@code .strings}.
+     * @param loader Получает прочитанные задачи с id из хранилища.
+     * @throws ManagerSaveException Если файлы не удалось открыть или они не являются хранилищем задач.
+     */
+    public static MappedTaskStore open(Path path, Consumer<Task> loader) {
+        FileChannel recordsChannel = null;
+        FileChannel stringsChannel = null;
+        try {
+            recordsChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            stringsChannel = FileChannel.open(getStringsPath(path), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            MappedTaskStore store = new MappedTaskStore(recordsChannel, stringsChannel);
+            store.load(loader);
+            return store;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(recordsChannel);
+            closeQuietly(stringsChannel);
+            if (e instanceof ManagerSaveException) {
+                throw (ManagerSaveException) e;
+            }
+            throw new ManagerSaveException("Ошибка открытия хранилища задач " + path);
+        }
+    }
+
+    public static Path getStringsPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".strings");
+    }
+
+    /**
+     * Сохраняет задачу: перезаписывает её запись на месте или занимает новую.
+     * @throws ManagerSaveException Если строки задачи не удалось записать.
+     */
+    public void put(Task task) {
+        int id = task.getId();
+        Slot slot = slots.get(id);
+        if (slot == null) {
+            slot = new Slot(takeFreeSlot());
+            slots.put(id, slot);
+        }
+
+        try {
+            if (slot.nameLength < 0 || !task.getName().equals(slot.name)) {
+                slot.name = task.getName();
+                slot.nameLength = appendString(slot.name);
+                slot.nameOffset = stringsEnd - slot.nameLength;
+            }
+            if (task.getDescription() == null) {
+                slot.description = null;
+                slot.descriptionLength = -1;
+            } else if (slot.descriptionLength < 0 || !task.getDescription().equals(slot.description)) {
+                slot.description = task.getDescription();
+                slot.descriptionLength = appendString(slot.description);
+                slot.descriptionOffset = stringsEnd - slot.descriptionLength;
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения задачи в хранилище");
+        }
+
+        slot.type = typeOf(task);
+        writeRecord(slot, task);
+        if (id > lastId) {
+            lastId = id;
+            records.putInt(LAST_ID_OFFSET, id);
+        }
+    }
+
+    /**
+     * Удаляет задачу и добавляет её запись в список свободных.
+     * @return {@code true}, если задача была в хранилище.
+     */
+    public boolean remove(int id) {
+        Slot slot = slots.remove(id);
+        if (slot == null) {
+            return false;
+        }
+
+        records.put(position(slot.index) + FLAGS, (byte) 0);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot.index;
+        return true;
+    }
+
+    /**
+     * Удаляет все задачи одного типа.
+     */
+    public void removeAll(TaskType type) {
+        int[] ids = slots.keysToSortedArray();
+        for (int id : ids) {
+            if (slots.get(id).type == type) {
+                remove(id);
+            }
+        }
+    }
+
+    /**
+     * Возвращает наибольший id, когда-либо сохранённый в хранилище, в том числе у уже удалённых задач.
+     */
+    public int getLastId() {
+        return lastId;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Записывает изменения файлов на диск.
+     * @throws ManagerSaveException Если запись не удалась.
+     */
+    public void force() {
+        records.force();
+        try {
+            stringsChannel.force(false);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи хранилища задач на диск");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        } finally {
+            recordsChannel.close();
+            stringsChannel.close();
+        }
+    }
+
+    private void load(Consumer<Task> loader) throws IOException {
+        long fileSize = recordsChannel.size();
+        if (fileSize == 0) {
+            map(INITIAL_CAPACITY);
+            records.putInt(0, MAGIC);
+            records.putInt(4, VERSION);
+            records.putInt(8, RECORD_SIZE);
+            records.putInt(LAST_ID_OFFSET, 0);
+        } else {
+            map((int) Math.max(INITIAL_CAPACITY, (fileSize - HEADER_SIZE) / RECORD_SIZE));
+            if (records.getInt(0) != MAGIC) {
+                throw new ManagerSaveException("Файл не является хранилищем задач");
+            }
+            if (records.getInt(4) != VERSION || records.getInt(8) != RECORD_SIZE) {
+                throw new ManagerSaveException("Неподдерживаемая версия хранилища задач: " + records.getInt(4));
+            }
+            lastId = records.getInt(LAST_ID_OFFSET);
+        }
+
+        stringsEnd = stringsChannel.size();
+        ByteBuffer strings = stringsEnd == 0 ? ByteBuffer.allocate(0)
+                : stringsChannel.map(FileChannel.MapMode.READ_ONLY, 0, stringsEnd);
+
+        for (int index = 0; index < capacity; index++) {
+            int position = position(index);
+            if ((records.get(position + FLAGS) & USED) == 0) {
+                continue;
+            }
+            highWaterMark = index + 1;
+            Slot slot = readSlot(index, position, strings);
+            Task task = readTask(position, slot);
+            slots.put(task.getId(), slot);
+            lastId = Math.max(lastId, task.getId());
+            loader.accept(task);
+        }
+
+        for (int index = highWaterMark - 1; index >= 0; index--) {
+            if ((records.get(position(index) + FLAGS) & USED) == 0) {
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                }
+                freeSlots[freeCount++] = index;
+            }
+        }
+    }
+
+    private Slot readSlot(int index, int position, ByteBuffer strings) {
+        Slot slot = new Slot(index);
+        slot.type = TYPES[records.get(position + TYPE)];
+        slot.nameOffset = records.getLong(position + NAME_OFFSET);
+        slot.nameLength = records.getInt(position + NAME_LENGTH);
+        slot.name = readString(strings, slot.nameOffset, slot.nameLength);
+        slot.descriptionOffset = records.getLong(position + DESCRIPTION_OFFSET);
+        slot.descriptionLength = records.getInt(position + DESCRIPTION_LENGTH);
+        slot.description = slot.descriptionLength < 0 ? null
+                : readString(strings, slot.descriptionOffset, slot.descriptionLength);
+        return slot;
+    }
+
+    private Task readTask(int position, Slot slot) {
+        int flags = records.get(position + FLAGS);
+        TaskStatus status = STATUSES[records.get(position + STATUS)];
+        long duration = records.getLong(position + DURATION);
+
+        Task task = switch (slot.type) {
+            case EPIC -> new Epic(slot.name, slot.description, status);
+            case SUBTASK -> new Subtask(slot.name, slot.description, status, records.getInt(position + EPIC_ID),
+                    null, duration);
+            case TASK -> new Task(slot.name, slot.description, status, null, duration);
+        };
+        if ((flags & HAS_START_TIME) != 0 && slot.type != TaskType.EPIC) {
+            task.setStartTime(DateTimeTaskUtil.fromEpochMinute(records.getLong(position + START)));
+        }
+        task.setId(records.getInt(position + ID));
+        return task;
+    }
+
+    private static String readString(ByteBuffer strings, long offset, int length) {
+        byte[] bytes = new byte[length];
+        strings.get((int) offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeRecord(Slot slot, Task task) {
+        int position = position(slot.index);
+        boolean hasStartTime = task.getStartTime() != null;
+
+        records.put(position + TYPE, (byte) slot.type.ordinal());
+        records.put(position + STATUS, (byte) task.getStatus().ordinal());
+        records.putInt(position + ID, task.getId());
+        records.putInt(position + EPIC_ID, task instanceof Subtask ? ((Subtask) task).getEpicId() : 0);
+        records.putLong(position + START, hasStartTime ? DateTimeTaskUtil.toEpochMinute(task.getStartTime()) : 0);
+        records.putLong(position + DURATION, task.getDuration() == null ? 0 : task.getDuration().toMinutes());
+        records.putLong(position + NAME_OFFSET, slot.nameOffset);
+        records.putInt(position + NAME_LENGTH, slot.nameLength);
+        records.putLong(position + DESCRIPTION_OFFSET, slot.descriptionOffset);
+        records.putInt(position + DESCRIPTION_LENGTH, slot.descriptionLength);
+        // Признак занятости пишется последним: запись становится видимой при загрузке уже заполненной.
+        records.put(position + FLAGS, (byte) (USED | (hasStartTime ? HAS_START_TIME : 0)));
+    }
+
+    /**
+     * Дописывает строку в конец файла строк.
+     * @return Длина строки в байтах.
+     */
+    private int appendString(String string) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8));
+        int length = bytes.remaining();
+        while (bytes.hasRemaining()) {
+            stringsEnd += stringsChannel.write(bytes, stringsEnd);
+        }
+        return length;
+    }
+
+    private int takeFreeSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWaterMark == capacity) {
+            try {
+                map(capacity * 2);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка расширения хранилища задач");
+            }
+        }
+        return highWaterMark++;
+    }
+
+    /**
+     * Отображает в память заголовок и {@code newCapacity} записей, при необходимости увеличивая файл.
+     */
+    private void map(int newCapacity) throws IOException {
+        if (records != null) {
+            records.force();
+        }
+        records = recordsChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+        capacity = newCapacity;
+    }
+
+    private static int position(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private static TaskType typeOf(Task task) {
+        return task instanceof Epic ? TaskType.EPIC : task instanceof Subtask ? TaskType.SUBTASK : TaskType.TASK;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Исходная ошибка важнее ошибки закрытия.
+            }
+        }
+    }
+
+    /**
+     * Занятая запись: её номер и строки задачи, уже записанные в файл строк.
+     */
+    private static class Slot {
+        final int index;
+        TaskType type;
+        String name;
+        long nameOffset;
+        int nameLength = -1;
+        String description;
+        long descriptionOffset;
+        int descriptionLength = -1;
+
+        Slot(int index) {
+            this.index = index;
+        }
+    }
+
+}
@@ -0,0 +1,410 @@
+package ru.yandex.practicum.task.storage;
+
+import ru.yandex.practicum.task.error.ManagerSaveException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Журнал изменений (write-ahead log): файл, в конец которого дописываются записи об изменениях.
+ * <p>
+ * Каждая запись — одна строка вида {@code <номер>,<данные>}, номера записей строго возрастают.
+ * Стоимость записи зависит только от её размера, а не от объёма всех данных.
+ * <p>
+ * Журнал состоит из текущего файла и закрытых сегментов. {@link #rotate()} закрывает текущий файл,
+ * переименовывая его в {@code <файл>.<номер последней записи>}, и начинает новый; закрытые сегменты удаляются
+ * через {@link #deleteSegmentsUpTo(long)}, когда их записи попали в снимок данных. При открытии журнала
+ * записи читаются из сегментов по возрастанию номеров, а затем из текущего файла.
+ * <p>
+ * Если процесс был прерван во время записи, в конце файла может остаться неполная строка без перевода строки.
+ * Такая строка при открытии журнала отбрасывается.
+ * <p>
+ * Надёжность записи задаётся {@link Durability}. В режиме {@link Durability#GROUP} записи накапливаются в буфере,
+ * а фоновый поток раз в {@code groupCommitMillis} миллисекунд сбрасывает их и выполняет один {@code fsync};
+ * {@link #awaitDurable(long)} ждёт, пока запись не окажется на диске. {@code fsync} выполняется без захвата
+ * монитора журнала, поэтому новые записи не ждут диска. Дописывание и переключение сегментов должны вызываться
+ * последовательно; {@link #awaitDurable(long)} можно вызывать из любых потоков.
+ */
+public class MutationLog implements Closeable {
+    private final Path path;
+    private final Durability durability;
+    private final long groupCommitMillis;
+    /**
+     * Захватывается на время {@code fsync}, чтобы файл не был закрыт при переключении сегмента во время записи на диск.
+     */
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private long lastSequence;
+    private long durableSequence;
+    private long recordCount;
+    private long size;
+    private boolean closed;
+    private IOException failure;
+    private Thread flusher;
+
+    private MutationLog(Path path, long lastSequence, Durability durability, long groupCommitMillis) {
+        this.path = path;
+        this.lastSequence = lastSequence;
+        this.durability = durability;
+        this.groupCommitMillis = groupCommitMillis;
+    }
+
+    /**
+     * Открывает журнал с записью без {@code fsync} ({@link Durability#OS_BUFFERED}).
+     * @see #open(Path, long, Consumer, Durability, long)
+     */
+    public static MutationLog open(Path path, long afterSequence, Consumer<String> replay) {
+        return open(path, afterSequence, replay, Durability.OS_BUFFERED, 0);
+    }
+
+    /**
+     * Открывает журнал для дописывания, передавая каждую сохранённую запись с номером больше {@code afterSequence}
+     * обработчику. Неполная последняя строка текущего файла отбрасывается.
+     * @param path Путь к текущему файлу журнала; если файла нет, он будет создан.
+     * @param afterSequence Номер последней записи, уже учтённой в снимке данных.
+     * @param replay Получает данные записи без номера.
+     * @param durability Уровень надёжности записи.
+     * @param groupCommitMillis Интервал групповой фиксации для {@link Durability#GROUP}; {@code 0} — сразу,
+     *                          как только появились записи.
+     * @throws ManagerSaveException Если журнал не удалось прочитать или открыть.
+     */
+    public static MutationLog open(Path path, long afterSequence, Consumer<String> replay,
+                                   Durability durability, long groupCommitMillis) {
+        MutationLog log = new MutationLog(path, afterSequence, durability, groupCommitMillis);
+
+        try {
+            for (Path segment : log.listSegments()) {
+                log.read(segment, afterSequence, replay);
+            }
+            long validLength = Files.exists(path) ? log.read(path, afterSequence, replay) : 0;
+
+            log.openChannel();
+            log.channel.truncate(validLength);
+            log.channel.position(validLength);
+            log.size = validLength;
+            log.durableSequence = log.lastSequence;
+            if (durability == Durability.GROUP) {
+                log.startFlusher();
+            }
+            return log;
+        } catch (IOException | RuntimeException e) {
+            throw new ManagerSaveException("Ошибка чтения журнала изменений " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Дописывает запись в конец журнала. В режимах {@link Durability#OS_BUFFERED} и {@link Durability#SYNC}
+     * запись сразу передаётся операционной системе (и на диск), в режиме {@link Durability#GROUP} —
+     * фоновому потоку фиксации.
+     * @param record Данные записи в одну строку.
+     * @return Номер записи.
+     * @throws ManagerSaveException Если запись не удалась.
+     */
+    public synchronized long append(String record) {
+        try {
+            long sequence = lastSequence + 1;
+            String line = sequence + "," + record + "\n";
+            writer.write(line);
+            lastSequence = sequence;
+            recordCount++;
+            size += line.getBytes(StandardCharsets.UTF_8).length;
+
+            switch (durability) {
+                case OS_BUFFERED -> {
+                    writer.flush();
+                    durableSequence = sequence;
+                }
+                case SYNC -> {
+                    writer.flush();
+                    channel.force(false);
+                    durableSequence = sequence;
+                }
+                case GROUP -> notifyAll();
+            }
+            return sequence;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи в журнал изменений " + path);
+        }
+    }
+
+    /**
+     * Дожидается, пока запись с номером {@code sequence} и все предыдущие не будут записаны с выбранным
+     * уровнем надёжности. Для {@link Durability#OS_BUFFERED} и {@link Durability#SYNC} возвращается сразу.
+     * @throws ManagerSaveException Если запись на диск не удалась или журнал закрыт раньше.
+     */
+    public synchronized void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        while (durableSequence < sequence && failure == null && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (durableSequence < sequence) {
+            throw new ManagerSaveException("Ошибка записи журнала изменений на диск " + path);
+        }
+    }
+
+    /**
+     * Закрывает текущий файл журнала как сегмент и начинает новый. Нумерация записей продолжается.
+     * @return Номер последней записи в закрытом сегменте.
+     * @throws ManagerSaveException Если сегмент не удалось закрыть.
+     */
+    public long rotate() {
+        forceLock.lock();
+        try {
+            synchronized (this) {
+                if (recordCount == 0) {
+                    return lastSequence;
+                }
+                writer.flush();
+                if (durability != Durability.OS_BUFFERED) {
+                    channel.force(false);
+                }
+                markDurable(lastSequence);
+                channel.close();
+                Files.move(path, getSegmentPath(lastSequence), StandardCopyOption.ATOMIC_MOVE);
+                openChannel();
+                recordCount = 0;
+                size = 0;
+                return lastSequence;
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка переключения журнала изменений " + path);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет закрытые сегменты, все записи которых имеют номер не больше {@code sequence}.
+     * Можно вызывать из другого потока одновременно с дописыванием.
+     * @throws ManagerSaveException Если сегменты не удалось удалить.
+     */
+    public void deleteSegmentsUpTo(long sequence) {
+        try {
+            for (Path segment : listSegments()) {
+                if (getSegmentSequence(segment) <= sequence) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка удаления сегментов журнала изменений " + path);
+        }
+    }
+
+    /**
+     * @return Номер последней записи журнала (или снимка, если журнал пуст).
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * @return Количество записей в текущем файле журнала.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return Размер текущего файла журнала в байтах.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Останавливает поток групповой фиксации, сбрасывает оставшиеся записи на диск и закрывает журнал.
+     */
+    @Override
+    public void close() throws IOException {
+        Thread flusherThread;
+        synchronized (this) {
+            closed = true;
+            flusherThread = flusher;
+            notifyAll();
+        }
+        if (flusherThread != null) {
+            try {
+                flusherThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        forceLock.lock();
+        try {
+            synchronized (this) {
+                writer.flush();
+                if (durability != Durability.OS_BUFFERED) {
+                    channel.force(false);
+                }
+                markDurable(lastSequence);
+                channel.close();
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void startFlusher() {
+        flusher = new Thread(this::runFlusher, "task-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Цикл групповой фиксации: ждёт новых записей, выдерживает интервал, чтобы собрать группу,
+     * и фиксирует всё накопившееся одним {@code fsync}.
+     */
+    private void runFlusher() {
+        while (true) {
+            synchronized (this) {
+                while (lastSequence == durableSequence && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            if (groupCommitMillis > 0) {
+                try {
+                    Thread.sleep(groupCommitMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            commitGroup();
+        }
+    }
+
+    private void commitGroup() {
+        forceLock.lock();
+        try {
+            long target;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                writer.flush();
+                target = lastSequence;
+            }
+            channel.force(false);
+            markDurable(target);
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+                notifyAll();
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private synchronized void markDurable(long sequence) {
+        if (sequence > durableSequence) {
+            durableSequence = sequence;
+            notifyAll();
+        }
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        channel.position(channel.size());
+        writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Читает записи файла журнала.
+     * @return Длина файла до конца последней полной строки.
+     */
+    private long read(Path file, long afterSequence, Consumer<String> replay) throws IOException {
+        long validLength = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = readCompleteLine(reader)) != null) {
+                validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                int separator = line.indexOf(',');
+                long sequence = Long.parseLong(line.substring(0, separator));
+                if (sequence > afterSequence) {
+                    replay.accept(line.substring(separator + 1));
+                }
+                lastSequence = Math.max(lastSequence, sequence);
+                if (file.equals(path)) {
+                    recordCount++;
+                }
+            }
+        }
+        return validLength;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        String prefix = path.getFileName() + ".";
+        List<Path> segments = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                String suffix = name.startsWith(prefix) ? name.substring(prefix.length()) : "";
+                return !suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit);
+            }).forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(getSegmentSequence(a), getSegmentSequence(b)));
+        return segments;
+    }
+
+    private Path getSegmentPath(long sequence) {
+        return path.resolveSibling(path.getFileName() + "." + sequence);
+    }
+
+    private long getSegmentSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(path.getFileName().toString().length() + 1));
+    }
+
+    /**
+     * Читает строку, только если она завершена переводом строки.
+     */
+    private static String readCompleteLine(BufferedReader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            if (ch == '\n') {
+                return line.toString();
+            }
+            line.append((char) ch);
+        }
+        return null;
+    }
+
+}
@@ -1,39 +1,123 @@
 package ru.yandex.practicum.task.tasks;
 
+import com.google.gson.annotations.JsonAdapter;
 import ru.yandex.practicum.task.enums.TaskStatus;
 import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.http.adapters.SortedIntSetTypeAdapter;
+import ru.yandex.practicum.task.index.SortedIntSet;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-
+import java.util.TreeMap;
+
+/**
+ * Эпик — задача, состоящая из подзадач.
+ * <p>
+ * Статус, время начала, окончания и продолжительность эпика вычисляются по его подзадачам. Чтобы не пересчитывать
+ * их по всем подзадачам при каждом изменении, эпик хранит агрегаты: количество подзадач в каждом статусе,
+ * суммарную продолжительность и упорядоченное мультимножество времён начала. Добавление, удаление и замена
+ * подзадачи обновляют агрегаты за O(log k), где k — количество подзадач эпика.
+ * <p>
+ * Идентификаторы подзадач хранятся в {@link SortedIntSet} без упаковки в {@link Integer} и обходятся по возрастанию,
+ * то есть в порядке создания подзадач, без сортировки при каждом чтении. В JSON множество по-прежнему
+ * представлено массивом.
+ */
 public class Epic extends Task {
-    private final List<Integer> subtaskIds = new ArrayList<>();
+    @JsonAdapter(SortedIntSetTypeAdapter.class)
+    private SortedIntSet subtaskIds = new SortedIntSet();
     private LocalDateTime endTime;
+    private transient int subtaskCount;
+    private transient int inProgressCount;
+    private transient int doneCount;
+    /**
+     * Мультимножество времён начала подзадач: время начала -> количество подзадач с таким временем.
+     */
+    private transient TreeMap<LocalDateTime, Integer> subtaskStartTimes = new TreeMap<>();
 
     public Epic(String name, String description, TaskStatus status) {
         super(name, description, status);
     }
 
-    public List<Integer> getSubtaskIds() {
+    public SortedIntSet getSubtaskIds() {
         return subtaskIds;
     }
 
-    public void addSubtaskId(Integer id) {
-        if (!subtaskIds.contains(id)) {
-            subtaskIds.add(id);
-        }
+    public void addSubtaskId(int id) {
+        subtaskIds.add(id);
     }
 
-    public void removeSubtaskId(Integer id) {
+    public void removeSubtaskId(int id) {
         subtaskIds.remove(id);
     }
 
+    /**
+     * Копирует подзадачи и вычисляемое состояние другого эпика (статус, время и продолжительность).
+     * @param other Эпик, состояние которого нужно скопировать.
+     */
+    public void copyStateFrom(Epic other) {
+        subtaskIds = new SortedIntSet(other.subtaskIds);
+        subtaskCount = other.subtaskCount;
+        inProgressCount = other.inProgressCount;
+        doneCount = other.doneCount;
+        duration = other.duration;
+        subtaskStartTimes = new TreeMap<>(other.subtaskStartTimes);
+        refreshState();
+    }
+
+    /**
+     * Удаляет все подзадачи эпика и сбрасывает его состояние.
+     */
+    public void clearSubtasks() {
+        subtaskIds.clear();
+        calculateState(List.of());
+    }
+
+    /**
+     * Полностью пересчитывает состояние эпика по списку его подзадач за O(k log k).
+     * @param subtasks Все подзадачи эпика.
+     */
     public void calculateState(List<Subtask> subtasks) {
-        calculateAndSetStatus(subtasks);
-        calculateAndSetTimeFields(subtasks);
+        subtaskCount = 0;
+        inProgressCount = 0;
+        doneCount = 0;
+        duration = Duration.ZERO;
+        subtaskStartTimes = new TreeMap<>();
+
+        for (Subtask subtask : subtasks) {
+            include(subtask);
+        }
+
+        refreshState();
+    }
+
+    /**
+     * Учитывает в состоянии эпика новую подзадачу.
+     * @param subtask Подзадача эпика.
+     */
+    public void addSubtask(Subtask subtask) {
+        include(subtask);
+        refreshState();
+    }
+
+    /**
+     * Исключает подзадачу из состояния эпика.
+     * @param subtask Подзадача в том виде, в котором она была учтена в эпике.
+     */
+    public void removeSubtask(Subtask subtask) {
+        exclude(subtask);
+        refreshState();
+    }
+
+    /**
+     * Заменяет учтённую в эпике версию подзадачи на обновлённую.
+     * @param previous Подзадача в том виде, в котором она была учтена в эпике.
+     * @param updated Обновлённая подзадача.
+     */
+    public void replaceSubtask(Subtask previous, Subtask updated) {
+        exclude(previous);
+        include(updated);
+        refreshState();
     }
 
     @Override
@@ -53,40 +137,55 @@ public class Epic extends Task {
                 getId(), TaskType.EPIC, getName(), getStatus(), getDescription(), getStartTimeFormatted(), getDuration().toMinutes());
     }
 
-    private void calculateAndSetTimeFields(List<Subtask> subtasks) {
-        duration = subtasks.stream()
-                .map(Task::getDuration)
-                .reduce(Duration.ZERO, Duration::plus);
-        startTime = subtasks.stream()
-                .map(Task::getStartTime)
-                .min(Comparator.naturalOrder())
-                .orElse(null);
-        endTime = subtasks.stream()
-                .map(t -> t.getStartTime().plus(duration))
-                .max(Comparator.naturalOrder())
-                .orElse(null);
+    private void include(Subtask subtask) {
+        subtaskCount++;
+        switch (subtask.getStatus()) {
+            case IN_PROGRESS -> inProgressCount++;
+            case DONE -> doneCount++;
+        }
+        duration = duration.plus(subtask.getDuration());
+        if (subtask.getStartTime() != null) {
+            subtaskStartTimes.merge(subtask.getStartTime(), 1, Integer::sum);
+        }
     }
 
-    private void calculateAndSetStatus(List<Subtask> subtasks) {
-        super.setStatus(getStatusBySubtasks(subtasks));
+    private void exclude(Subtask subtask) {
+        subtaskCount--;
+        switch (subtask.getStatus()) {
+            case IN_PROGRESS -> inProgressCount--;
+            case DONE -> doneCount--;
+        }
+        duration = duration.minus(subtask.getDuration());
+        if (subtask.getStartTime() != null) {
+            subtaskStartTimes.computeIfPresent(subtask.getStartTime(), (startTime, count) -> count > 1 ? count - 1 : null);
+        }
     }
 
-    private TaskStatus getStatusBySubtasks(List<Subtask> subtasks) {
-        if (subtasks.isEmpty()) {
-            return TaskStatus.NEW;
+    /**
+     * Обновляет статус и время эпика по агрегатам за O(log k).
+     * <p>
+     * Время окончания эпика — самое позднее время начала подзадачи плюс суммарная продолжительность подзадач.
+     */
+    private void refreshState() {
+        super.setStatus(getStatusBySubtasks());
+
+        if (subtaskStartTimes.isEmpty()) {
+            startTime = null;
+            endTime = null;
+        } else {
+            startTime = subtaskStartTimes.firstKey();
+            endTime = subtaskStartTimes.lastKey().plus(duration);
         }
+    }
 
-        boolean isAllDone = true;
-
-        for (Subtask subtask : subtasks) {
-            switch (subtask.getStatus()) {
-                case IN_PROGRESS -> {
-                    return TaskStatus.IN_PROGRESS;
-                }
-                case NEW -> isAllDone = false;
-            }
+    private TaskStatus getStatusBySubtasks() {
+        if (subtaskCount == 0) {
+            return TaskStatus.NEW;
+        }
+        if (inProgressCount > 0) {
+            return TaskStatus.IN_PROGRESS;
         }
 
-        return isAllDone ? TaskStatus.DONE : TaskStatus.NEW;
+        return doneCount == subtaskCount ? TaskStatus.DONE : TaskStatus.NEW;
     }
 }
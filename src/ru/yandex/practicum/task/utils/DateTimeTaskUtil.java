@@ -1,6 +1,7 @@
 package ru.yandex.practicum.task.utils;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 public class DateTimeTaskUtil {
@@ -13,4 +14,18 @@ public class DateTimeTaskUtil {
     public static LocalDateTime parse(String dateTime) {
         return LocalDateTime.parse(dateTime, formatter);
     }
+
+    /**
+     * Переводит дату и время в количество минут от эпохи (секунды и наносекунды отбрасываются).
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Переводит количество минут от эпохи в дату и время (обратно к {@link #toEpochMinute}).
+     */
+    public static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
 }
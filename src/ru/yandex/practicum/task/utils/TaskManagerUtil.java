@@ -4,9 +4,9 @@ import ru.yandex.practicum.task.tasks.Epic;
 import ru.yandex.practicum.task.tasks.Subtask;
 import ru.yandex.practicum.task.tasks.Task;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Optional;
+import java.util.List;
 
 public class TaskManagerUtil {
 
@@ -31,26 +31,25 @@ public class TaskManagerUtil {
         return (T) newTask;
     }
 
-    public static boolean isTimeIntersected(Task task, Collection<Task> tasks) {
-        Optional<Task> found = tasks.stream()
-                .filter(t -> !task.equals(t))
-                .filter(t -> isIntersectedByTime(t, task))
-                .findAny();
-
-        return found.isPresent();
+    /**
+     * Возвращает копию эпика вместе с id его подзадач и вычисляемым по ним состоянием.
+     */
+    public static Epic getCopyEpicWithState(Epic epic) {
+        Epic newEpic = getCopyTask(epic);
+        newEpic.copyStateFrom(epic);
+        return newEpic;
     }
 
-    private static boolean isIntersectedByTime(Task task1, Task task2) {
-        LocalDateTime start1 = task1.getStartTime();
-        LocalDateTime start2 = task2.getStartTime();
-        LocalDateTime end1 = task1.getStartTime().plus(task1.getDuration());
-        LocalDateTime end2 = task2.getStartTime().plus(task2.getDuration());
-
-        if (start1 == null || start2 == null) {
-            return false;
+    /**
+     * Возвращает копии задач в том же порядке; эпики копируются вместе с состоянием (см. {@link #getCopyEpicWithState}).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Task> List<T> getCopyTasks(Collection<T> tasks) {
+        List<T> copies = new ArrayList<>(tasks.size());
+        for (T task : tasks) {
+            copies.add(task instanceof Epic ? (T) getCopyEpicWithState((Epic) task) : getCopyTask(task));
         }
-
-        return !((start1.isAfter(end2) || start1.isEqual(end2)) || (end1.isBefore(start2) || end1.isEqual(start2)));
+        return copies;
     }
 
 }
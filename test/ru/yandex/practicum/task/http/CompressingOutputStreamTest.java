@@ -0,0 +1,82 @@
+package ru.yandex.practicum.task.http;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.http.enums.ContentEncoding;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingOutputStreamTest {
+
+    @Test
+    void gzipIsReadableByGzipInputStream() throws IOException {
+        byte[] data = createJson();
+
+        byte[] compressed = compress(data, ContentEncoding.GZIP);
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, in.readAllBytes(), "Распакованные данные не совпадают");
+        }
+        assertTrue(compressed.length < data.length / 10, "Повторяющийся JSON должен хорошо сжиматься");
+    }
+
+    @Test
+    void deflateIsReadableByInflaterInputStream() throws IOException {
+        byte[] data = createJson();
+
+        byte[] compressed = compress(data, ContentEncoding.DEFLATE);
+
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, in.readAllBytes(), "Распакованные данные не совпадают");
+        }
+    }
+
+    @Test
+    void pooledDeflaterProducesSameOutput() throws IOException {
+        byte[] data = createJson();
+
+        assertArrayEquals(compress(data, ContentEncoding.GZIP), compress(data, ContentEncoding.GZIP),
+                "Переиспользованный Deflater должен сжимать так же, как новый");
+    }
+
+    @Test
+    void negotiateEncoding() {
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate(null), "Без заголовка сжатие не применяется");
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("deflate, gzip"), "При равных весах выбирается gzip");
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0.5, deflate"), "Выбирается больший вес");
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("gzip;q=0, br"), "q=0 запрещает кодирование");
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*"), "* означает gzip");
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, *"),
+                "* не должен разрешать явно запрещённый gzip");
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("*;q=0"), "*;q=0 запрещает сжатие");
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("*;q=0, deflate"),
+                "Явно разрешённое кодирование выбирается несмотря на *;q=0");
+    }
+
+    private static byte[] compress(byte[] data, ContentEncoding encoding) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream compressing = new CompressingOutputStream(out, encoding)) {
+            compressing.write(data, 0, 100);
+            compressing.write(data[100]);
+            compressing.write(data, 101, data.length - 101);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] createJson() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            json.append("{\"id\":").append(i).append(",\"name\":\"Задача ").append(i)
+                    .append("\",\"status\":\"NEW\"},");
+        }
+        return json.append("{}]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
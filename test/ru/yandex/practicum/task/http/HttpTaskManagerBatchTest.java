@@ -0,0 +1,142 @@
+package ru.yandex.practicum.task.http;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpTaskManagerBatchTest extends HttpTaskManagerTest {
+    private final String baseUrl = "http://localhost:8080/batch";
+
+    @Test
+    void batchAppliesOperationsInOrderAndReportsEach() throws IOException, InterruptedException {
+        Epic epic = manager.createEpic(new Epic("Test batch epic", "Testing epic", TaskStatus.NEW));
+        LocalDateTime startTime = LocalDateTime.of(2025, Month.FEBRUARY, 16, 10, 0);
+        String task = gson.toJson(new Task("Test batch task", "Testing task", TaskStatus.NEW, startTime, 30));
+        String subtask = gson.toJson(new Subtask("Test batch subtask", "Testing subtask", TaskStatus.DONE,
+                epic.getId(), startTime.plusHours(1), 30));
+        String body = "["
+                + "{\"action\":\"CREATE\",\"type\":\"TASK\",\"task\":" + task + "},"
+                + "{\"action\":\"CREATE\",\"type\":\"TASK\",\"task\":" + task + "},"
+                + "{\"action\":\"CREATE\",\"type\":\"SUBTASK\",\"task\":" + subtask + "},"
+                + "{\"action\":\"DELETE\",\"type\":\"TASK\",\"id\":999999},"
+                + "{\"action\":\"UPDATE\",\"type\":\"TASK\",\"task\":{\"name\":\"No id\"}},"
+                + "{\"action\":\"DELETE\",\"type\":\"EPIC\",\"id\":" + epic.getId() + "}"
+                + "]";
+
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        BatchResult[] results = gson.fromJson(response.body(), BatchResult[].class);
+
+        assertEquals(200, response.statusCode(), "Код ответа не совпадает");
+        assertEquals(6, results.length, "Результат должен возвращаться для каждой операции");
+        assertEquals(201, results[0].code, "Задача должна быть создана");
+        assertEquals(406, results[1].code, "Пересечение по времени должно возвращать 406");
+        assertEquals(201, results[2].code, "Подзадача должна быть создана");
+        assertEquals(404, results[3].code, "Удаление несуществующей задачи должно возвращать 404");
+        assertEquals(400, results[4].code, "Обновление без id должно возвращать 400");
+        assertEquals(201, results[5].code, "Эпик должен быть удалён");
+        assertEquals(results[0].id, manager.getAllTasks().getFirst().getId(), "Id созданной задачи не совпадает");
+        assertEquals(1, manager.getAllTasks().size(), "Неверное количество задач");
+        assertEquals(0, manager.getAllSubtasks().size(), "Подзадачи удалённого эпика должны быть удалены");
+    }
+
+    @Test
+    void batchReportsOperationWithoutRequiredFields() throws IOException, InterruptedException {
+        String task = gson.toJson(new Task("Test batch task", "Testing task", TaskStatus.NEW));
+        String body = "["
+                + "{\"action\":\"CREATE\",\"type\":\"TASK\",\"task\":" + task + "},"
+                + "{\"action\":\"CREATE\",\"type\":\"TASK\",\"task\":{\"name\":\"No status\",\"duration\":5}},"
+                + "{\"action\":\"CREATE\",\"type\":\"EPIC\",\"task\":{\"status\":\"NEW\"}}"
+                + "]";
+
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        BatchResult[] results = gson.fromJson(response.body(), BatchResult[].class);
+
+        assertEquals(200, response.statusCode(), "Ошибка операции не должна отклонять весь пакет");
+        assertEquals(3, results.length, "Результат должен возвращаться для каждой операции");
+        assertEquals(201, results[0].code, "Задача должна быть создана");
+        assertEquals(400, results[1].code, "Задача без статуса должна возвращать 400");
+        assertEquals(400, results[2].code, "Эпик без названия должен возвращать 400");
+        assertEquals(1, manager.getAllTasks().size(), "Неверное количество задач");
+        assertTrue(manager.getAllEpics().isEmpty(), "Эпик без названия не должен создаваться");
+    }
+
+    @Test
+    void batchRejectsInvalidSubtaskBeforeChanges() throws IOException, InterruptedException {
+        Task task = manager.createTask(new Task("Test batch task", "Testing task", TaskStatus.NEW));
+        Epic epic = manager.createEpic(new Epic("Test batch epic", "Testing epic", TaskStatus.NEW));
+        String subtaskOfTask = gson.toJson(new Subtask("Test batch subtask", "Testing subtask", TaskStatus.NEW,
+                task.getId()));
+        String subtaskWithoutDuration = "{\"name\":\"No duration\",\"status\":\"NEW\",\"epicId\":" + epic.getId() + "}";
+        String body = "["
+                + "{\"action\":\"CREATE\",\"type\":\"SUBTASK\",\"task\":" + subtaskOfTask + "},"
+                + "{\"action\":\"CREATE\",\"type\":\"SUBTASK\",\"task\":" + subtaskWithoutDuration + "},"
+                + "{\"action\":\"UPDATE\",\"type\":\"SUBTASK\",\"id\":" + task.getId() + ",\"task\":"
+                + gson.toJson(new Subtask("Test batch subtask", "Testing subtask", TaskStatus.NEW, epic.getId())) + "}"
+                + "]";
+
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        BatchResult[] results = gson.fromJson(response.body(), BatchResult[].class);
+
+        assertEquals(200, response.statusCode(), "Код ответа не совпадает");
+        assertEquals(404, results[0].code, "Подзадача задачи, а не эпика, должна возвращать 404");
+        assertEquals(400, results[1].code, "Подзадача без длительности должна возвращать 400");
+        assertEquals(400, results[2].code, "Обновление подзадачи по id задачи должно возвращать 400");
+        assertTrue(manager.getAllSubtasks().isEmpty(), "Отклонённые подзадачи не должны сохраняться");
+        assertEquals(List.of(task), manager.getAllTasks(), "Задача не должна меняться");
+    }
+
+    @Test
+    void batchRejectsInvalidBody() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"action\":\"CREATE\"}"))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode(), "Код ответа не совпадает");
+    }
+
+    @Test
+    void batchRejectsNullBody() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl))
+                .POST(HttpRequest.BodyPublishers.ofString("null"))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode(), "Код ответа не совпадает");
+        assertTrue(response.body().contains("массивом операций"), "В ответе нет причины ошибки: " + response.body());
+    }
+}
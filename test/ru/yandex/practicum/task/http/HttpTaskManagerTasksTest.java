@@ -6,14 +6,24 @@ import ru.yandex.practicum.task.enums.TaskStatus;
 import ru.yandex.practicum.task.http.errors.ErrorResponse;
 import ru.yandex.practicum.task.tasks.Task;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.Socket;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpTaskManagerTasksTest extends HttpTaskManagerTest {
     private final String baseUrl = "http://localhost:8080/tasks/";
@@ -180,6 +190,23 @@ class HttpTaskManagerTasksTest extends HttpTaskManagerTest {
         assertEquals("Задача пересекается с другой задачей по времени", error.message, "Сообщение об ошибке не совпадает");
     }
 
+    @Test
+    void addTaskWithStartTimeOutOfRange() throws IOException, InterruptedException {
+        Task task = new Task("Test task out of range", "Testing task", TaskStatus.NEW,
+                LocalDateTime.of(100_000, 1, 1, 10, 0), 10);
+
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl))
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode(), "Код ответа не совпадает");
+        assertTrue(manager.getAllTasks().isEmpty(), "Задача не должна сохраняться");
+    }
+
     @Test
     void deleteTaskNotFound() throws IOException, InterruptedException {
         int id = 1;
@@ -198,4 +225,149 @@ class HttpTaskManagerTasksTest extends HttpTaskManagerTest {
 
         assertEquals("Задача с id = " + id + " не найдена", error.message, "Сообщение об ошибке не совпадает");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTasksPage() throws IOException, InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            manager.createTask(new Task("Test get tasks page " + i, "Testing task", TaskStatus.NEW));
+        }
+        int afterId = manager.getAllTasks().get(1).getId();
+
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl + "?after=" + afterId + "&limit=2"))
+                .header("Accept", "application/json;charset=utf-8")
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        List<Task> parsed = gson.fromJson(response.body(), new TasksTypeToken().getType());
+
+        assertEquals(200, response.statusCode(), "Код ответа не совпадает");
+        assertEquals(2, parsed.size(), "Некорректный размер страницы");
+        assertEquals(manager.getAllTasks().get(2).getId(), parsed.getFirst().getId(), "Страница должна начинаться после курсора");
+    }
+
+    @Test
+    void getTasksPageWithInvalidLimit() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl + "?limit=0"))
+                .header("Accept", "application/json;charset=utf-8")
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode(), "Код ответа не совпадает");
+    }
+
+    @Test
+    void badlyEncodedQueryIsBadRequest() throws IOException {
+        Task created = manager.createTask(new Task("Test bad query", "Testing task", TaskStatus.NEW));
+
+        // HttpClient не отправляет неверно закодированный URI, поэтому запрос пишется в сокет напрямую.
+        for (String path : List.of("/tasks/" + created.getId() + "?pretty=%zz", "/tasks?pretty=%zz")) {
+            try (Socket socket = new Socket("localhost", 8080)) {
+                socket.setSoTimeout(5000);
+                socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                        StandardCharsets.UTF_8)).readLine();
+
+                assertEquals("HTTP/1.1 400 Bad Request", statusLine, "Код ответа не совпадает для " + path);
+            }
+        }
+    }
+
+    @Test
+    void getTasksIsCompactUnlessPrettyRequested() throws IOException, InterruptedException {
+        manager.createTask(new Task("Test «pretty» tasks 🙂", "Testing task", TaskStatus.NEW, LocalDateTime.now(), 5));
+
+        HttpResponse<String> compact = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> pretty = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl + "?pretty=true"))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        List<Task> parsed = gson.fromJson(compact.body(), new TasksTypeToken().getType());
+
+        assertFalse(compact.body().contains("\n"), "По умолчанию JSON должен быть компактным");
+        assertTrue(pretty.body().contains("\n  "), "С параметром pretty JSON должен содержать отступы");
+        assertEquals("Test «pretty» tasks 🙂", parsed.getFirst().getName(), "Некорректное имя задачи");
+        assertEquals(parsed.size(), ((List<?>) gson.fromJson(pretty.body(), List.class)).size(),
+                "Количество задач не совпадает");
+    }
+
+    @Test
+    void getTasksAnswersNotModifiedForSameEtag() throws IOException, InterruptedException {
+        Task task = manager.createTask(new Task("Test etag task", "Testing task", TaskStatus.NEW));
+        HttpResponse<String> first = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> unchanged = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl))
+                .header("If-None-Match", etag).GET().build(), HttpResponse.BodyHandlers.ofString());
+        task.setStatus(TaskStatus.DONE);
+        manager.updateTask(task);
+        HttpResponse<String> changed = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl))
+                .header("If-None-Match", etag).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(304, unchanged.statusCode(), "Неизменённый список не должен отправляться повторно");
+        assertTrue(unchanged.body().isEmpty(), "Ответ 304 не должен содержать тело");
+        assertEquals(200, changed.statusCode(), "Изменённый список должен отправляться");
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow(), "ETag должен меняться с данными");
+    }
+
+    @Test
+    void getTasksIsCompressedWhenAcceptedAndLarge() throws IOException, InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            manager.createTask(new Task("Test gzip task " + i, "Testing task", TaskStatus.NEW));
+        }
+
+        HttpResponse<String> plain = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<byte[]> gzip = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl))
+                .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> small = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl + "?limit=1"))
+                .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty(), "Без Accept-Encoding ответ не сжимается");
+        assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElse(null), "Ответ должен быть сжат");
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+            assertEquals(plain.body(), new String(in.readAllBytes(), StandardCharsets.UTF_8), "Тела ответов не совпадают");
+        }
+        assertTrue(small.headers().firstValue("Content-Encoding").isEmpty(), "Короткий ответ не должен сжиматься");
+        assertEquals(String.valueOf(small.body().length), small.headers().firstValue("Content-Length").orElse(null),
+                "Короткий ответ должен отправляться с Content-Length");
+    }
+
+    @Test
+    void getTasksEtagDependsOnAppliedEncoding() throws IOException, InterruptedException {
+        manager.createTask(new Task("Test etag task", "Testing task", TaskStatus.NEW));
+        HttpRequest plainRequest = HttpRequest.newBuilder().uri(URI.create(baseUrl)).GET().build();
+        HttpRequest gzipRequest = HttpRequest.newBuilder().uri(URI.create(baseUrl))
+                .header("Accept-Encoding", "gzip").GET().build();
+
+        HttpResponse<byte[]> smallPlain = client.send(plainRequest, HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> smallGzip = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertTrue(smallGzip.headers().firstValue("Content-Encoding").isEmpty(), "Короткий ответ не должен сжиматься");
+        assertEquals(smallPlain.headers().firstValue("ETag").orElseThrow(),
+                smallGzip.headers().firstValue("ETag").orElseThrow(), "Одинаковые несжатые тела должны иметь один ETag");
+
+        for (int i = 0; i < 100; i++) {
+            manager.createTask(new Task("Test etag task " + i, "Testing task", TaskStatus.NEW));
+        }
+        HttpResponse<byte[]> largePlain = client.send(plainRequest, HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> largeGzip = client.send(gzipRequest, HttpResponse.BodyHandlers.ofByteArray());
+        String gzipEtag = largeGzip.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<byte[]> notModified = client.send(HttpRequest.newBuilder().uri(URI.create(baseUrl))
+                .header("Accept-Encoding", "gzip").header("If-None-Match", gzipEtag).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals("gzip", largeGzip.headers().firstValue("Content-Encoding").orElse(null), "Ответ должен быть сжат");
+        assertNotEquals(largePlain.headers().firstValue("ETag").orElseThrow(), gzipEtag,
+                "Сжатый ответ должен иметь свой ETag");
+        assertEquals(304, notModified.statusCode(), "ETag сжатого ответа должен подходить для условного запроса");
+        assertEquals(gzipEtag, notModified.headers().firstValue("ETag").orElse(null), "Ответ 304 должен вернуть тот же ETag");
+    }
+}
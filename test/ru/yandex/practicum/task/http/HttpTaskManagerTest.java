@@ -23,6 +23,11 @@ class HttpTaskManagerTest {
     protected final HttpClient client = HttpClient.newHttpClient();
     private final HttpTaskServer taskServer = new HttpTaskServer(manager);
 
+    static {
+        // Как при запуске из main: без TCP_NODELAY каждый ответ по keep-alive соединению задерживается.
+        HttpTaskServer.enableTcpNoDelay();
+    }
+
     @BeforeEach
     void setUp() {
         manager.deleteAllTasks();
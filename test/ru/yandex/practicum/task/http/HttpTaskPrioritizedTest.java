@@ -4,11 +4,14 @@ import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.task.typeTokens.TasksTypeToken;
 import ru.yandex.practicum.task.enums.TaskStatus;
 import ru.yandex.practicum.task.tasks.Task;
+import ru.yandex.practicum.task.utils.DateTimeTaskUtil;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -37,4 +40,44 @@ class HttpTaskPrioritizedTest extends HttpTaskManagerTest {
         assertEquals(task.getName(), parsed.getFirst().getName(), "Некорректное имя задачи");
     }
 
-}
\ No newline at end of file
+    @Test
+    void getPrioritizedTasksPage() throws IOException, InterruptedException {
+        LocalDateTime startTime = LocalDateTime.of(2025, 2, 16, 10, 0);
+        for (int i = 0; i < 4; i++) {
+            manager.createTask(new Task("Test prioritized page " + i, "Testing task", TaskStatus.NEW, startTime, 0));
+        }
+        Task first = manager.getPrioritizedTasks().iterator().next();
+        String afterStart = URLEncoder.encode(DateTimeTaskUtil.format(first.getStartTime()), StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl + "?after=" + first.getId() + "&afterStart=" + afterStart + "&limit=2"))
+                .header("Accept", "application/json;charset=utf-8")
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        List<Task> parsed = gson.fromJson(response.body(), new TasksTypeToken().getType());
+
+        assertEquals(200, response.statusCode(), "Код ответа не совпадает");
+        assertEquals(2, parsed.size(), "Некорректный размер страницы");
+        assertEquals(first.getId() + 1, parsed.getFirst().getId(), "Страница должна начинаться после курсора");
+    }
+
+    @Test
+    void getPrioritizedTasksPageWithoutAfterStart() throws IOException, InterruptedException {
+        Task task = manager.createTask(new Task("Test prioritized cursor", "Testing task", TaskStatus.NEW,
+                LocalDateTime.of(2025, 2, 16, 10, 0), 5));
+
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create(baseUrl + "?after=" + task.getId()))
+                .header("Accept", "application/json;charset=utf-8")
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode(), "Курсор без afterStart должен отклоняться, а не возвращать первую страницу");
+    }
+}
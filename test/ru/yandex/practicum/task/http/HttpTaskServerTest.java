@@ -0,0 +1,346 @@
+package ru.yandex.practicum.task.http;
+
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.http.adapters.DurationTypeAdapter;
+import ru.yandex.practicum.task.http.adapters.LocalDateTimeTypeAdapter;
+import ru.yandex.practicum.task.http.enums.DispatcherMode;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.interfaces.TaskManager;
+import ru.yandex.practicum.task.managers.AsyncFileBackedTaskManager;
+import ru.yandex.practicum.task.managers.FileBackedTaskManager;
+import ru.yandex.practicum.task.managers.InMemoryTaskManager;
+import ru.yandex.practicum.task.managers.Managers;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpTaskServerTest {
+    private static final int PORT = 8081;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HttpTaskServer taskServer;
+
+    static {
+        // Как при запуске из main: без TCP_NODELAY каждый ответ по keep-alive соединению задерживается.
+        HttpTaskServer.enableTcpNoDelay();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    void virtualThreadServerHandlesRequests() throws IOException, InterruptedException {
+        startServer(DispatcherMode.VIRTUAL);
+
+        assertEquals(200, getTasks().statusCode(), "Код ответа не совпадает");
+    }
+
+    @Test
+    void slowClientDoesNotBlockPooledServer() throws IOException, InterruptedException {
+        startServer(DispatcherMode.POOL);
+
+        try (Socket slowClient = new Socket("localhost", PORT)) {
+            OutputStream os = slowClient.getOutputStream();
+            os.write("GET /tasks HTTP/1.1\r\nHost: localhost\r\n".getBytes(StandardCharsets.UTF_8));
+            os.flush();
+
+            assertEquals(200, getTasks().statusCode(), "Код ответа не совпадает");
+        }
+    }
+
+    @Test
+    void stopFlushesDeferredChanges() throws IOException {
+        File file = File.createTempFile("temp", ".txt");
+        AsyncFileBackedTaskManager manager = AsyncFileBackedTaskManager.create(file, 60_000);
+        try {
+            startServer(DispatcherMode.POOL, manager);
+            Task task = manager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+
+            taskServer.stop();
+
+            assertEquals(0, manager.getPendingChanges(), "Изменения должны быть записаны при остановке сервера");
+            assertEquals(task, FileBackedTaskManager.loadFromFile(file).getTask(task.getId()), "Задачи не совпадают");
+        } finally {
+            manager.close();
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    void statusShowsDeferredPersistenceLag() throws IOException, InterruptedException {
+        File file = File.createTempFile("temp", ".txt");
+        AsyncFileBackedTaskManager manager = AsyncFileBackedTaskManager.create(file, 60_000);
+        try {
+            startServer(DispatcherMode.POOL, manager);
+            manager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+            Thread.sleep(20);
+
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + PORT + "/status")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            StatusResponse status = new GsonBuilder().create().fromJson(response.body(), StatusResponse.class);
+
+            assertEquals(200, response.statusCode(), "Код ответа не совпадает");
+            assertTrue(status.deferredPersistence, "Менеджер откладывает запись");
+            assertEquals(1, status.pendingChanges, "Изменение ещё не записано в файл");
+            assertTrue(status.persistenceLagMillis >= 20, "Отставание файла должно расти: " + status.persistenceLagMillis);
+        } finally {
+            manager.close();
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    void sequentialRequestsReuseOneConnection() throws IOException {
+        TaskManager manager = Managers.getInMemoryManager();
+        Task task = manager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        startServer(DispatcherMode.POOL, manager);
+        Task updated = new Task("Test task", "Updated", TaskStatus.DONE);
+        updated.setId(task.getId());
+        String update = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+                .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+                .create()
+                .toJson(updated);
+        byte[] updateBody = update.getBytes(StandardCharsets.UTF_8);
+
+        try (Socket socket = new Socket("localhost", PORT)) {
+            socket.setSoTimeout(5000);
+            OutputStream os = socket.getOutputStream();
+            InputStream is = new BufferedInputStream(socket.getInputStream());
+
+            for (int i = 0; i < 10_000; i++) {
+                String request = switch (i % 3) {
+                    case 0 -> "GET /tasks/" + task.getId() + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+                    case 1 -> "GET /tasks/999999 HTTP/1.1\r\nHost: localhost\r\n\r\n";
+                    default -> "POST /tasks HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + updateBody.length
+                            + "\r\n\r\n" + update;
+                };
+                os.write(request.getBytes(StandardCharsets.UTF_8));
+                os.flush();
+
+                int expectedCode = switch (i % 3) {
+                    case 0 -> 200;
+                    case 1 -> 404;
+                    default -> 201;
+                };
+                assertEquals(expectedCode, readResponse(is), "Код ответа не совпадает в запросе " + i);
+            }
+        }
+        assertEquals("Updated", manager.getTask(task.getId()).getDescription(), "Задача не обновлена");
+    }
+
+    @Test
+    void pooledServerRejectsOverflowWithoutBlockingDispatcher() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TaskManager blockingManager = new InMemoryTaskManager() {
+            @Override
+            public List<Task> getAllTasks() {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getAllTasks();
+            }
+        };
+        startServer(DispatcherMode.POOL, blockingManager);
+        // Два потока пула заняты, и в очередь помещается 128 запросов: часть из 200 должна получить 503.
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create("http://localhost:" + PORT + "/tasks"))
+                .timeout(Duration.ofSeconds(20))
+                .GET()
+                .build();
+        for (int i = 0; i < 200; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        HttpResponse<?> rejected = (HttpResponse<?>) CompletableFuture
+                .anyOf(responses.toArray(new CompletableFuture<?>[0]))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(1, release.getCount(), "Ответ 503 должен прийти, пока потоки пула заняты");
+        release.countDown();
+
+        assertEquals(503, rejected.statusCode(), "Лишний запрос должен получить 503");
+        assertEquals(String.valueOf(OverloadFilter.RETRY_AFTER_SECONDS), rejected.headers().firstValue("Retry-After").orElse(null),
+                "В ответе 503 нет Retry-After");
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            int code = response.get(20, TimeUnit.SECONDS).statusCode();
+            assertTrue(code == 200 || code == 503, "Неожиданный код ответа: " + code);
+            ok += code == 200 ? 1 : 0;
+        }
+        assertTrue(ok >= 130, "Запросы, попавшие в пул, должны быть выполнены: " + ok);
+    }
+
+    @Test
+    void serializationErrorBeforeFirstByteReturnsServerError() throws IOException, InterruptedException {
+        TaskManager brokenManager = new InMemoryTaskManager() {
+            @Override
+            public List<Task> getAllTasks() {
+                return List.of(new UnserializableTask());
+            }
+        };
+        startServer(DispatcherMode.POOL, brokenManager);
+
+        HttpResponse<String> response = getTasks();
+
+        assertEquals(500, response.statusCode(), "Ошибка сериализации должна давать 500, а не неполный ответ 200");
+        assertTrue(response.body().contains("500"), "В теле ответа нет описания ошибки: " + response.body());
+    }
+
+    @Test
+    void clientDisconnectMidResponseReturnsDeflaterToPool() throws Exception {
+        CountDownLatch disconnected = new CountDownLatch(1);
+        int count = 4000;
+        List<Task> tasks = new AbstractList<>() {
+            @Override
+            public Task get(int index) {
+                if (index == count / 2) {
+                    // Половина ответа уже сжата и отправлена: дальше сервер пишет в закрытое клиентом соединение.
+                    try {
+                        disconnected.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                // Случайные описания почти не сжимаются, поэтому остаток ответа не помещается в буфер сокета.
+                Task task = new Task("Task " + index, UUID.randomUUID().toString().repeat(8), TaskStatus.NEW);
+                task.setId(index + 1);
+                return task;
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+        startServer(DispatcherMode.POOL, new InMemoryTaskManager() {
+            @Override
+            public List<Task> getAllTasks() {
+                return tasks;
+            }
+        });
+        int pooledBefore = DeflaterPool.pooledCount(true);
+
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(4096);
+            socket.connect(new InetSocketAddress("localhost", PORT));
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(("GET /tasks HTTP/1.1\r\nHost: localhost\r\nAccept-Encoding: gzip\r\n\r\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            assertTrue(readLine(socket.getInputStream()).contains(" 200"), "Ответ должен начаться до отключения");
+            // Закрытие с нулевым SO_LINGER сбрасывает соединение, как при обрыве связи.
+            socket.setSoLinger(true, 0);
+        }
+        disconnected.countDown();
+
+        // Пустой пул получает новый экземпляр, иначе из пула берётся и возвращается тот же.
+        int pooledExpected = Math.max(pooledBefore, 1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (DeflaterPool.pooledCount(true) != pooledExpected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(pooledExpected, DeflaterPool.pooledCount(true), "Deflater прерванного ответа не вернулся в пул");
+    }
+
+    private void startServer(DispatcherMode mode) {
+        startServer(mode, Managers.getInMemoryManager());
+    }
+
+    private void startServer(DispatcherMode mode, TaskManager taskManager) {
+        HttpServerConfig config = new HttpServerConfig("localhost", PORT, 16, mode, 2);
+        taskServer = new HttpTaskServer(taskManager, config);
+        taskServer.start();
+    }
+
+    /**
+     * Читает ответ с тела фиксированной длины, оставляя соединение открытым для следующего запроса.
+     * @return Код ответа.
+     */
+    private static int readResponse(InputStream is) throws IOException {
+        String statusLine = readLine(is);
+        int contentLength = -1;
+        String line;
+        while (!(line = readLine(is)).isEmpty()) {
+            String header = line.toLowerCase();
+            assertFalse(header.startsWith("transfer-encoding"), "Ответ не должен передаваться частями: " + line);
+            assertFalse(header.startsWith("connection: close"), "Сервер не должен закрывать соединение");
+            if (header.startsWith("content-length:")) {
+                contentLength = Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+            }
+        }
+        assertTrue(contentLength >= 0, "В ответе нет Content-Length: " + statusLine);
+        assertEquals(contentLength, is.readNBytes(contentLength).length, "Тело ответа короче Content-Length");
+        return Integer.parseInt(statusLine.split(" ")[1]);
+    }
+
+    private static String readLine(InputStream is) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = is.read()) != '\n') {
+            if (b == -1) {
+                throw new EOFException("Сервер закрыл соединение");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Задача с полем, которое Gson не может сериализовать: поля {@link Thread} закрыты модулем {@code java.base}.
+     */
+    private static class UnserializableTask extends Task {
+        private final Thread owner = Thread.currentThread();
+
+        UnserializableTask() {
+            super("Broken task", "Broken task description", TaskStatus.NEW);
+            setId(1);
+        }
+    }
+
+    private HttpResponse<String> getTasks() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest
+                .newBuilder()
+                .uri(URI.create("http://localhost:" + PORT + "/tasks"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+}
@@ -0,0 +1,54 @@
+package ru.yandex.practicum.task.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OverloadFilterTest {
+    private final OverloadFilter filter = new OverloadFilter();
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        filter.shutdown();
+        pool.shutdown();
+    }
+
+    @Test
+    void rejectionHandlerDropsRequestsWhenItsPoolIsFull() {
+        RejectedExecutionHandler handler = filter.rejectionHandler();
+        Runnable blocked = () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        for (int i = 0; i < OverloadFilter.REJECTION_THREADS + OverloadFilter.REJECTION_QUEUE_SIZE; i++) {
+            handler.rejectedExecution(blocked, pool);
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> handler.rejectedExecution(blocked, pool),
+                "При занятом пуле ответов 503 запрос должен отклоняться, а не получать новый поток");
+    }
+
+    @Test
+    void rejectionHandlerRejectsAfterShutdown() {
+        pool.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> filter.rejectionHandler().rejectedExecution(() -> {
+        }, pool), "После остановки пула запросы должны отклоняться");
+    }
+}
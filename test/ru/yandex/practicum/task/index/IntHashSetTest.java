@@ -0,0 +1,62 @@
+package ru.yandex.practicum.task.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+
+    @Test
+    void addRemoveContains() {
+        IntHashSet set = new IntHashSet();
+
+        assertTrue(set.add(5), "Значение не было добавлено");
+        assertFalse(set.add(5), "Повторное значение было добавлено");
+        assertTrue(set.add(0), "Ноль не был добавлен");
+        assertTrue(set.contains(0), "Ноль не найден");
+        assertEquals(2, set.size(), "Неверный размер множества");
+        assertTrue(set.remove(5), "Значение не было удалено");
+        assertFalse(set.contains(5), "Удалённое значение найдено");
+        assertFalse(set.remove(5), "Отсутствующее значение было удалено");
+        assertArrayEquals(new int[]{0}, set.toSortedArray(), "Неверное содержимое множества");
+    }
+
+    @Test
+    void matchesHashSet() {
+        Random random = new Random(11);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value), "Результат удаления не совпадает");
+            } else {
+                assertEquals(expected.add(value), set.add(value), "Результат добавления не совпадает");
+            }
+        }
+
+        assertEquals(expected.size(), set.size(), "Неверный размер множества");
+        for (int value = -100; value < 4_900; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "Результат поиска не совпадает для " + value);
+        }
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), set.toSortedArray(),
+                "Неверное содержимое множества");
+    }
+
+    @Test
+    void copyIsIndependent() {
+        IntHashSet set = new IntHashSet();
+        set.add(1);
+        IntHashSet copy = new IntHashSet(set);
+        copy.add(2);
+
+        assertEquals(1, set.size(), "Изменение копии затронуло исходное множество");
+        assertEquals(2, copy.size(), "Неверный размер копии");
+    }
+
+}
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.task.index;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Замер объёма кучи, который занимает {@link IntObjectHashMap} с миллионом записей, в сравнении с {@link HashMap}.
+ * Не является тестом: запускается вручную, так как результат зависит от сборщика мусора и работы {@link System#gc()}.
+ * <p>
+ * Все записи ссылаются на один и тот же объект, поэтому учитываются только накладные расходы самой таблицы.
+ * Аргумент: количество записей (по умолчанию 1 000 000).
+ */
+public class IntObjectHashMapBenchmark {
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Object value = new Object();
+
+        long hashMapBytes = retainedBytes(() -> {
+            Map<Integer, Object> map = new HashMap<>();
+            for (int id = 1; id <= entries; id++) {
+                map.put(id, value);
+            }
+            return map;
+        });
+        long intMapBytes = retainedBytes(() -> {
+            IntObjectHashMap<Object> map = new IntObjectHashMap<>();
+            for (int id = 1; id <= entries; id++) {
+                map.put(id, value);
+            }
+            return map;
+        });
+
+        System.out.printf("HashMap: %.1f байт на запись, IntObjectHashMap: %.1f байт на запись%n",
+                (double) hashMapBytes / entries, (double) intMapBytes / entries);
+    }
+
+    private static long retainedBytes(Supplier<Object> factory) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeapAfterGc(memory);
+        Object retained = factory.get();
+        long after = usedHeapAfterGc(memory);
+        if (retained == null) {
+            throw new IllegalStateException("Таблица не создана");
+        }
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+}
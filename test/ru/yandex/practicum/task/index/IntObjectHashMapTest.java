@@ -0,0 +1,95 @@
+package ru.yandex.practicum.task.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectHashMapTest {
+    private static final int REFERENCE_BYTES = 4;
+    private static final int HASH_MAP_NODE_BYTES = 32;
+    private static final int INTEGER_BYTES = 16;
+
+    @Test
+    void putGetRemove() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        assertNull(map.put(1, "one"), "Для нового ключа возвращено предыдущее значение");
+        assertEquals("one", map.put(1, "uno"), "Не возвращено предыдущее значение");
+        assertNull(map.put(0, "zero"), "Для нового ключа возвращено предыдущее значение");
+        assertEquals("uno", map.get(1), "Неверное значение по ключу");
+        assertEquals("zero", map.get(0), "Неверное значение по нулевому ключу");
+        assertEquals(2, map.size(), "Неверный размер таблицы");
+        assertEquals("uno", map.remove(1), "Неверное удалённое значение");
+        assertNull(map.get(1), "Удалённое значение найдено");
+        assertNull(map.remove(1), "Отсутствующий ключ был удалён");
+        assertIterableEquals(List.of("zero"), map.values(), "Неверное содержимое таблицы");
+        assertThrows(NullPointerException.class, () -> map.put(2, null));
+    }
+
+    @Test
+    void ensureCapacityKeepsEntries() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "one");
+
+        map.ensureCapacity(1_000);
+        int capacity = map.capacity();
+        for (int i = 2; i <= 1_000; i++) {
+            map.put(i, String.valueOf(i));
+        }
+
+        assertEquals("one", map.get(1), "Значение потеряно при расширении таблицы");
+        assertEquals(1_000, map.size(), "Неверный размер таблицы");
+        assertEquals(capacity, map.capacity(), "Таблица перестроена, хотя места было достаточно");
+    }
+
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(3);
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "Результат удаления не совпадает");
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i), "Результат добавления не совпадает");
+            }
+        }
+
+        assertEquals(expected.size(), map.size(), "Неверный размер таблицы");
+        for (int key = -100; key < 4_900; key++) {
+            assertEquals(expected.get(key), map.get(key), "Значение не совпадает для ключа " + key);
+        }
+        List<Integer> values = new ArrayList<>(map.values());
+        Collections.sort(values);
+        List<Integer> expectedValues = new ArrayList<>(expected.values());
+        Collections.sort(expectedValues);
+        assertEquals(expectedValues, values, "Значения таблиц не совпадают");
+    }
+
+    /**
+     * Сравнивает объём таблицы с миллионом записей, вычисленный по длине её массивов, с нижней оценкой для {@link HashMap}:
+     * даже без массива корзин каждая запись {@code HashMap} — это узел {@code HashMap.Node} и упакованный
+     * {@link Integer}. Размеры указаны для сжатых указателей. Объём в куче измеряет {@link IntObjectHashMapBenchmark}.
+     */
+    @Test
+    void footprintComparedToHashMap() {
+        int entries = 1_000_000;
+        Object value = new Object();
+        IntObjectHashMap<Object> map = new IntObjectHashMap<>();
+        for (int id = 1; id <= entries; id++) {
+            map.put(id, value);
+        }
+
+        long intMapBytes = (long) map.capacity() * (Integer.BYTES + REFERENCE_BYTES);
+        long hashMapBytes = (long) entries * (HASH_MAP_NODE_BYTES + INTEGER_BYTES);
+
+        assertTrue(map.capacity() < entries * 4, "Таблица занимает слишком много ячеек: " + map.capacity());
+        assertTrue(intMapBytes * 2 < hashMapBytes,
+                "IntObjectHashMap занимает " + intMapBytes + " байт против " + hashMapBytes + " у HashMap");
+    }
+
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.task.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedIntObjectHashMapTest {
+    OrderedIntObjectHashMap<String> map;
+
+    @BeforeEach
+    void beforeEach() {
+        map = new OrderedIntObjectHashMap<>();
+    }
+
+    @Test
+    void page() {
+        for (int key = 1; key <= 10; key++) {
+            map.put(key * 10, "v" + key);
+        }
+
+        assertEquals(List.of("v1", "v2", "v3"), map.page(0, 3), "Неверная первая страница");
+        assertEquals(List.of("v4", "v5"), map.page(30, 2), "Неверная страница после существующего ключа");
+        assertEquals(List.of("v4", "v5"), map.page(35, 2), "Неверная страница после отсутствующего ключа");
+        assertEquals(List.of("v10"), map.page(90, 5), "Неверная последняя страница");
+        assertTrue(map.page(100, 5).isEmpty(), "Страница после последнего ключа должна быть пустой");
+        assertTrue(map.page(0, 0).isEmpty(), "Страница нулевого размера должна быть пустой");
+    }
+
+    @Test
+    void pageFollowsChangesAfterFirstRead() {
+        map.put(1, "a");
+        map.put(3, "c");
+        assertEquals(List.of("a", "c"), map.page(0, 10), "Неверная страница до изменений");
+
+        map.put(2, "b");
+        map.put(3, "C");
+        map.remove(1);
+
+        assertEquals(List.of("b", "C"), map.page(0, 10), "Страница не отражает изменения таблицы");
+
+        map.clear();
+        map.put(5, "e");
+
+        assertEquals(List.of("e"), map.page(0, 10), "Страница не отражает очистку таблицы");
+    }
+
+    @Test
+    void pageMatchesSortedMap() {
+        Random random = new Random(7);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "Результат удаления не совпадает");
+            } else {
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i), "Результат добавления не совпадает");
+            }
+            if (i % 1_000 == 0) {
+                int afterKey = random.nextInt(2_000);
+                List<String> expectedPage = new ArrayList<>(expected.tailMap(afterKey, false).values());
+                assertEquals(expectedPage.subList(0, Math.min(50, expectedPage.size())), map.page(afterKey, 50),
+                        "Страница не совпадает после ключа " + afterKey);
+            }
+        }
+    }
+
+}
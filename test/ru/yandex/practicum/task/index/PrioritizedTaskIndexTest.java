@@ -0,0 +1,148 @@
+package ru.yandex.practicum.task.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrioritizedTaskIndexTest {
+    PrioritizedTaskIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new PrioritizedTaskIndex();
+    }
+
+    @Test
+    void addKeepsStartTimeOrder() {
+        Task task1 = createTask(1, 22, 0);
+        Task task2 = createTask(2, 21, 0);
+        Task task3 = new Task("Task 3", "Task 3 description", TaskStatus.NEW);
+        task3.setId(3);
+
+        index.add(task1);
+        index.add(task2);
+        index.add(task3);
+
+        assertIterableEquals(List.of(task2, task1), index.asSet(), "Задачи были отсортированы неверно");
+        assertEquals(2, index.size(), "Задача без времени начала не должна попадать в индекс");
+    }
+
+    @Test
+    void equalStartTimesAreKeptInIdOrder() {
+        Task task1 = createTask(2, 22, 0);
+        Task task2 = createTask(1, 22, 0);
+        Task task3 = createTask(3, 21, 0);
+        index.add(task1);
+        index.add(task2);
+        index.add(task3);
+
+        assertIterableEquals(List.of(task3, task2, task1), index.asSet(), "Задачи с одинаковым временем начала были потеряны");
+
+        List<Task> visited = new ArrayList<>();
+        index.forEach(visited::add);
+        assertEquals(List.of(task3, task2, task1), visited, "Обход индекса вернул задачи в неверном порядке");
+    }
+
+    @Test
+    void removeById() {
+        Task task1 = createTask(1, 22, 0);
+        Task task2 = createTask(2, 21, 0);
+        index.add(task1);
+        index.add(task2);
+
+        assertTrue(index.remove(1), "Задача не была удалена");
+        assertFalse(index.remove(1), "Повторное удаление должно возвращать false");
+        assertIterableEquals(List.of(task2), index.asSet(), "Задача не была удалена из индекса");
+        assertFalse(index.hasTimeIntersection(createTask(4, 22, 0)), "Интервал задачи не был удалён");
+    }
+
+    @Test
+    void removeByIdAfterStoredTaskChanged() {
+        Task task = createTask(1, 22, 0);
+        index.add(task);
+
+        task.setStartTime(LocalDateTime.of(2025, Month.FEBRUARY, 16, 10, 0));
+
+        assertTrue(index.remove(1), "Задача не была удалена");
+        assertEquals(0, index.size(), "Задача осталась в индексе");
+        assertFalse(index.hasTimeIntersection(createTask(2, 22, 0)), "Интервал задачи не был удалён");
+    }
+
+    @Test
+    void removeAll() {
+        IntHashSet ids = new IntHashSet();
+        for (int id = 1; id <= 20; id++) {
+            index.add(createTask(id, id, 0));
+            if (id % 2 == 0) {
+                ids.add(id);
+            }
+        }
+
+        index.removeAll(ids);
+
+        assertEquals(10, index.size(), "Неверное количество задач после удаления");
+        index.asSet().forEach(task -> assertEquals(1, task.getId() % 2, "Задача не была удалена"));
+        assertFalse(index.hasTimeIntersection(createTask(100, 2, 0)), "Интервал задачи не был удалён");
+        assertTrue(index.hasTimeIntersection(createTask(100, 3, 0)), "Интервал оставшейся задачи был удалён");
+    }
+
+    @Test
+    void hasTimeIntersection() {
+        index.add(createTask(1, 22, 0));
+
+        assertTrue(index.hasTimeIntersection(createTask(2, 22, 10)), "Пересечение не найдено");
+        assertFalse(index.hasTimeIntersection(createTask(1, 22, 10)), "Задача не должна пересекаться сама с собой");
+        assertFalse(index.hasTimeIntersection(createTask(2, 22, 30)), "Смежные задачи не должны пересекаться");
+    }
+
+    @Test
+    void asSetIsUnmodifiable() {
+        index.add(createTask(1, 22, 0));
+
+        assertThrows(UnsupportedOperationException.class, () -> index.asSet().clear(),
+                "Представление индекса не должно изменяться снаружи");
+    }
+
+    @Test
+    void addAllBuildsIndexInStartTimeOrder() {
+        Task task1 = createTask(1, 22, 0);
+        Task task2 = createTask(2, 21, 0);
+        Task task3 = createTask(3, 21, 0);
+        Task withoutStartTime = new Task("Task 4", "Task 4 description", TaskStatus.NEW);
+        withoutStartTime.setId(4);
+
+        index.addAll(List.of(task1, task2, withoutStartTime, task3));
+
+        assertIterableEquals(List.of(task2, task3, task1), index.asSet(), "Задачи были отсортированы неверно");
+        assertTrue(index.remove(3), "Задача должна удаляться по id");
+        assertTrue(index.hasTimeIntersection(createTask(5, 21, 10)), "Пересечение не найдено");
+    }
+
+    @Test
+    void addAllAcceptsTasksAlreadyInStartTimeOrder() {
+        Task task1 = createTask(2, 21, 0);
+        Task task2 = createTask(3, 21, 0);
+        Task task3 = createTask(1, 22, 0);
+
+        index.addAll(List.of(task1, task2, task3));
+
+        assertIterableEquals(List.of(task1, task2, task3), index.asSet(), "Задачи были отсортированы неверно");
+        assertTrue(index.remove(1), "Задача должна удаляться по id");
+        assertTrue(index.hasTimeIntersection(createTask(5, 21, 10)), "Пересечение не найдено");
+    }
+
+    private Task createTask(int id, int hour, int minute) {
+        Task task = new Task("Task " + id, "Task " + id + " description", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, hour, minute), 30);
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.yandex.practicum.task.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotViewTest {
+    IntObjectHashMap<String> map;
+    SnapshotView<String> view;
+
+    @BeforeEach
+    void beforeEach() {
+        map = new IntObjectHashMap<>();
+        view = new SnapshotView<>(map);
+    }
+
+    @Test
+    void snapshotIsSortedByKey() {
+        map.put(30, "c");
+        map.put(10, "a");
+        map.put(20, "b");
+
+        assertEquals(List.of("a", "b", "c"), view.get(), "Снимок должен быть упорядочен по ключу");
+    }
+
+    @Test
+    void snapshotIsSharedBetweenReads() {
+        map.put(1, "a");
+
+        List<String> first = view.get();
+
+        assertSame(first, view.get(), "Повторное чтение без изменений должно вернуть тот же снимок");
+    }
+
+    @Test
+    void snapshotIsRebuiltAfterMutation() {
+        map.put(1, "a");
+        List<String> first = view.get();
+
+        map.put(1, "b");
+        List<String> afterPut = view.get();
+        map.remove(1);
+        List<String> afterRemove = view.get();
+
+        assertEquals(List.of("a"), first, "Старый снимок не должен изменяться");
+        assertEquals(List.of("b"), afterPut, "Снимок не обновлён после замены значения");
+        assertTrue(afterRemove.isEmpty(), "Снимок не обновлён после удаления");
+    }
+
+    @Test
+    void removingMissingKeyKeepsSnapshot() {
+        map.put(1, "a");
+        List<String> first = view.get();
+
+        map.remove(2);
+
+        assertSame(first, view.get(), "Удаление отсутствующего ключа не должно сбрасывать снимок");
+    }
+
+    @Test
+    void snapshotIsUnmodifiable() {
+        map.put(1, "a");
+
+        assertThrows(UnsupportedOperationException.class, () -> view.get().add("b"),
+                "Снимок не должен изменяться снаружи");
+    }
+}
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.task.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedIntSetTest {
+
+    @Test
+    void addRemoveContains() {
+        SortedIntSet set = new SortedIntSet();
+
+        assertTrue(set.add(5), "Значение не было добавлено");
+        assertFalse(set.add(5), "Повторное значение было добавлено");
+        assertTrue(set.add(0), "Ноль не был добавлен");
+        assertTrue(set.contains(0), "Ноль не найден");
+        assertEquals(2, set.size(), "Неверный размер множества");
+        assertTrue(set.remove(5), "Значение не было удалено");
+        assertFalse(set.contains(5), "Удалённое значение найдено");
+        assertFalse(set.remove(5), "Отсутствующее значение было удалено");
+        assertArrayEquals(new int[]{0}, set.toArray(), "Неверное содержимое множества");
+    }
+
+    @Test
+    void forEachAfter() {
+        SortedIntSet set = new SortedIntSet();
+        for (int value = 10; value <= 50; value += 10) {
+            set.add(value);
+        }
+        List<Integer> visited = new ArrayList<>();
+
+        set.forEachAfter(20, value -> visited.add(value) && visited.size() < 2);
+        assertEquals(List.of(30, 40), visited, "Обход должен начинаться после существующего значения и прерываться");
+        visited.clear();
+        set.forEachAfter(25, visited::add);
+        assertEquals(List.of(30, 40, 50), visited, "Обход должен начинаться после отсутствующего значения");
+        visited.clear();
+        set.forEachAfter(50, visited::add);
+        assertTrue(visited.isEmpty(), "После наибольшего значения обходить нечего");
+    }
+
+    @Test
+    void matchesTreeSet() {
+        Random random = new Random(11);
+        SortedIntSet set = new SortedIntSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(2_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value), "Результат удаления не совпадает");
+            } else {
+                assertEquals(expected.add(value), set.add(value), "Результат добавления не совпадает");
+            }
+        }
+
+        assertEquals(expected.size(), set.size(), "Неверный размер множества");
+        for (int value = -100; value < 1_900; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "Результат поиска не совпадает для " + value);
+        }
+        List<Integer> iterated = new ArrayList<>();
+        set.forEach(iterated::add);
+        assertEquals(new ArrayList<>(expected), iterated, "Значения должны обходиться по возрастанию");
+    }
+
+    @Test
+    void copyIsIndependent() {
+        SortedIntSet set = new SortedIntSet();
+        set.add(1);
+        SortedIntSet copy = new SortedIntSet(set);
+        copy.add(2);
+
+        assertEquals(1, set.size(), "Изменение копии затронуло исходное множество");
+        assertEquals(2, copy.size(), "Неверный размер копии");
+    }
+
+}
@@ -0,0 +1,178 @@
+package ru.yandex.practicum.task.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.utils.DateTimeTaskUtil;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeIntervalIndexTest {
+    TimeIntervalIndex<Integer> index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new TimeIntervalIndex<>();
+    }
+
+    @Test
+    void hasOverlap() {
+        index.add(1, 100, 120);
+        index.add(2, 130, 130);
+
+        assertTrue(index.hasOverlap(110, 115, 0), "Пересечение внутри интервала не найдено");
+        assertTrue(index.hasOverlap(90, 101, 0), "Пересечение по левой границе не найдено");
+        assertTrue(index.hasOverlap(125, 135, 0), "Пересечение с задачей нулевой длительности не найдено");
+        assertFalse(index.hasOverlap(120, 130, 0), "Смежные интервалы не должны пересекаться");
+        assertFalse(index.hasOverlap(80, 100, 0), "Смежные интервалы не должны пересекаться");
+        assertFalse(index.hasOverlap(130, 130, 0), "Задачи нулевой длительности в одно время не должны пересекаться");
+    }
+
+    @Test
+    void keyKeepsStartAndIdOrder() {
+        assertTrue(TimeIntervalIndex.key(100, Integer.MAX_VALUE) < TimeIntervalIndex.key(101, 0),
+                "Ключ должен упорядочиваться прежде всего по времени начала");
+        assertTrue(TimeIntervalIndex.key(100, 1) < TimeIntervalIndex.key(100, 2),
+                "При равном времени начала ключ должен упорядочиваться по id");
+        assertTrue(TimeIntervalIndex.key(-1, 5) < TimeIntervalIndex.key(0, 1),
+                "Время до начала эпохи должно предшествовать времени после");
+        assertThrows(IllegalArgumentException.class, () -> TimeIntervalIndex.key(1L << 40, 1),
+                "Время начала вне диапазона должно отклоняться");
+        long lateStart = DateTimeTaskUtil.toEpochMinute(LocalDateTime.of(9999, Month.DECEMBER, 31, 23, 59));
+        long key = TimeIntervalIndex.key(lateStart, Integer.MAX_VALUE);
+        assertEquals(lateStart, TimeIntervalIndex.startOf(key), "Начало не восстановлено из ключа");
+        assertEquals(Integer.MAX_VALUE, TimeIntervalIndex.idOf(key), "Id не восстановлен из ключа");
+        assertTrue(TimeIntervalIndex.key(lateStart - 1, Integer.MAX_VALUE) < key,
+                "Ключ должен упорядочиваться по времени начала и для дальних дат");
+    }
+
+    @Test
+    void iterateInStartAndIdOrder() {
+        TimeIntervalIndex<String> values = new TimeIntervalIndex<>();
+        values.add(3, 100, 110, "c");
+        values.add(1, 100, 100, "a");
+        values.add(2, 50, 60, "b");
+
+        List<String> iterated = new ArrayList<>();
+        values.iterator().forEachRemaining(iterated::add);
+        List<String> visited = new ArrayList<>();
+        values.forEach(visited::add);
+
+        assertEquals(List.of("b", "a", "c"), iterated, "Итератор вернул значения в неверном порядке");
+        assertEquals(iterated, visited, "Обход вернул значения в неверном порядке");
+    }
+
+    @Test
+    void hasOverlapExcludesTask() {
+        index.add(1, 100, 120);
+
+        assertFalse(index.hasOverlap(105, 125, 1), "Задача не должна пересекаться сама с собой");
+        assertTrue(index.hasOverlap(105, 125, 2), "Пересечение с другой задачей не найдено");
+    }
+
+    @Test
+    void remove() {
+        index.add(1, 100, 120);
+        index.add(2, 100, 100);
+
+        assertFalse(index.remove(1, 101), "Интервал удалён по неверному времени начала");
+        assertTrue(index.remove(1, 100), "Интервал не был удалён");
+        assertEquals(1, index.size(), "Неверное количество интервалов после удаления");
+        assertFalse(index.hasOverlap(105, 110, 0), "Удалённый интервал участвует в проверке");
+    }
+
+    @Test
+    void findOverlaps() {
+        index.add(3, 200, 210);
+        index.add(1, 100, 150);
+        index.add(2, 160, 170);
+
+        assertEquals(List.of(1, 2), index.findOverlaps(140, 165), "Неверный список пересечений");
+        assertTrue(index.findOverlaps(150, 160).isEmpty(), "Найдены лишние пересечения");
+    }
+
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+
+        for (int id = 1; id <= 2_000; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + random.nextInt(60);
+            intervals.add(new long[]{id, start, end});
+            index.add(id, start, end);
+        }
+        for (int i = 0; i < 500; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            assertTrue(index.remove((int) removed[0], removed[1]), "Интервал не был удалён");
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + random.nextInt(120);
+            List<Integer> expected = intervals.stream()
+                    .filter(t -> t[1] < end && t[2] > start)
+                    .sorted((a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(a[0], b[0]))
+                    .map(t -> (int) t[0])
+                    .toList();
+
+            assertEquals(expected, index.findOverlaps(start, end), "Результат не совпадает с полным перебором");
+            assertEquals(!expected.isEmpty(), index.hasOverlap(start, end, 0), "Результат не совпадает с полным перебором");
+        }
+        assertEquals(intervals.size(), index.size(), "Неверное количество интервалов");
+    }
+
+    @Test
+    void forEachAfter() {
+        TimeIntervalIndex<Integer> values = new TimeIntervalIndex<>();
+        for (int id = 1; id <= 20; id++) {
+            values.add(id, 100 + id / 2, 100 + id / 2, id);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        values.forEachAfter(TimeIntervalIndex.key(105, 10), id -> {
+            visited.add(id);
+            return visited.size() < 4;
+        });
+
+        assertEquals(List.of(11, 12, 13, 14), visited, "Обход должен начинаться сразу после курсора");
+    }
+
+    @Test
+    void addAllSortedBuildsSearchableIndex() {
+        int count = 1000;
+        long[] keys = new long[count];
+        long[] ends = new long[count];
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys[i] = TimeIntervalIndex.key(i * 10L, i + 1);
+            ends[i] = i * 10L + 5;
+            values.add(i + 1);
+        }
+
+        index.addAllSorted(keys, ends, values);
+
+        assertEquals(count, index.size(), "Неверный размер индекса");
+        assertEquals(List.of(51), index.findOverlaps(503, 504), "Пересечение не найдено");
+        assertFalse(index.hasOverlap(505, 510, 0), "Интервалы не должны пересекаться");
+        List<Integer> visited = new ArrayList<>();
+        index.forEach(visited::add);
+        assertEquals(values, visited, "Неверный порядок обхода");
+
+        assertTrue(index.remove(51, 500), "Интервал не удалён");
+        index.add(2000, 503, 504);
+        assertEquals(List.of(2000), index.findOverlaps(503, 504), "Индекс должен оставаться изменяемым");
+    }
+
+    @Test
+    void addAllSortedRejectsUnsortedKeys() {
+        long[] keys = {TimeIntervalIndex.key(20, 1), TimeIntervalIndex.key(10, 2)};
+
+        assertThrows(IllegalArgumentException.class, () -> index.addAllSorted(keys, new long[]{30, 20}, List.of(1, 2)));
+    }
+}
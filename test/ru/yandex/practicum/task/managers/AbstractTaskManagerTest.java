@@ -2,6 +2,7 @@ package ru.yandex.practicum.task.managers;
 
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.enums.TaskType;
 import ru.yandex.practicum.task.interfaces.TaskManager;
 import ru.yandex.practicum.task.tasks.Epic;
 import ru.yandex.practicum.task.tasks.Subtask;
@@ -360,6 +361,46 @@ abstract class AbstractTaskManagerTest<T extends TaskManager> {
         assertEquals(calculatedEndTime, epicFromStore2.getEndTime(), "После добавления подзадач время окончания эпиков не совпадают.");
     }
 
+    @Test
+    void updateEpicStateViaStoredSubtask() {
+        Epic epic = new Epic("Test epic", "Test epic description", TaskStatus.NEW);
+        final Epic createdEpic = taskManager.createEpic(epic);
+        Subtask subtask = new Subtask(
+                "Test subtask", "Test subtask description", TaskStatus.NEW, createdEpic.getId(),
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 0), 10);
+        taskManager.createSubtask(subtask);
+
+        Subtask storedSubtask = taskManager.getSubtask(subtask.getId());
+        storedSubtask.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(storedSubtask);
+
+        assertEquals(TaskStatus.DONE, taskManager.getEpic(createdEpic.getId()).getStatus(), "Статус эпика не был пересчитан.");
+
+        storedSubtask = taskManager.getSubtask(subtask.getId());
+        storedSubtask.setStatus(TaskStatus.IN_PROGRESS);
+        taskManager.updateSubtask(storedSubtask);
+
+        assertEquals(TaskStatus.IN_PROGRESS, taskManager.getEpic(createdEpic.getId()).getStatus(), "Статус эпика не был пересчитан.");
+    }
+
+    @Test
+    void deleteAllSubtasksResetsEpicState() {
+        Epic epic = new Epic("Test epic", "Test epic description", TaskStatus.NEW);
+        final Epic createdEpic = taskManager.createEpic(epic);
+        Subtask subtask = new Subtask(
+                "Test subtask", "Test subtask description", TaskStatus.DONE, createdEpic.getId(),
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 0), 10);
+        taskManager.createSubtask(subtask);
+
+        taskManager.deleteAllSubtasks();
+        Epic epicFromStore = taskManager.getEpic(createdEpic.getId());
+
+        assertTrue(epicFromStore.getSubtaskIds().isEmpty(), "ID подзадач внутри эпика не были удалены");
+        assertEquals(TaskStatus.NEW, epicFromStore.getStatus(), "Статус эпика не был сброшен.");
+        assertNull(epicFromStore.getStartTime(), "Время начала эпика не было сброшено.");
+        assertEquals(Duration.ZERO, epicFromStore.getDuration(), "Продолжительность эпика не была сброшена.");
+    }
+
     @Test
     void deleteAllTasks() {
         Task task1 = new Task(
@@ -455,6 +496,37 @@ abstract class AbstractTaskManagerTest<T extends TaskManager> {
         assertTrue(epic.getSubtaskIds().isEmpty(), "ID подзадачи внутри эпика не был удален");
     }
 
+    @Test
+    void getSubtasksByEpicKeepsCreationOrder() {
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        List<Integer> createdIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            createdIds.add(taskManager.createSubtask(new Subtask("Test subtask " + i, "Test subtask description",
+                    TaskStatus.NEW, epic.getId())).getId());
+        }
+
+        List<Integer> ids = taskManager.getSubtasksByEpic(taskManager.getEpic(epic.getId())).stream()
+                .map(Task::getId)
+                .toList();
+
+        assertEquals(createdIds, ids, "Подзадачи эпика должны возвращаться в порядке создания");
+    }
+
+    @Test
+    void farStartTimesAreAcceptedOrRejectedBeforeChanges() {
+        Task lateTask = new Task("Test late task", "Test late task description", TaskStatus.NEW,
+                LocalDateTime.of(9999, Month.DECEMBER, 31, 10, 0), 30);
+        Task tooLateTask = new Task("Test too late task", "Test too late task description", TaskStatus.NEW,
+                LocalDateTime.of(100_000, Month.JANUARY, 1, 10, 0), 30);
+
+        taskManager.createTask(lateTask);
+
+        assertEquals(List.of(lateTask), List.copyOf(taskManager.getPrioritizedTasks()), "Задача с годом 9999 не добавлена");
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(tooLateTask),
+                "Время начала вне диапазона должно отклоняться");
+        assertEquals(1, taskManager.getAllTasks().size(), "Отклонённая задача не должна сохраняться");
+    }
+
     @Test
     void getPrioritizedTasks() {
         Task task1 = new Task(
@@ -504,4 +576,139 @@ abstract class AbstractTaskManagerTest<T extends TaskManager> {
 
         assertIterableEquals(Set.of(subtask), taskManager.getPrioritizedTasks(), "Приоритизированная задача не была удалена");
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteEpicRemovesPrioritizedSubtasks() {
+        Task task = new Task(
+                "Test prioritized task", "Test prioritized task description", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 20, 0), 30);
+        taskManager.createTask(task);
+
+        Epic epic = taskManager.createEpic(new Epic("Test prioritized epic", "Test prioritized epic description", TaskStatus.NEW));
+        for (int i = 0; i < 5; i++) {
+            taskManager.createSubtask(new Subtask(
+                    "Test prioritized subtask " + i, "Test prioritized subtask description " + i, TaskStatus.NEW,
+                    epic.getId(), LocalDateTime.of(2025, Month.FEBRUARY, 17, 10 + i, 0), 30));
+        }
+
+        taskManager.deleteEpic(epic.getId());
+
+        assertIterableEquals(Set.of(task), taskManager.getPrioritizedTasks(), "Подзадачи эпика не были удалены из приоритизированных задач");
+        assertDoesNotThrow(() -> taskManager.createTask(new Task(
+                "Test task", "Test task description", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 17, 10, 0), 30)), "Интервалы подзадач эпика не были удалены");
+    }
+
+    @Test
+    void updateTaskMovesPrioritizedTask() {
+        Task task1 = new Task(
+                "Test prioritized task 1", "Test prioritized task description 1", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 20, 0), 30);
+        Task task2 = new Task(
+                "Test prioritized task 2", "Test prioritized task description 2", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 21, 0), 30);
+        taskManager.createTask(task1);
+        taskManager.createTask(task2);
+
+        task1.setStartTime(LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 0));
+        taskManager.updateTask(task1);
+
+        assertIterableEquals(new LinkedHashSet<>(Arrays.asList(task2, task1)), taskManager.getPrioritizedTasks(), "Задача не была перемещена");
+        assertEquals(LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 0),
+                taskManager.getPrioritizedTasks().stream().toList().getLast().getStartTime(), "Время начала задачи не обновлено");
+    }
+
+    @Test
+    void prioritizedTasksWithEqualStartTime() {
+        Task task1 = new Task(
+                "Test prioritized task 1", "Test prioritized task description 1", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 0), 0);
+        Task task2 = new Task(
+                "Test prioritized task 2", "Test prioritized task description 2", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 0), 0);
+        taskManager.createTask(task1);
+        taskManager.createTask(task2);
+
+        assertIterableEquals(new LinkedHashSet<>(Arrays.asList(task1, task2)), taskManager.getPrioritizedTasks(),
+                "Задачи с одинаковым временем начала должны храниться отдельно в порядке id");
+    }
+
+    @Test
+    void getAllTasksReturnsSharedSnapshot() {
+        taskManager.createTask(new Task("Test snapshot task 1", "Test snapshot task description 1", TaskStatus.NEW));
+        final List<Task> tasks = taskManager.getAllTasks();
+
+        assertSame(tasks, taskManager.getAllTasks(), "Без изменений должен возвращаться тот же список");
+
+        Task task2 = taskManager.createTask(new Task("Test snapshot task 2", "Test snapshot task description 2", TaskStatus.NEW));
+
+        assertEquals(1, tasks.size(), "Ранее полученный список не должен изменяться");
+        assertEquals(2, taskManager.getAllTasks().size(), "Список не обновлён после создания задачи");
+        assertEquals(task2, taskManager.getAllTasks().getLast(), "Задачи должны быть упорядочены по id");
+    }
+
+    @Test
+    void getTasksPage() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(taskManager.createTask(new Task("Test page task " + i, "Test page task description " + i, TaskStatus.NEW)).getId());
+        }
+
+        assertEquals(ids.subList(0, 2), taskManager.getTasks(0, 2).stream().map(Task::getId).toList(), "Неверная первая страница");
+        assertEquals(ids.subList(2, 4), taskManager.getTasks(ids.get(1), 2).stream().map(Task::getId).toList(), "Неверная вторая страница");
+        assertEquals(ids.subList(4, 5), taskManager.getTasks(ids.get(3), 2).stream().map(Task::getId).toList(), "Неверная последняя страница");
+    }
+
+    @Test
+    void getPrioritizedTasksPage() {
+        LocalDateTime startTime = LocalDateTime.of(2025, Month.FEBRUARY, 16, 10, 0);
+        Task task1 = taskManager.createTask(new Task("Test page task 1", "Test page task description 1", TaskStatus.NEW, startTime, 0));
+        Task task2 = taskManager.createTask(new Task("Test page task 2", "Test page task description 2", TaskStatus.NEW, startTime, 0));
+        Task task3 = taskManager.createTask(new Task("Test page task 3", "Test page task description 3", TaskStatus.NEW, startTime.minusHours(1), 30));
+
+        assertEquals(List.of(task3, task1), taskManager.getPrioritizedTasks(null, 0, 2), "Неверная первая страница");
+        assertEquals(List.of(task2), taskManager.getPrioritizedTasks(startTime, task1.getId(), 2), "Неверная вторая страница");
+        assertTrue(taskManager.getPrioritizedTasks(startTime, task2.getId(), 2).isEmpty(), "Последняя страница должна быть пустой");
+    }
+
+    @Test
+    void versionsGrowOnChanges() {
+        Task task = taskManager.createTask(new Task("Test version task", "Test version task description", TaskStatus.NEW));
+        Epic epic = taskManager.createEpic(new Epic("Test version epic", "Test version epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Test version subtask",
+                "Test version subtask description", TaskStatus.NEW, epic.getId()));
+        long taskVersion = taskManager.getVersion(task.getId());
+        long epicVersion = taskManager.getVersion(epic.getId());
+        long epicsVersion = taskManager.getVersion(TaskType.EPIC);
+        long tasksVersion = taskManager.getVersion(TaskType.TASK);
+
+        taskManager.getAllTasks();
+        taskManager.getEpic(epic.getId());
+        assertEquals(taskVersion, taskManager.getVersion(task.getId()), "Чтение не должно менять версию задачи");
+        assertEquals(epicsVersion, taskManager.getVersion(TaskType.EPIC), "Чтение не должно менять версию эпиков");
+
+        subtask.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(subtask);
+        assertTrue(taskManager.getVersion(epic.getId()) > epicVersion, "Версия эпика должна меняться с подзадачей");
+        assertTrue(taskManager.getVersion(TaskType.EPIC) > epicsVersion, "Версия эпиков должна меняться с подзадачей");
+        assertEquals(taskVersion, taskManager.getVersion(task.getId()), "Версия другой задачи не должна меняться");
+
+        taskManager.deleteTask(task.getId());
+        assertEquals(-1, taskManager.getVersion(task.getId()), "У удалённой задачи нет версии");
+        assertTrue(taskManager.getVersion(TaskType.TASK) > tasksVersion, "Версия задач должна меняться при удалении");
+    }
+
+    @Test
+    void getTypeDoesNotTouchHistory() {
+        Task task = taskManager.createTask(new Task("Test type task", "Test type task description", TaskStatus.NEW));
+        Epic epic = taskManager.createEpic(new Epic("Test type epic", "Test type epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Test type subtask",
+                "Test type subtask description", TaskStatus.NEW, epic.getId()));
+
+        assertEquals(TaskType.TASK, taskManager.getType(task.getId()), "Неверный тип задачи");
+        assertEquals(TaskType.EPIC, taskManager.getType(epic.getId()), "Неверный тип эпика");
+        assertEquals(TaskType.SUBTASK, taskManager.getType(subtask.getId()), "Неверный тип подзадачи");
+        assertNull(taskManager.getType(999_999), "У отсутствующей задачи нет типа");
+        assertTrue(taskManager.getHistory().isEmpty(), "Проверка типа не должна попадать в историю");
+    }
+}
@@ -0,0 +1,92 @@
+package ru.yandex.practicum.task.managers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncFileBackedTaskManagerTest extends AbstractTaskManagerTest<AsyncFileBackedTaskManager> {
+    File file;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        file = File.createTempFile("temp", ".txt");
+        taskManager = AsyncFileBackedTaskManager.create(file, 60_000);
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        taskManager.close();
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    void updatesOnlyMarkStateDirty() throws InterruptedException {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        for (int i = 0; i < 1000; i++) {
+            task.setDescription("Test task description " + i);
+            taskManager.updateTask(task);
+        }
+        Thread.sleep(5);
+
+        assertEquals(0, file.length(), "Файл не должен записываться при каждом изменении");
+        assertEquals(1001, taskManager.getPendingChanges(), "Неверное количество незаписанных изменений");
+        assertTrue(taskManager.getPersistenceLag().compareTo(Duration.ZERO) > 0, "Отставание должно быть больше нуля");
+    }
+
+    @Test
+    void flushWritesLatestState() {
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask(
+                "Test subtask", "Test subtask description", TaskStatus.NEW, epic.getId()));
+        subtask.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(subtask);
+
+        taskManager.flush();
+
+        assertEquals(0, taskManager.getPendingChanges(), "Все изменения должны быть записаны");
+        assertEquals(Duration.ZERO, taskManager.getPersistenceLag(), "Отставание должно быть нулевым");
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(TaskStatus.DONE, loaded.getSubtask(subtask.getId()).getStatus(), "Статус подзадачи не совпадает");
+        assertEquals(TaskStatus.DONE, loaded.getEpic(epic.getId()).getStatus(), "Статус эпика не совпадает");
+    }
+
+    @Test
+    void writerThreadPersistsWithinInterval() throws IOException, InterruptedException {
+        taskManager.close();
+        taskManager = AsyncFileBackedTaskManager.create(file, 20);
+
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (taskManager.getPendingChanges() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, taskManager.getPendingChanges(), "Изменения должны быть записаны в фоне");
+        assertEquals(task, FileBackedTaskManager.loadFromFile(file).getTask(task.getId()), "Задачи не совпадают");
+    }
+
+    @Test
+    void closeWritesPendingChanges() {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+
+        taskManager.close();
+
+        AsyncFileBackedTaskManager loaded = AsyncFileBackedTaskManager.loadFromFile(file, 60_000);
+        try {
+            assertEquals(task, loaded.getTask(task.getId()), "Задачи не совпадают");
+        } finally {
+            loaded.close();
+        }
+    }
+}
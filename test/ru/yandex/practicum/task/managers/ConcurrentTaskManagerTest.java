@@ -0,0 +1,142 @@
+package ru.yandex.practicum.task.managers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.error.TimeIntersectedException;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends AbstractTaskManagerTest<ConcurrentTaskManager> {
+    private static final LocalDateTime START = LocalDateTime.of(2025, Month.FEBRUARY, 16, 0, 0);
+
+    @BeforeEach
+    void beforeEach() {
+        taskManager = new ConcurrentTaskManager(new InMemoryTaskManager());
+    }
+
+    @Test
+    void parallelCreateGivesUniqueIds() throws Exception {
+        int threads = 8;
+        int tasksPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < tasksPerThread; i++) {
+                    LocalDateTime startTime = START.plusMinutes((long) (thread * tasksPerThread + i) * 10);
+                    ids.add(taskManager.createTask(new Task("Task", "Task description", TaskStatus.NEW, startTime, 5)).getId());
+                    taskManager.getAllTasks();
+                    taskManager.getPrioritizedTasks();
+                }
+                return ids;
+            }));
+        }
+
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        for (Future<List<Integer>> future : futures) {
+            ids.addAll(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(threads * tasksPerThread, ids.size(), "Выданы неуникальные id");
+        assertEquals(threads * tasksPerThread, taskManager.getAllTasks().size(), "Неверное количество задач");
+        assertEquals(threads * tasksPerThread, taskManager.getPrioritizedTasks().size(), "Неверное количество задач по приоритету");
+    }
+
+    @Test
+    void parallelCreateKeepsTimeIntersectionCheck() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                for (int slot = 0; slot < 200; slot++) {
+                    try {
+                        taskManager.createTask(new Task("Task", "Task description", TaskStatus.NEW, START.plusMinutes(slot * 10L), 10));
+                        created.incrementAndGet();
+                    } catch (TimeIntersectedException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(200, created.get(), "В один временной слот попало несколько задач");
+        assertEquals(200 * (threads - 1), rejected.get(), "Неверное количество отклонённых задач");
+    }
+
+    @Test
+    void parallelSubtasksKeepEpicState() throws Exception {
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Epic description", TaskStatus.NEW));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Callable<Subtask>> jobs = new ArrayList<>();
+
+        for (int i = 0; i < 400; i++) {
+            long offset = i * 10L;
+            jobs.add(() -> taskManager.createSubtask(new Subtask(
+                    "Subtask", "Subtask description", TaskStatus.DONE, epic.getId(), START.plusMinutes(offset), 5)));
+        }
+        List<Integer> ids = executor.invokeAll(jobs).stream()
+                .map(f -> {
+                    try {
+                        return f.get().getId();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                })
+                .collect(Collectors.toList());
+        executor.shutdown();
+
+        Epic savedEpic = taskManager.getEpic(epic.getId());
+
+        assertEquals(400, Set.copyOf(ids).size(), "Выданы неуникальные id");
+        assertEquals(400, taskManager.getSubtasksByEpic(savedEpic).size(), "Неверное количество подзадач эпика");
+        assertEquals(TaskStatus.DONE, savedEpic.getStatus(), "Неверный статус эпика");
+        assertEquals(START, savedEpic.getStartTime(), "Неверное время начала эпика");
+    }
+
+    @Test
+    void returnedEpicsAreNotChangedByLaterWrites() {
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Epic description", TaskStatus.NEW));
+        Epic readEpic = taskManager.getEpic(epic.getId());
+        List<Epic> epics = taskManager.getAllEpics();
+
+        taskManager.createSubtask(new Subtask("Subtask", "Subtask description", TaskStatus.DONE, epic.getId(), START, 5));
+
+        assertTrue(readEpic.getSubtaskIds().isEmpty(), "Прочитанный эпик не должен меняться при записи");
+        assertTrue(epics.getFirst().getSubtaskIds().isEmpty(), "Эпики из списка не должны меняться при записи");
+        assertEquals(TaskStatus.NEW, readEpic.getStatus(), "Статус прочитанного эпика не должен меняться");
+        assertEquals(TaskStatus.DONE, taskManager.getEpic(epic.getId()).getStatus(), "Неверный статус эпика");
+        assertEquals(1, taskManager.getAllEpics().getFirst().getSubtaskIds().size(),
+                "После изменения должны возвращаться новые копии эпиков");
+    }
+
+}
@@ -4,14 +4,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.task.enums.TaskStatus;
 import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.error.TimeIntersectedException;
+import ru.yandex.practicum.task.storage.SnapshotFormat;
 import ru.yandex.practicum.task.tasks.Epic;
 import ru.yandex.practicum.task.tasks.Subtask;
 import ru.yandex.practicum.task.tasks.Task;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -56,6 +60,31 @@ class FileBackedTaskManagerTest extends AbstractTaskManagerTest<FileBackedTaskMa
         assertEquals(0, fileBackedTaskManager.getAllSubtasks().size(), "Неверное количество подзадач.");
     }
 
+    @Test
+    void batchSavesFileOnce() {
+        AtomicInteger saves = new AtomicInteger();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file) {
+            @Override
+            protected void save() {
+                saves.incrementAndGet();
+                super.save();
+            }
+        };
+
+        manager.batch(batchManager -> {
+            Epic epic = batchManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+            for (int i = 0; i < 100; i++) {
+                batchManager.createSubtask(new Subtask("Test subtask " + i, "Test subtask description",
+                        TaskStatus.NEW, epic.getId()));
+            }
+            return epic;
+        });
+
+        assertEquals(1, saves.get(), "Серия изменений должна сохраняться один раз");
+        assertEquals(100, FileBackedTaskManager.loadFromFile(file).getAllSubtasks().size(),
+                "Все изменения серии должны быть сохранены");
+    }
+
     @Test
     void saveAndLoadTasksFromFile() {
         createAllTasks();
@@ -82,6 +111,120 @@ class FileBackedTaskManagerTest extends AbstractTaskManagerTest<FileBackedTaskMa
         assertEquals(0, fileBackedTaskManager.getAllSubtasks().size(), "Неверное количество подзадач.");
     }
 
+    @Test
+    void loadedTasksTakePartInTimeIntersection() {
+        createAllTasks();
+
+        FileBackedTaskManager fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+        Task intersected = new Task(
+                "Test intersected", "Test intersected description", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 21, 50), 20);
+
+        assertThrows(TimeIntersectedException.class, () -> fileBackedTaskManager.createTask(intersected));
+    }
+
+    @Test
+    void loadKeepsTaskIds() {
+        createAllTasks();
+        Epic epic = taskManager.getAllEpics().getFirst();
+        taskManager.deleteTask(taskManager.getAllTasks().getFirst().getId());
+
+        FileBackedTaskManager fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+
+        assertEquals(epic, fileBackedTaskManager.getEpic(epic.getId()), "Id эпика изменился при загрузке");
+        assertEquals(taskManager.getSubtasksByEpic(epic), fileBackedTaskManager.getSubtasksByEpic(epic),
+                "Подзадачи эпика не восстановлены");
+    }
+
+    @Test
+    void saveAndLoadBinaryFile() {
+        taskManager = new FileBackedTaskManager(file, SnapshotFormat.BINARY);
+        createAllTasks();
+        Task task = taskManager.createTask(new Task("Name, with comma", "Line 1\nLine 2", TaskStatus.IN_PROGRESS,
+                LocalDateTime.of(2025, Month.FEBRUARY, 17, 9, 0), 45));
+
+        FileBackedTaskManager fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file, SnapshotFormat.BINARY);
+        Task loaded = fileBackedTaskManager.getTask(task.getId());
+
+        assertEquals(2, fileBackedTaskManager.getAllTasks().size(), "Неверное количество задач.");
+        assertEquals(2, fileBackedTaskManager.getAllSubtasks().size(), "Неверное количество подзадач.");
+        assertEquals(task.getName(), loaded.getName(), "Название задачи не совпадает");
+        assertEquals(task.getDescription(), loaded.getDescription(), "Описание задачи не совпадает");
+        assertEquals(task.getStartTime(), loaded.getStartTime(), "Время начала не совпадает");
+        assertEquals(task.getDuration(), loaded.getDuration(), "Длительность не совпадает");
+        assertEquals(task.getStatus(), loaded.getStatus(), "Статус не совпадает");
+    }
+
+    @Test
+    void convertCsvToBinaryAndBack() throws IOException {
+        createAllTasks();
+        File binary = File.createTempFile("temp", ".bin");
+        File csv = File.createTempFile("temp", ".txt");
+
+        try {
+            SnapshotConverter.convert(file, SnapshotFormat.CSV, binary, SnapshotFormat.BINARY);
+            assertEquals(SnapshotFormat.BINARY, SnapshotConverter.detectFormat(binary), "Неверный формат файла");
+            SnapshotConverter.convert(binary, SnapshotFormat.BINARY, csv, SnapshotFormat.CSV);
+
+            assertEquals(Files.readString(file.toPath()), Files.readString(csv.toPath()),
+                    "Файл после преобразования не совпадает с исходным");
+        } finally {
+            Files.deleteIfExists(binary.toPath());
+            Files.deleteIfExists(csv.toPath());
+        }
+    }
+
+    @Test
+    void parallelLoadMatchesSequentialLoad() throws IOException {
+        String header = "id,type,name,status,description,startTime,duration,epic\n";
+        StringBuilder ordered = new StringBuilder(header);
+        StringBuilder shuffled = new StringBuilder(header);
+        for (int epic = 0; epic < 300; epic++) {
+            int epicId = epic * 10 + 1;
+            String epicLine = epicId + ",EPIC,Epic,NEW,Epic description,,0\n";
+            ordered.append(epicLine);
+            for (int subtask = 1; subtask < 10; subtask++) {
+                TaskStatus status = subtask % 3 == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.NEW;
+                String line = (epicId + subtask) + ",SUBTASK,Subtask," + status + ",Subtask description "
+                        + (epicId + subtask) + "," + String.format("%02d.01.2025 %02d:%02d", epic % 28 + 1, subtask,
+                        epic % 60) + ",1," + epicId + "\n";
+                ordered.append(line);
+                shuffled.append(line);
+            }
+            // В файле для параллельной загрузки эпик записан после своих подзадач.
+            shuffled.append(epicLine);
+        }
+        String taskLine = "3001,TASK,Task,IN_PROGRESS,Task description,01.02.2025 10:00,30\n";
+        ordered.append(taskLine);
+        shuffled.append(taskLine);
+        File shuffledFile = File.createTempFile("temp", ".txt");
+        Files.writeString(file.toPath(), ordered);
+        Files.writeString(shuffledFile.toPath(), shuffled);
+        assertTrue(shuffledFile.length() > 64 * 1024, "Файл должен делиться на несколько частей");
+
+        FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(file);
+        FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileParallel(shuffledFile);
+        FileBackedTaskManager shuffledSequential = FileBackedTaskManager.loadFromFile(shuffledFile);
+        Files.delete(shuffledFile.toPath());
+
+        assertEquals(sequential.getAllTasks(), parallel.getAllTasks(), "Задачи не совпадают");
+        assertEquals(sequential.getAllSubtasks(), parallel.getAllSubtasks(), "Подзадачи не совпадают");
+        assertEquals(sequential.getAllEpics(), parallel.getAllEpics(), "Эпики не совпадают");
+        for (Epic epic : sequential.getAllEpics()) {
+            Epic parallelEpic = parallel.getEpic(epic.getId());
+            assertEquals(epic.getStatus(), parallelEpic.getStatus(), "Статус эпика не совпадает");
+            assertEquals(epic.getStartTime(), parallelEpic.getStartTime(), "Время начала эпика не совпадает");
+            assertEquals(epic.getSubtaskIds().size(), parallelEpic.getSubtaskIds().size(), "Подзадачи эпика не совпадают");
+        }
+        assertIterableEquals(sequential.getPrioritizedTasks(), parallel.getPrioritizedTasks(),
+                "Приоритизированные задачи не совпадают");
+        assertEquals(sequential.getAllSubtasks(), shuffledSequential.getAllSubtasks(),
+                "Подзадачи, записанные раньше эпика, должны загружаться");
+        assertEquals(TaskStatus.IN_PROGRESS, shuffledSequential.getEpic(1).getStatus(), "Статус эпика не пересчитан");
+        assertEquals(3002, parallel.createEpic(new Epic("New epic", "New epic description", TaskStatus.NEW)).getId(),
+                "Id должны продолжаться после загруженных");
+    }
+
     private void createAllTasks() {
         final Task task = new Task(
                 "Test saveTask", "Test saveTask description", TaskStatus.NEW,
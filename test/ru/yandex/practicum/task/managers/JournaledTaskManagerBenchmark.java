@@ -0,0 +1,77 @@
+package ru.yandex.practicum.task.managers;
+
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.storage.CompactionPolicy;
+import ru.yandex.practicum.task.storage.Durability;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Замер количества изменений в секунду для {@link JournaledTaskManager} под {@link ConcurrentTaskManager}
+ * при каждом уровне {@link Durability}. Не является тестом: запускается вручную.
+ * <p>
+ * Аргументы: количество потоков (по умолчанию 8), длительность замера в секундах (по умолчанию 5)
+ * и интервал групповой фиксации в миллисекундах (по умолчанию {@link JournaledTaskManager#DEFAULT_GROUP_COMMIT_MILLIS}).
+ */
+public class JournaledTaskManagerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long groupCommitMillis = args.length > 2 ? Long.parseLong(args[2]) : JournaledTaskManager.DEFAULT_GROUP_COMMIT_MILLIS;
+
+        System.out.printf("Потоков: %d, длительность: %d с, интервал групповой фиксации: %d мс%n",
+                threads, seconds, groupCommitMillis);
+        for (Durability durability : Durability.values()) {
+            double writesPerSecond = run(durability, threads, seconds, groupCommitMillis);
+            System.out.printf("%-12s %,12.0f изменений/с%n", durability, writesPerSecond);
+        }
+    }
+
+    private static double run(Durability durability, int threads, int seconds, long groupCommitMillis)
+            throws Exception {
+        Path directory = Files.createTempDirectory("kanban-benchmark");
+        File file = directory.resolve("tasks.txt").toFile();
+        LongAdder writes = new LongAdder();
+
+        try (JournaledTaskManager journaled = JournaledTaskManager.open(file, CompactionPolicy.defaults(),
+                durability, groupCommitMillis)) {
+            ConcurrentTaskManager manager = new ConcurrentTaskManager(journaled);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        manager.createTask(new Task("Benchmark task", "Benchmark task description", TaskStatus.NEW));
+                        writes.increment();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        return writes.sum() / (double) seconds;
+    }
+
+}
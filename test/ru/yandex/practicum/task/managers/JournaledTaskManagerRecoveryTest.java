@@ -0,0 +1,132 @@
+package ru.yandex.practicum.task.managers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.storage.CompactionPolicy;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Восстановление после принудительного завершения процесса во время записи снимка.
+ * <p>
+ * Дочерний процесс ({@link Writer}) непрерывно создаёт задачи с низким порогом записи снимка. Когда создано
+ * {@link #TASKS_BEFORE_PAUSE} задач, очередной снимок останавливается после записи временного файла, но до атомарной
+ * замены прежнего снимка ({@link JournaledTaskManager#moveSnapshot}), и процесс завершается именно в этот момент.
+ */
+class JournaledTaskManagerRecoveryTest {
+    private static final int TASKS_BEFORE_PAUSE = 1000;
+    private static final String PAUSED = "PAUSED";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverAfterKillDuringCompaction() throws Exception {
+        File file = directory.resolve("tasks.txt").toFile();
+        Path temp = directory.resolve("tasks.txt.tmp");
+        Process process = startWriter(file);
+
+        int lastAcknowledgedId = 0;
+        boolean paused = false;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (!paused && (line = reader.readLine()) != null) {
+                if (line.equals(PAUSED)) {
+                    paused = true;
+                } else {
+                    lastAcknowledgedId = Integer.parseInt(line);
+                }
+            }
+            process.destroyForcibly();
+            process.waitFor();
+        }
+
+        assertTrue(paused, "Дочерний процесс завершился до записи снимка");
+        assertTrue(Files.exists(temp), "Процесс должен быть завершён до замены снимка временным файлом");
+
+        try (JournaledTaskManager manager = JournaledTaskManager.open(file, CompactionPolicy.defaults())) {
+            List<Task> tasks = manager.getAllTasks();
+
+            assertTrue(tasks.size() >= lastAcknowledgedId, "Потеряны подтверждённые задачи");
+            for (int i = 0; i < tasks.size(); i++) {
+                assertEquals(i + 1, tasks.get(i).getId(), "Пропущена задача");
+                assertEquals("Task " + (i + 1), tasks.get(i).getName(), "Задача восстановлена неверно");
+            }
+        }
+    }
+
+    private Process startWriter(File file) throws IOException {
+        String classPath = String.join(File.pathSeparator,
+                System.getProperty("java.class.path"),
+                getLocation(JournaledTaskManager.class),
+                getLocation(Writer.class));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        return new ProcessBuilder(java, "-cp", classPath, Writer.class.getName(), file.getPath())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static String getLocation(Class<?> type) {
+        try {
+            return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    /**
+     * Дочерний процесс: создаёт задачи, пока его не завершат, и печатает id каждой сохранённой задачи.
+     * Первый снимок после {@link #TASKS_BEFORE_PAUSE} задач останавливается перед заменой файла и печатает {@link #PAUSED}.
+     */
+    static class Writer {
+        public static void main(String[] args) {
+            PausingManager manager = new PausingManager(new File(args[0]));
+            JournaledTaskManager.load(manager);
+            for (int i = 1; ; i++) {
+                Task task = manager.createTask(new Task("Task " + i, "Description " + i, TaskStatus.NEW));
+                System.out.println(task.getId());
+                manager.created.set(i);
+            }
+        }
+    }
+
+    /**
+     * Менеджер с низким порогом снимка, который после {@link #TASKS_BEFORE_PAUSE} задач не заменяет снимок,
+     * а печатает {@link #PAUSED} и ждёт завершения процесса.
+     */
+    static class PausingManager extends JournaledTaskManager {
+        private final AtomicInteger created = new AtomicInteger();
+
+        PausingManager(File file) {
+            super(file, new CompactionPolicy(50, CompactionPolicy.DEFAULT_MAX_LOG_BYTES, true),
+                    JournaledTaskManager.DEFAULT_DURABILITY, JournaledTaskManager.DEFAULT_GROUP_COMMIT_MILLIS);
+        }
+
+        @Override
+        void moveSnapshot(Path temp, Path snapshot) throws IOException {
+            if (created.get() >= TASKS_BEFORE_PAUSE) {
+                System.out.println(PAUSED);
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.moveSnapshot(temp, snapshot);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package ru.yandex.practicum.task.managers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.storage.CompactionPolicy;
+import ru.yandex.practicum.task.storage.Durability;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledTaskManagerTest extends AbstractTaskManagerTest<JournaledTaskManager> {
+    File file;
+    Path logPath;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        file = File.createTempFile("temp", ".txt");
+        logPath = JournaledTaskManager.getLogPath(file);
+        taskManager = JournaledTaskManager.open(file);
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        taskManager.close();
+        Files.deleteIfExists(logPath);
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    void writesAppendToLogOnly() throws IOException {
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask(
+                "Test subtask", "Test subtask description", TaskStatus.NEW, epic.getId()));
+        long logSize = Files.size(logPath);
+
+        subtask.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(subtask);
+
+        assertEquals(0, file.length(), "Снимок не должен переписываться при каждом изменении");
+        assertEquals(3, Files.readAllLines(logPath).size(), "Неверное количество записей в журнале");
+        assertTrue(Files.size(logPath) - logSize < 100, "Запись журнала должна содержать только изменение");
+    }
+
+    @Test
+    void reopenRestoresState() throws IOException {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 10, 0), 30));
+        Epic epic1 = taskManager.createEpic(new Epic("Test epic 1", "Test epic description 1", TaskStatus.NEW));
+        Epic epic2 = taskManager.createEpic(new Epic("Test epic 2", "Test epic description 2", TaskStatus.NEW));
+        Subtask subtask1 = taskManager.createSubtask(new Subtask(
+                "Test subtask 1", "Test subtask description 1", TaskStatus.NEW, epic1.getId(),
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 11, 0), 30));
+        Subtask subtask2 = taskManager.createSubtask(new Subtask(
+                "Test subtask 2", "Test subtask description 2", TaskStatus.NEW, epic2.getId()));
+        subtask1.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(subtask1);
+        taskManager.deleteEpic(epic2.getId());
+        taskManager.close();
+
+        taskManager = JournaledTaskManager.open(file);
+
+        assertEquals(task, taskManager.getTask(task.getId()), "Задача не восстановлена");
+        assertEquals(TaskStatus.DONE, taskManager.getEpic(epic1.getId()).getStatus(), "Состояние эпика не восстановлено");
+        assertEquals(1, taskManager.getAllEpics().size(), "Удалённый эпик восстановлен");
+        assertFalse(taskManager.getAllSubtasks().contains(subtask2), "Подзадача удалённого эпика восстановлена");
+        assertEquals(2, taskManager.getPrioritizedTasks().size(), "Приоритизированные задачи не восстановлены");
+        assertEquals(subtask2.getId() + 1,
+                taskManager.createTask(new Task("Test task 2", "Test task description 2", TaskStatus.NEW)).getId(),
+                "Нумерация задач должна продолжаться после восстановления");
+    }
+
+    @Test
+    void checkpointMovesLogToSnapshot() throws IOException {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+
+        taskManager.checkpoint();
+
+        assertEquals(0, Files.size(logPath), "Журнал не очищен");
+        assertTrue(file.length() > 0, "Снимок не записан");
+
+        taskManager.deleteTask(task.getId());
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file);
+
+        assertTrue(taskManager.getAllTasks().isEmpty(), "Запись журнала после снимка не применена");
+    }
+
+    @Test
+    void replayedRecordsAlreadyInSnapshotAreSkipped() throws IOException {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        taskManager.deleteTask(task.getId());
+        byte[] log = Files.readAllBytes(logPath);
+
+        taskManager.checkpoint();
+        taskManager.close();
+        // Сбой между записью снимка и очисткой журнала: журнал остался прежним.
+        Files.write(logPath, log);
+
+        taskManager = JournaledTaskManager.open(file);
+
+        assertTrue(taskManager.getAllTasks().isEmpty(), "Записи, учтённые в снимке, применены повторно");
+    }
+
+    @Test
+    void tornLastRecordIsDropped() throws IOException {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        taskManager.close();
+        Files.writeString(logPath, "2,DEL,TASK,", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        taskManager = JournaledTaskManager.open(file);
+        taskManager.createTask(new Task("Test task 2", "Test task description 2", TaskStatus.NEW));
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file);
+
+        assertEquals(2, taskManager.getAllTasks().size(), "Неполная запись журнала должна отбрасываться");
+        assertEquals(task, taskManager.getAllTasks().getFirst(), "Задача не восстановлена");
+    }
+
+    @Test
+    void compactsInBackgroundByRecordCount() throws IOException {
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file, new CompactionPolicy(5, CompactionPolicy.DEFAULT_MAX_LOG_BYTES, true));
+
+        for (int i = 0; i < 12; i++) {
+            taskManager.createTask(new Task("Test task " + i, "Test task description " + i, TaskStatus.NEW));
+        }
+        taskManager.awaitCompaction();
+
+        assertTrue(file.length() > 0, "Снимок не записан");
+        assertTrue(Files.readAllLines(logPath).size() < 12, "Записи, попавшие в снимок, остались в журнале");
+        try (var files = Files.list(file.toPath().getParent())) {
+            assertTrue(files.noneMatch(f -> f.getFileName().toString().startsWith(logPath.getFileName() + ".")),
+                    "Сегменты журнала, учтённые в снимке, не удалены");
+        }
+
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file);
+
+        assertEquals(12, taskManager.getAllTasks().size(), "Неверное количество задач после восстановления");
+    }
+
+    @Test
+    void compactsByLogSize() throws IOException {
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file, new CompactionPolicy(Long.MAX_VALUE, 200, false));
+
+        for (int i = 0; i < 10; i++) {
+            taskManager.createTask(new Task("Test task " + i, "Test task description " + i, TaskStatus.NEW));
+        }
+
+        assertTrue(file.length() > 0, "Снимок не записан");
+        assertTrue(Files.size(logPath) < 200, "Журнал не перенесён в снимок по размеру");
+    }
+
+    @Test
+    void groupCommitUnderConcurrentWriters() throws Exception {
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file, CompactionPolicy.defaults(), Durability.GROUP, 1);
+        ConcurrentTaskManager concurrentManager = new ConcurrentTaskManager(taskManager);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int threadNumber = thread;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    concurrentManager.createTask(new Task("Test task " + threadNumber + "-" + i, "Test task description", TaskStatus.NEW));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(200, Files.readAllLines(logPath).size(), "Не все подтверждённые изменения записаны в журнал");
+
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file);
+
+        assertEquals(200, taskManager.getAllTasks().size(), "Неверное количество задач после восстановления");
+    }
+
+    @Test
+    void syncDurabilityRestoresState() throws IOException {
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file, CompactionPolicy.defaults(), Durability.SYNC, 0);
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        taskManager.checkpoint();
+        taskManager.deleteTask(task.getId());
+
+        taskManager.close();
+        taskManager = JournaledTaskManager.open(file);
+
+        assertTrue(taskManager.getAllTasks().isEmpty(), "Изменения не восстановлены");
+    }
+}
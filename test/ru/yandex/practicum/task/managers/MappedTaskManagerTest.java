@@ -0,0 +1,172 @@
+package ru.yandex.practicum.task.managers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.error.NotFoundException;
+import ru.yandex.practicum.task.storage.MappedTaskStore;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTaskManagerTest extends AbstractTaskManagerTest<MappedTaskManager> {
+    @TempDir
+    Path directory;
+    File file;
+
+    @BeforeEach
+    void beforeEach() {
+        file = directory.resolve("tasks.dat").toFile();
+        taskManager = MappedTaskManager.open(file);
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        taskManager.close();
+    }
+
+    @Test
+    void reopenRestoresState() throws IOException {
+        Task task = taskManager.createTask(new Task("Task, with comma", null, TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 10, 0), 30));
+        Subtask subtask = createSubtaskBeforeItsEpic();
+        subtask.setStatus(TaskStatus.DONE);
+        taskManager.updateSubtask(subtask);
+        taskManager.close();
+
+        taskManager = MappedTaskManager.open(file);
+
+        Task loadedTask = taskManager.getTask(task.getId());
+        assertEquals(task.getName(), loadedTask.getName(), "Название задачи не совпадает");
+        assertNull(loadedTask.getDescription(), "Пустое описание должно сохраняться");
+        assertEquals(task.getStartTime(), loadedTask.getStartTime(), "Время начала не совпадает");
+        assertEquals(task.getDuration(), loadedTask.getDuration(), "Длительность не совпадает");
+        assertEquals(TaskStatus.DONE, taskManager.getSubtask(subtask.getId()).getStatus(), "Статус подзадачи не совпадает");
+        assertEquals(TaskStatus.DONE, taskManager.getEpic(subtask.getEpicId()).getStatus(), "Статус эпика не пересчитан");
+        assertEquals(2, taskManager.getPrioritizedTasks().size(), "Приоритизированные задачи не восстановлены");
+    }
+
+    @Test
+    void statusUpdateDoesNotAppendStrings() throws IOException {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        Path strings = MappedTaskStore.getStringsPath(file.toPath());
+        long stringsSize = Files.size(strings);
+        long recordsSize = Files.size(file.toPath());
+
+        for (TaskStatus status : TaskStatus.values()) {
+            task.setStatus(status);
+            taskManager.updateTask(task);
+        }
+
+        assertEquals(stringsSize, Files.size(strings), "Неизменённые строки не должны дописываться");
+        assertEquals(recordsSize, Files.size(file.toPath()), "Запись должна перезаписываться на месте");
+    }
+
+    @Test
+    void deletedSlotsAreReused() throws IOException {
+        for (int i = 0; i < 2000; i++) {
+            taskManager.createTask(new Task("Test task " + i, "Test task description", TaskStatus.NEW));
+        }
+        long recordsSize = Files.size(file.toPath());
+
+        taskManager.deleteAllTasks();
+        for (int i = 0; i < 2000; i++) {
+            taskManager.createTask(new Task("Test task " + i, "Test task description", TaskStatus.NEW));
+        }
+
+        assertEquals(recordsSize, Files.size(file.toPath()), "Освобождённые записи должны занимать новые задачи");
+        assertEquals(2000, taskManager.getAllTasks().size(), "Неверное количество задач");
+    }
+
+    @Test
+    void deletesAreKeptAfterReopen() throws IOException {
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask(
+                "Test subtask", "Test subtask description", TaskStatus.NEW, epic.getId()));
+        Epic otherEpic = taskManager.createEpic(new Epic("Other epic", "Other epic description", TaskStatus.NEW));
+        taskManager.createSubtask(new Subtask("Other subtask", "Other subtask description", TaskStatus.NEW,
+                otherEpic.getId()));
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        taskManager.deleteSubtask(subtask.getId());
+        taskManager.deleteEpic(otherEpic.getId());
+        taskManager.deleteTask(task.getId());
+        taskManager.close();
+
+        taskManager = MappedTaskManager.open(file);
+
+        assertTrue(taskManager.getAllEpics().isEmpty(), "Эпики должны быть удалены");
+        assertTrue(taskManager.getAllSubtasks().isEmpty(), "Подзадачи должны быть удалены");
+        assertTrue(taskManager.getAllTasks().isEmpty(), "Задачи должны быть удалены");
+        Task created = taskManager.createTask(new Task("New task", "New task description", TaskStatus.NEW));
+        assertEquals(task.getId() + 1, created.getId(), "Id удалённых задач не должны выдаваться повторно");
+    }
+
+    @Test
+    void reopenSkipsSubtasksWithoutEpic() throws IOException {
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Test subtask", "Test subtask description",
+                TaskStatus.NEW, epic.getId()));
+        taskManager.close();
+        // Процесс завершился после удаления записи эпика, но до удаления записей его подзадач.
+        try (MappedTaskStore store = MappedTaskStore.open(file.toPath(), task -> { })) {
+            store.remove(epic.getId());
+        }
+
+        taskManager = MappedTaskManager.open(file);
+        taskManager.close();
+        taskManager = MappedTaskManager.open(file);
+
+        assertTrue(taskManager.getAllSubtasks().isEmpty(), "Подзадача без эпика должна пропускаться");
+        assertThrows(NotFoundException.class, () -> taskManager.getSubtask(subtask.getId()),
+                "Запись подзадачи без эпика должна удаляться из хранилища");
+    }
+
+    @Test
+    void taskWithoutNameIsRejectedBeforeChanges() throws IOException {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        Task nameless = new Task("Test task", "Updated description", TaskStatus.DONE);
+        nameless.setId(task.getId());
+        nameless.setName(null);
+
+        assertThrows(NullPointerException.class, () -> taskManager.updateTask(nameless),
+                "Задача без названия не должна сохраняться");
+        taskManager.close();
+        taskManager = MappedTaskManager.open(file);
+
+        Task loaded = taskManager.getTask(task.getId());
+        assertEquals(task.getName(), loaded.getName(), "Название задачи не должно меняться");
+        assertEquals(TaskStatus.NEW, loaded.getStatus(), "Задача в файле должна совпадать с задачей в памяти");
+    }
+
+    @Test
+    void openRejectsForeignFile() throws IOException {
+        File foreign = directory.resolve("foreign.dat").toFile();
+        Files.writeString(foreign.toPath(), "id,type,name,status,description,startTime,duration,epic\n");
+
+        assertThrows(ManagerSaveException.class, () -> MappedTaskManager.open(foreign));
+    }
+
+    /**
+     * Создаёт подзадачу в освободившейся записи, которая в хранилище идёт раньше записи её эпика.
+     */
+    private Subtask createSubtaskBeforeItsEpic() {
+        Task placeholder = taskManager.createTask(new Task("Placeholder", "Placeholder description", TaskStatus.NEW));
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        taskManager.deleteTask(placeholder.getId());
+
+        return taskManager.createSubtask(new Subtask("Test subtask", "Test subtask description",
+                TaskStatus.NEW, epic.getId(), LocalDateTime.of(2025, Month.FEBRUARY, 16, 11, 0), 30));
+    }
+}
@@ -0,0 +1,146 @@
+package ru.yandex.practicum.task.managers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.enums.TaskType;
+import ru.yandex.practicum.task.error.ManagerSaveException;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedFileBackedTaskManagerTest extends AbstractTaskManagerTest<SegmentedFileBackedTaskManager> {
+    private static final int SEGMENT_SIZE = 4;
+
+    @TempDir
+    Path directory;
+    File segments;
+
+    @BeforeEach
+    void beforeEach() {
+        segments = directory.resolve("tasks").toFile();
+        taskManager = SegmentedFileBackedTaskManager.open(segments, SEGMENT_SIZE);
+    }
+
+    @Test
+    void reopenRestoresState() {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 10, 0), 30));
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        for (int i = 0; i < 10; i++) {
+            taskManager.createSubtask(new Subtask("Test subtask " + i, "Test subtask description",
+                    TaskStatus.DONE, epic.getId()));
+        }
+
+        taskManager = SegmentedFileBackedTaskManager.open(segments, SEGMENT_SIZE);
+
+        Task loadedTask = taskManager.getTask(task.getId());
+        assertEquals(task.getDescription(), loadedTask.getDescription(), "Описание задачи не совпадает");
+        assertEquals(task.getStartTime(), loadedTask.getStartTime(), "Время начала не совпадает");
+        assertEquals(10, taskManager.getAllSubtasks().size(), "Неверное количество подзадач");
+        assertEquals(TaskStatus.DONE, taskManager.getEpic(epic.getId()).getStatus(), "Статус эпика не пересчитан");
+        assertEquals(1, taskManager.getPrioritizedTasks().size(), "Приоритизированные задачи не восстановлены");
+        Task created = taskManager.createTask(new Task("New task", "New task description", TaskStatus.NEW));
+        assertEquals(13, created.getId(), "Id новой задачи должен продолжать загруженные");
+    }
+
+    @Test
+    void updateRewritesOnlyItsSegment() throws IOException {
+        for (int i = 0; i < 3 * SEGMENT_SIZE; i++) {
+            taskManager.createTask(new Task("Test task " + i, "Test task description", TaskStatus.NEW));
+        }
+        Path first = taskManager.getSegmentPath(TaskType.TASK, 1);
+        Path last = taskManager.getSegmentPath(TaskType.TASK, 3 * SEGMENT_SIZE);
+        Files.writeString(first, Files.readString(first) + "\n");
+
+        Task task = taskManager.getTask(3 * SEGMENT_SIZE);
+        task.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(task);
+
+        assertTrue(Files.readString(first).endsWith("\n\n"), "Неизменённый сегмент не должен перезаписываться");
+        assertTrue(Files.readString(last).contains(task.getId() + ",TASK,Test task 11,DONE"),
+                "Изменённый сегмент должен быть перезаписан");
+    }
+
+    @Test
+    void deleteAllRemovesSegmentsOfType() {
+        Task task = taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Test subtask", "Test subtask description",
+                TaskStatus.NEW, epic.getId()));
+
+        taskManager.deleteAllEpics();
+
+        assertFalse(Files.exists(taskManager.getSegmentPath(TaskType.EPIC, epic.getId())), "Сегмент эпиков не удалён");
+        assertFalse(Files.exists(taskManager.getSegmentPath(TaskType.SUBTASK, subtask.getId())),
+                "Сегмент подзадач не удалён");
+        assertTrue(Files.exists(taskManager.getSegmentPath(TaskType.TASK, task.getId())), "Сегмент задач удалён");
+    }
+
+    @Test
+    void deletesAreKeptAfterReopen() {
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Test subtask", "Test subtask description",
+                TaskStatus.NEW, epic.getId()));
+        Epic otherEpic = taskManager.createEpic(new Epic("Other epic", "Other epic description", TaskStatus.NEW));
+        taskManager.createSubtask(new Subtask("Other subtask", "Other subtask description", TaskStatus.IN_PROGRESS,
+                otherEpic.getId()));
+        taskManager.deleteSubtask(subtask.getId());
+        taskManager.deleteEpic(otherEpic.getId());
+
+        taskManager = SegmentedFileBackedTaskManager.open(segments, SEGMENT_SIZE);
+
+        assertTrue(taskManager.getAllEpics().isEmpty(), "Эпики должны быть удалены");
+        assertTrue(taskManager.getAllSubtasks().isEmpty(), "Подзадачи должны быть удалены");
+    }
+
+    @Test
+    void failedEpicWriteDoesNotLeaveItsSubtasksOnDisk() throws IOException {
+        Path epicSegment = taskManager.getSegmentPath(TaskType.EPIC, 1);
+        Files.createDirectories(epicSegment.resolveSibling(epicSegment.getFileName() + ".tmp"));
+
+        assertThrows(ManagerSaveException.class, () -> taskManager.batch(manager -> {
+            Epic epic = manager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+            return manager.createSubtask(new Subtask("Test subtask", "Test subtask description", TaskStatus.NEW,
+                    epic.getId()));
+        }), "Ошибка записи сегмента эпиков должна передаваться вызывающему");
+
+        assertFalse(Files.exists(taskManager.getSegmentPath(TaskType.SUBTASK, 2)),
+                "Подзадачи не должны записываться раньше своего эпика");
+    }
+
+    @Test
+    void reopenSkipsSubtasksWithoutEpic() throws IOException {
+        Epic epic = taskManager.createEpic(new Epic("Test epic", "Test epic description", TaskStatus.NEW));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Test subtask", "Test subtask description",
+                TaskStatus.NEW, epic.getId()));
+        Files.delete(taskManager.getSegmentPath(TaskType.EPIC, epic.getId()));
+
+        taskManager = SegmentedFileBackedTaskManager.open(segments, SEGMENT_SIZE);
+        taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+
+        assertTrue(taskManager.getAllSubtasks().isEmpty(), "Подзадача без эпика должна пропускаться");
+        assertFalse(Files.exists(taskManager.getSegmentPath(TaskType.SUBTASK, subtask.getId())),
+                "Сегмент с подзадачей без эпика должен быть переписан при следующем сохранении");
+    }
+
+    @Test
+    void reopenWithOtherSegmentSizeIsRejected() {
+        taskManager.createTask(new Task("Test task", "Test task description", TaskStatus.NEW));
+
+        assertThrows(IllegalArgumentException.class, () -> SegmentedFileBackedTaskManager.open(segments,
+                2 * SEGMENT_SIZE), "Каталог не должен открываться с другим размером сегмента");
+        assertEquals(1, SegmentedFileBackedTaskManager.open(segments).getAllTasks().size(),
+                "Без размера сегмента каталог должен открываться с записанным размером");
+    }
+}
@@ -0,0 +1,136 @@
+package ru.yandex.practicum.task.managers;
+
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.storage.BinarySnapshotCodec;
+import ru.yandex.practicum.task.storage.SnapshotFormat;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Замер времени сохранения и загрузки файла задач в каждом формате {@link SnapshotFormat}.
+ * Отдельно измеряется разбор файла без заполнения менеджера: загрузка включает ещё и построение индексов
+ * и состояния эпиков. Не является тестом: запускается вручную.
+ * <p>
+ * Каждый формат замеряется в отдельной JVM с теми же параметрами: иначе код, общий для обоих форматов
+ * (хеш-таблицы, даты), компилируется JIT под профиль первого формата и замедляет второй.
+ * <p>
+ * Аргументы: количество задач (по умолчанию 100 000), количество повторов (по умолчанию 5)
+ * и формат — если он указан, замеряется только он в текущей JVM.
+ */
+public class SnapshotFormatBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        if (args.length > 2) {
+            measure(SnapshotFormat.valueOf(args[2]), count, repeats);
+            return;
+        }
+
+        System.out.printf("Задач: %,d, повторов: %d%n", count, repeats);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                    SnapshotFormatBenchmark.class.getName(), String.valueOf(count), String.valueOf(repeats),
+                    format.name()));
+            int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exitCode != 0) {
+                throw new IllegalStateException("Замер формата " + format + " завершился с кодом " + exitCode);
+            }
+        }
+    }
+
+    private static void measure(SnapshotFormat format, int count, int repeats) throws Exception {
+        Path directory = Files.createTempDirectory("kanban-benchmark");
+        File file = directory.resolve("tasks." + format.name().toLowerCase()).toFile();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, format);
+        fill(manager, count);
+        // Данные долго работающего менеджера лежат в старом поколении кучи: переносим их туда до замеров.
+        System.gc();
+
+        long saveNanos = Long.MAX_VALUE;
+        long parseNanos = Long.MAX_VALUE;
+        long loadNanos = Long.MAX_VALUE;
+        for (int i = 0; i < repeats; i++) {
+            long start = System.nanoTime();
+            manager.save();
+            saveNanos = Math.min(saveNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            parse(file, format);
+            parseNanos = Math.min(parseNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            FileBackedTaskManager.loadFromFile(file, format);
+            loadNanos = Math.min(loadNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("%-7s размер %,12d байт, сохранение %,8.1f мс, разбор %,8.1f мс, загрузка %,8.1f мс%n",
+                format, file.length(), saveNanos / 1e6, parseNanos / 1e6, loadNanos / 1e6);
+        Files.delete(file.toPath());
+        Files.delete(directory);
+    }
+
+    /**
+     * Читает и разбирает файл в задачи, не добавляя их в менеджер.
+     * @return Количество прочитанных задач.
+     */
+    private static int parse(File file, SnapshotFormat format) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if (format == SnapshotFormat.BINARY) {
+            BinarySnapshotCodec.read(Files.readAllBytes(file.toPath()), tasks::add);
+        } else {
+            for (String line : Files.readString(file.toPath()).split("\n")) {
+                if (!line.startsWith("id")) {
+                    tasks.add(FileBackedTaskManager.fromString(line));
+                }
+            }
+        }
+        return tasks.size();
+    }
+
+    /**
+     * Заполняет менеджер задачами и эпиками по 10 подзадач без записи файла на каждое изменение.
+     */
+    static void fill(FileBackedTaskManager manager, int count) {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Epic epic = null;
+        for (int i = 0; i < count; i++) {
+            LocalDateTime startTime = start.plusMinutes(i * 30L);
+            if (i % 2 == 0) {
+                Task task = withId(new Task("Task " + i % 100, "Description of task " + i,
+                        TaskStatus.NEW, startTime, 15), i + 1);
+                manager.tasksMap.put(i + 1, task);
+                manager.prioritizedTasks.add(task);
+            } else if (i % 22 == 1) {
+                epic = withId(new Epic("Epic " + i, "Epic description", TaskStatus.NEW), i + 1);
+                manager.epicsMap.put(i + 1, epic);
+            } else {
+                Subtask subtask = withId(new Subtask("Subtask " + i % 100, "Description of subtask " + i,
+                        TaskStatus.IN_PROGRESS, epic.getId(), startTime, 15), i + 1);
+                manager.subtasksMap.put(i + 1, subtask);
+                manager.prioritizedTasks.add(subtask);
+                epic.addSubtaskId(subtask.getId());
+            }
+        }
+    }
+
+    private static <T extends Task> T withId(T task, int id) {
+        task.setId(id);
+        return task;
+    }
+
+}
@@ -0,0 +1,83 @@
+package ru.yandex.practicum.task.managers;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Замер времени запуска {@link FileBackedTaskManager#loadFromFile(File)} и
+ * {@link FileBackedTaskManager#loadFromFileParallel(File)} и пикового объёма кучи при загрузке
+ * файлов CSV разного размера. Не является тестом: запускается вручную.
+ * <p>
+ * Аргументы: количества строк (по умолчанию 10 000, 100 000 и 1 000 000). Для 1 000 000 строк нужна куча
+ * около 1 ГБ ({@code -Xmx1g}).
+ */
+public class StartupBenchmark {
+    private static final int REPEATS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{10_000, 100_000, 1_000_000};
+        Path directory = Files.createTempDirectory("kanban-benchmark");
+
+        for (int size : sizes) {
+            File file = directory.resolve("tasks-" + size + ".txt").toFile();
+            FileBackedTaskManager source = new FileBackedTaskManager(file);
+            SnapshotFormatBenchmark.fill(source, size);
+            source.save();
+            source = null;
+
+            for (boolean parallel : new boolean[]{false, true}) {
+                long bestNanos = Long.MAX_VALUE;
+                long peakBytes = 0;
+                for (int i = 0; i < REPEATS; i++) {
+                    System.gc();
+                    long baseline = usedHeap();
+                    resetPeaks();
+
+                    long start = System.nanoTime();
+                    FileBackedTaskManager loaded = parallel
+                            ? FileBackedTaskManager.loadFromFileParallel(file)
+                            : FileBackedTaskManager.loadFromFile(file);
+                    bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+
+                    peakBytes = Math.max(peakBytes, peakHeap() - baseline);
+                    if (loaded.getAllTasks().isEmpty()) {
+                        throw new IllegalStateException("Задачи не загружены");
+                    }
+                }
+
+                System.out.printf("%,10d строк, файл %,8.1f МБ, %-13s: загрузка %,9.1f мс, пик кучи %,8.1f МБ%n",
+                        size, file.length() / 1e6, parallel ? "параллельно" : "построчно", bestNanos / 1e6,
+                        peakBytes / 1e6);
+            }
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    private static void resetPeaks() {
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private static long peakHeap() {
+        return heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private static long usedHeap() {
+        return heapPools().stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+    }
+
+}
@@ -0,0 +1,102 @@
+package ru.yandex.practicum.task.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.enums.TaskStatus;
+import ru.yandex.practicum.task.tasks.Epic;
+import ru.yandex.practicum.task.tasks.Subtask;
+import ru.yandex.practicum.task.tasks.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySnapshotCodecTest {
+
+    @Test
+    void writeAndReadAllFields() throws IOException {
+        Epic epic = withId(new Epic("Epic", "Epic description", TaskStatus.NEW), 1);
+        Task task = withId(new Task("Task, with comma", null, TaskStatus.DONE,
+                LocalDateTime.of(1960, Month.MARCH, 1, 8, 30), 90), 2);
+        Subtask subtask = withId(new Subtask("Subtask", "Line 1\nLine 2", TaskStatus.IN_PROGRESS, 1,
+                LocalDateTime.of(2025, Month.FEBRUARY, 16, 10, 0), 15), 3);
+
+        List<Task> read = new ArrayList<>();
+        long sequence = BinarySnapshotCodec.read(write(42, List.of(task), List.of(epic), List.of(subtask)), read::add);
+
+        assertEquals(42, sequence, "Номер записи журнала не совпадает");
+        assertEquals(List.of(epic, task, subtask), read, "Эпики должны читаться перед задачами и подзадачами");
+        assertInstanceOf(Epic.class, read.get(0), "Неверный тип эпика");
+        assertNull(read.get(1).getDescription(), "Пустое описание должно сохраняться");
+        assertEquals(task.getName(), read.get(1).getName(), "Название не совпадает");
+        assertEquals(task.getStartTime(), read.get(1).getStartTime(), "Время начала до эпохи не совпадает");
+        assertEquals(task.getDuration(), read.get(1).getDuration(), "Длительность не совпадает");
+        assertEquals(TaskStatus.DONE, read.get(1).getStatus(), "Статус не совпадает");
+        Subtask readSubtask = (Subtask) read.get(2);
+        assertEquals(1, readSubtask.getEpicId(), "Id эпика не совпадает");
+        assertEquals(subtask.getDescription(), readSubtask.getDescription(), "Описание не совпадает");
+        assertEquals(subtask.getStartTime(), readSubtask.getStartTime(), "Время начала не совпадает");
+    }
+
+    @Test
+    void writeAndReadNullName() throws IOException {
+        Task task = withId(new Task("Task", "Task description", TaskStatus.NEW), 1);
+        task.setName(null);
+        Epic epic = withId(new Epic("Epic", null, TaskStatus.NEW), 2);
+        epic.setName(null);
+
+        List<Task> read = new ArrayList<>();
+        BinarySnapshotCodec.read(write(0, List.of(task), List.of(epic), List.of()), read::add);
+
+        assertEquals(List.of(epic, task), read, "Задачи без названия должны сохраняться");
+        assertNull(read.get(0).getName(), "Пустое название эпика должно сохраняться");
+        assertNull(read.get(1).getName(), "Пустое название задачи должно сохраняться");
+        assertEquals(task.getDescription(), read.get(1).getDescription(), "Описание не совпадает");
+    }
+
+    @Test
+    void repeatedStringsAreStoredOnce() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            tasks.add(withId(new Task("Repeated name", "Repeated description", TaskStatus.NEW), i));
+        }
+
+        byte[] data = write(0, tasks, List.of(), List.of());
+
+        assertTrue(data.length < 100 * 8, "Строки должны храниться в общей таблице");
+    }
+
+    @Test
+    void rejectsUnsupportedVersion() throws IOException {
+        byte[] data = write(0, List.of(), List.of(), List.of());
+        data[4] = (byte) (BinarySnapshotCodec.VERSION + 1);
+
+        assertThrows(IOException.class, () -> BinarySnapshotCodec.read(data, task -> { }));
+    }
+
+    @Test
+    void rejectsTruncatedData() throws IOException {
+        Task task = withId(new Task("Task", "Task description", TaskStatus.NEW), 1);
+        byte[] data = write(0, List.of(task), List.of(), List.of());
+        byte[] truncated = Arrays.copyOf(data, data.length - 2);
+
+        assertThrows(IOException.class, () -> BinarySnapshotCodec.read(truncated, read -> { }));
+    }
+
+    private static byte[] write(long sequence, List<Task> tasks, List<Epic> epics, List<Subtask> subtasks)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySnapshotCodec.write(out, sequence, tasks, epics, subtasks);
+        return out.toByteArray();
+    }
+
+    private static <T extends Task> T withId(T task, int id) {
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.yandex.practicum.task.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationLogTest {
+    @TempDir
+    Path directory;
+    Path path;
+
+    @BeforeEach
+    void beforeEach() {
+        path = directory.resolve("tasks.txt.log");
+    }
+
+    @Test
+    void appendAndReplay() throws IOException {
+        try (MutationLog log = MutationLog.open(path, 0, record -> { })) {
+            assertEquals(1, log.append("a"), "Неверный номер первой записи");
+            assertEquals(2, log.append("b"), "Неверный номер второй записи");
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (MutationLog log = MutationLog.open(path, 1, replayed::add)) {
+            assertEquals(List.of("b"), replayed, "Должны применяться только записи после снимка");
+            assertEquals(3, log.append("c"), "Нумерация записей не продолжена");
+        }
+    }
+
+    @Test
+    void replaySegmentsInOrder() throws IOException {
+        try (MutationLog log = MutationLog.open(path, 0, record -> { })) {
+            log.append("a");
+            log.rotate();
+            log.append("b");
+            log.append("c");
+            log.rotate();
+            log.append("d");
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (MutationLog log = MutationLog.open(path, 0, replayed::add)) {
+            assertEquals(List.of("a", "b", "c", "d"), replayed, "Записи сегментов применены не по порядку");
+            assertEquals(1, log.getRecordCount(), "Неверное количество записей в текущем файле");
+        }
+    }
+
+    @Test
+    void deleteSegmentsUpTo() throws IOException {
+        try (MutationLog log = MutationLog.open(path, 0, record -> { })) {
+            log.append("a");
+            long first = log.rotate();
+            log.append("b");
+            log.rotate();
+            log.append("c");
+
+            log.deleteSegmentsUpTo(first);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        MutationLog.open(path, 1, replayed::add).close();
+
+        assertEquals(List.of("b", "c"), replayed, "Удалён сегмент с неучтёнными записями");
+        assertFalse(Files.exists(path.resolveSibling("tasks.txt.log.1")), "Учтённый сегмент не удалён");
+    }
+
+    @Test
+    void tornLastRecordIsDropped() throws IOException {
+        try (MutationLog log = MutationLog.open(path, 0, record -> { })) {
+            log.append("a");
+        }
+        Files.writeString(path, "2,b", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<String> replayed = new ArrayList<>();
+        try (MutationLog log = MutationLog.open(path, 0, replayed::add)) {
+            log.append("c");
+        }
+
+        assertEquals(List.of("a"), replayed, "Неполная запись не должна применяться");
+        assertEquals(List.of("1,a", "2,c"), Files.readAllLines(path), "Неполная запись не удалена из журнала");
+    }
+
+    @Test
+    void groupCommitMakesRecordsDurable() throws Exception {
+        try (MutationLog log = MutationLog.open(path, 0, record -> { }, Durability.GROUP, 1)) {
+            long sequence = 0;
+            for (int i = 0; i < 10; i++) {
+                sequence = log.append("record " + i);
+            }
+
+            long last = sequence;
+            assertTimeoutPreemptively(java.time.Duration.ofSeconds(5), () -> log.awaitDurable(last),
+                    "Групповая фиксация не выполнена");
+            assertEquals(10, Files.readAllLines(path).size(), "Записи не сброшены в файл");
+        }
+    }
+
+    @Test
+    void syncWritesEachRecord() throws IOException {
+        try (MutationLog log = MutationLog.open(path, 0, record -> { }, Durability.SYNC, 0)) {
+            log.append("a");
+            log.awaitDurable(1);
+
+            assertEquals(List.of("1,a"), Files.readAllLines(path), "Запись не сброшена в файл");
+        }
+    }
+
+    @Test
+    void closeFlushesGroup() throws IOException {
+        try (MutationLog log = MutationLog.open(path, 0, record -> { }, Durability.GROUP, 60_000)) {
+            log.append("a");
+        }
+
+        assertEquals(List.of("1,a"), Files.readAllLines(path), "Записи не сброшены при закрытии");
+    }
+}
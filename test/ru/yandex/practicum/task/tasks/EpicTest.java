@@ -0,0 +1,73 @@
+package ru.yandex.practicum.task.tasks;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.task.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EpicTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, Month.FEBRUARY, 16, 0, 0);
+
+    @Test
+    void incrementalStateMatchesFullCalculation() {
+        Random random = new Random(7);
+        Epic incremental = new Epic("Epic", "Epic description", TaskStatus.NEW);
+        Epic calculated = new Epic("Epic", "Epic description", TaskStatus.NEW);
+        List<Subtask> subtasks = new ArrayList<>();
+
+        for (int i = 0; i < 2_000; i++) {
+            int operation = subtasks.isEmpty() ? 0 : random.nextInt(3);
+
+            if (operation == 0) {
+                Subtask subtask = randomSubtask(random, i);
+                subtasks.add(subtask);
+                incremental.addSubtask(subtask);
+            } else if (operation == 1) {
+                int index = random.nextInt(subtasks.size());
+                Subtask updated = randomSubtask(random, subtasks.get(index).getId());
+                incremental.replaceSubtask(subtasks.set(index, updated), updated);
+            } else {
+                incremental.removeSubtask(subtasks.remove(random.nextInt(subtasks.size())));
+            }
+
+            calculated.calculateState(subtasks);
+
+            assertEquals(calculated.getStatus(), incremental.getStatus(), "Статусы эпиков не совпадают.");
+            assertEquals(calculated.getStartTime(), incremental.getStartTime(), "Время начала эпиков не совпадает.");
+            assertEquals(calculated.getEndTime(), incremental.getEndTime(), "Время окончания эпиков не совпадает.");
+            assertEquals(calculated.getDuration(), incremental.getDuration(), "Продолжительность эпиков не совпадает.");
+        }
+    }
+
+    @Test
+    void clearSubtasks() {
+        Epic epic = new Epic("Epic", "Epic description", TaskStatus.NEW);
+        Subtask subtask = new Subtask("Subtask", "Subtask description", TaskStatus.DONE, 1, START, 15);
+        subtask.setId(2);
+        epic.addSubtaskId(subtask.getId());
+        epic.addSubtask(subtask);
+
+        epic.clearSubtasks();
+
+        assertEquals(TaskStatus.NEW, epic.getStatus(), "Статус эпика не был сброшен.");
+        assertEquals(0, epic.getDuration().toMinutes(), "Продолжительность эпика не была сброшена.");
+        assertNull(epic.getStartTime(), "Время начала эпика не было сброшено.");
+        assertEquals(0, epic.getSubtaskIds().size(), "Подзадачи эпика не были удалены.");
+    }
+
+    private Subtask randomSubtask(Random random, int id) {
+        TaskStatus status = TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+        LocalDateTime startTime = random.nextInt(10) == 0 ? null : START.plusMinutes(random.nextInt(50) * 30L);
+        Subtask subtask = new Subtask("Subtask", "Subtask description", status, 1, startTime, random.nextInt(60));
+        subtask.setId(id);
+        return subtask;
+    }
+
+}
@@ -8,60 +8,44 @@ import ru.yandex.practicum.task.tasks.Task;
 
 import java.time.LocalDateTime;
 import java.time.Month;
-import java.util.Set;
+import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 class TaskManagerUtilTest {
 
     @Test
-    void isTimeIntersected() {
-        Task task1 = new Task(
-                "Test prioritized task 1", "Test prioritized task description 1", TaskStatus.NEW,
+    void getCopyTasksCopiesEpicState() {
+        Epic epic = new Epic("Test copy epic", "Test copy epic description", TaskStatus.NEW);
+        epic.setId(1);
+        Subtask subtask = new Subtask("Test copy subtask", "Test copy subtask description", TaskStatus.DONE, 1,
                 LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 0), 20);
-        task1.setId(1);
-        Task task2 = new Task(
-                "Test prioritized task 2", "Test prioritized task description 2", TaskStatus.IN_PROGRESS,
-                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 30), 0);
-        task2.setId(2);
-        Subtask subtaskIntersected = new Subtask(
-                "Test prioritized subtask 1", "Test prioritized subtask description 1", TaskStatus.NEW, 1,
-                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 15), 5);
-        subtaskIntersected.setId(3);
-        Subtask subtask2 = new Subtask(
-                "Test prioritized subtask 2", "Test prioritized subtask description 2", TaskStatus.IN_PROGRESS, 2,
-                LocalDateTime.of(2025, Month.FEBRUARY, 16, 20, 0), 15);
-        subtask2.setId(4);
-
-        boolean isIntersected = TaskManagerUtil.isTimeIntersected(subtaskIntersected, Set.of(task1, task2, subtaskIntersected, subtask2));
-
-        assertTrue(isIntersected, "Задача не нашла пересечение по времени выполнения");
+        subtask.setId(2);
+        epic.addSubtaskId(2);
+        epic.addSubtask(subtask);
+
+        List<Epic> copies = TaskManagerUtil.getCopyTasks(List.of(epic));
+        epic.removeSubtaskId(2);
+        epic.calculateState(List.of());
+
+        Epic copy = copies.getFirst();
+        assertNotSame(epic, copy, "Должна возвращаться копия эпика");
+        assertEquals(TaskStatus.DONE, copy.getStatus(), "Копия должна сохранить вычисленный статус");
+        assertEquals(1, copy.getSubtaskIds().size(), "Изменение эпика не должно затрагивать копию");
+        assertEquals(subtask.getStartTime(), copy.getStartTime(), "Копия должна сохранить время начала");
     }
 
     @Test
-    void isTimeNotIntersected() {
-        Task task1 = new Task(
-                "Test prioritized task 1", "Test prioritized task description 1", TaskStatus.NEW,
-                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 0), 20);
+    void getCopyTasksKeepsOrder() {
+        Task task1 = new Task("Test copy task 1", "Test copy task description 1", TaskStatus.NEW);
         task1.setId(1);
-        Task task2 = new Task(
-                "Test prioritized task 2", "Test prioritized task description 2", TaskStatus.IN_PROGRESS,
-                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 30), 0);
+        Task task2 = new Task("Test copy task 2", "Test copy task description 2", TaskStatus.IN_PROGRESS);
         task2.setId(2);
-        Epic epic = new Epic("Test prioritized epic 1", "Test prioritized epic description 1", TaskStatus.NEW);
-        Subtask subtaskIntersected = new Subtask(
-                "Test prioritized subtask 1", "Test prioritized subtask description 1", TaskStatus.NEW, 1,
-                LocalDateTime.of(2025, Month.FEBRUARY, 16, 22, 20), 10);
-        subtaskIntersected.setId(3);
-        Subtask subtask2 = new Subtask(
-                "Test prioritized subtask 2", "Test prioritized subtask description 2", TaskStatus.IN_PROGRESS, 2,
-                LocalDateTime.of(2025, Month.FEBRUARY, 16, 20, 0), 15);
-        subtask2.setId(4);
 
-        boolean isIntersected = TaskManagerUtil.isTimeIntersected(subtaskIntersected, Set.of(task1, task2, subtaskIntersected, subtask2));
+        List<Task> copies = TaskManagerUtil.getCopyTasks(List.of(task1, task2));
 
-        assertFalse(isIntersected, "Задача пересекается по времени выполнения");
+        assertEquals(List.of(task1, task2), copies, "Копии должны идти в исходном порядке");
+        assertNotSame(task1, copies.getFirst(), "Должна возвращаться копия задачи");
     }
 
-}
\ No newline at end of file
+}